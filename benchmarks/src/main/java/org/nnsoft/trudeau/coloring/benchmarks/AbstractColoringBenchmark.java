@@ -0,0 +1,156 @@
+package org.nnsoft.trudeau.coloring.benchmarks;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import static org.nnsoft.trudeau.coloring.ColoringSolver.coloring;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.nnsoft.trudeau.coloring.ColoredNodes;
+import org.nnsoft.trudeau.coloring.NodeOrdering;
+import org.nnsoft.trudeau.coloring.NotEnoughColorsException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.graph.Graph;
+
+/**
+ * Benchmarks the coloring algorithms on a graph of the family and size set by the subclasses.
+ *
+ * Every invocation goes through the public API, so the compilation of the graph is measured too.
+ * Heuristics get one color more than the maximum degree, that is always enough; exact searches get
+ * the colors required by DSatur, so that they have to find a coloring at least as good.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( { Mode.Throughput, Mode.SampleTime } )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public abstract class AbstractColoringBenchmark
+{
+
+    private static final long SEED = 20180601L;
+
+    private Graph<Integer> graph;
+
+    private Set<Integer> heuristicColors;
+
+    private Set<Integer> exactColors;
+
+    /**
+     * Returns the family of the benchmarked graph.
+     *
+     * @return the family of the benchmarked graph
+     */
+    protected abstract GraphFamily getFamily();
+
+    /**
+     * Returns the number of nodes of the benchmarked graph.
+     *
+     * @return the number of nodes of the benchmarked graph
+     */
+    protected abstract int getNodes();
+
+    @Setup( Level.Trial )
+    public void setUp()
+        throws NotEnoughColorsException
+    {
+        graph = getFamily().build( getNodes(), SEED );
+
+        int maxDegree = 0;
+        for ( Integer node : graph.nodes() )
+        {
+            maxDegree = Math.max( maxDegree, graph.degree( node ) );
+        }
+        heuristicColors = createColors( maxDegree + 1 );
+        exactColors =
+            createColors( coloring( graph ).withColors( heuristicColors ).applyingDSaturAlgorithm().getRequiredColors() );
+    }
+
+    private static Set<Integer> createColors( int colorsCount )
+    {
+        final Set<Integer> colors = new LinkedHashSet<Integer>();
+        for ( int i = 0; i < colorsCount; i++ )
+        {
+            colors.add( i );
+        }
+        return colors;
+    }
+
+    protected final Graph<Integer> getGraph()
+    {
+        return graph;
+    }
+
+    protected final Set<Integer> getHeuristicColors()
+    {
+        return heuristicColors;
+    }
+
+    protected final Set<Integer> getExactColors()
+    {
+        return exactColors;
+    }
+
+    @Benchmark
+    public ColoredNodes<Integer, Integer> greedy()
+        throws NotEnoughColorsException
+    {
+        return coloring( graph ).withColors( heuristicColors ).applyingGreedyAlgorithm();
+    }
+
+    @Benchmark
+    public ColoredNodes<Integer, Integer> greedySmallestLast()
+        throws NotEnoughColorsException
+    {
+        return coloring( graph ).withColors( heuristicColors ).applyingGreedyAlgorithm( NodeOrdering.SMALLEST_LAST );
+    }
+
+    @Benchmark
+    public ColoredNodes<Integer, Integer> dSatur()
+        throws NotEnoughColorsException
+    {
+        return coloring( graph ).withColors( heuristicColors ).applyingDSaturAlgorithm();
+    }
+
+    @Benchmark
+    public ColoredNodes<Integer, Integer> backTracking()
+        throws NotEnoughColorsException
+    {
+        return coloring( graph ).withColors( exactColors ).applyingBackTrackingAlgorithm();
+    }
+
+    @Benchmark
+    public ColoredNodes<Integer, Integer> backJumping()
+        throws NotEnoughColorsException
+    {
+        return coloring( graph ).withColors( exactColors ).applyingBackJumpingAlgorithm();
+    }
+
+}
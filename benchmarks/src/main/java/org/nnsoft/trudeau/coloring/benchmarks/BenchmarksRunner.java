@@ -0,0 +1,51 @@
+package org.nnsoft.trudeau.coloring.benchmarks;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks selected by the usual JMH command line, always with the GC profiler so that
+ * the allocation rate is reported next to throughput and latency percentiles:
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar SparseGraphsBenchmark -p nodes=10000000 -jvmArgsAppend -Xmx32g
+ * </pre>
+ */
+public final class BenchmarksRunner
+{
+
+    private BenchmarksRunner()
+    {
+        // do nothing
+    }
+
+    public static void main( String[] args )
+        throws Exception
+    {
+        final Options options = new OptionsBuilder()
+            .parent( new CommandLineOptions( args ) )
+            .addProfiler( GCProfiler.class )
+            .build();
+        new Runner( options ).run();
+    }
+
+}
@@ -0,0 +1,58 @@
+package org.nnsoft.trudeau.coloring.benchmarks;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import static org.nnsoft.trudeau.coloring.ColoringSolver.coloring;
+
+import org.nnsoft.trudeau.coloring.ColoredNodes;
+import org.nnsoft.trudeau.coloring.NotEnoughColorsException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks the coloring algorithms on dense graphs, whose edges grow with the square of the nodes.
+ */
+public class DenseGraphsBenchmark
+    extends AbstractColoringBenchmark
+{
+
+    @Param( { "BIPARTED", "COMPLETE", "RANDOM_DENSE" } )
+    public GraphFamily family;
+
+    @Param( { "1000", "3000" } )
+    public int nodes;
+
+    @Override
+    protected GraphFamily getFamily()
+    {
+        return family;
+    }
+
+    @Override
+    protected int getNodes()
+    {
+        return nodes;
+    }
+
+    @Benchmark
+    public ColoredNodes<Integer, Integer> recursiveLargestFirst()
+        throws NotEnoughColorsException
+    {
+        return coloring( getGraph() ).withColors( getHeuristicColors() ).applyingRecursiveLargestFirstAlgorithm();
+    }
+
+}
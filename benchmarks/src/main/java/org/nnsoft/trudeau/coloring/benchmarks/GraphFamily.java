@@ -0,0 +1,194 @@
+package org.nnsoft.trudeau.coloring.benchmarks;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import java.util.Random;
+
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+
+/**
+ * The graph families the coloring algorithms are benchmarked on.
+ */
+public enum GraphFamily
+{
+
+    /**
+     * Complete bipartite graphs, with half of the nodes on each side.
+     */
+    BIPARTED
+    {
+
+        @Override
+        void connect( int nodes, Random random, MutableGraph<Integer> graph )
+        {
+            for ( int i = 0; i < nodes / 2; i++ )
+            {
+                for ( int j = nodes / 2; j < nodes; j++ )
+                {
+                    graph.putEdge( i, j );
+                }
+            }
+        }
+
+    },
+
+    /**
+     * Rings, where every node is adjacent to the previous and the next one.
+     */
+    CROWN
+    {
+
+        @Override
+        void connect( int nodes, Random random, MutableGraph<Integer> graph )
+        {
+            for ( int i = 0; i < nodes; i++ )
+            {
+                graph.putEdge( i, ( i + 1 ) % nodes );
+            }
+        }
+
+    },
+
+    /**
+     * Complete graphs.
+     */
+    COMPLETE
+    {
+
+        @Override
+        void connect( int nodes, Random random, MutableGraph<Integer> graph )
+        {
+            for ( int i = 0; i < nodes; i++ )
+            {
+                for ( int j = i + 1; j < nodes; j++ )
+                {
+                    graph.putEdge( i, j );
+                }
+            }
+        }
+
+    },
+
+    /**
+     * Uniform random graphs with an average degree of {@value #SPARSE_DEGREE}.
+     */
+    RANDOM_SPARSE
+    {
+
+        @Override
+        void connect( int nodes, Random random, MutableGraph<Integer> graph )
+        {
+            final long edges = (long) nodes * SPARSE_DEGREE / 2;
+            for ( long i = 0; i < edges; i++ )
+            {
+                int source = random.nextInt( nodes );
+                int target = random.nextInt( nodes );
+                if ( source != target )
+                {
+                    graph.putEdge( source, target );
+                }
+            }
+        }
+
+    },
+
+    /**
+     * Uniform random graphs where every edge exists with probability {@value #DENSE_PROBABILITY}.
+     */
+    RANDOM_DENSE
+    {
+
+        @Override
+        void connect( int nodes, Random random, MutableGraph<Integer> graph )
+        {
+            for ( int i = 0; i < nodes; i++ )
+            {
+                for ( int j = i + 1; j < nodes; j++ )
+                {
+                    if ( random.nextDouble() < DENSE_PROBABILITY )
+                    {
+                        graph.putEdge( i, j );
+                    }
+                }
+            }
+        }
+
+    },
+
+    /**
+     * The 81 cells of a sudoku grid, adjacent when in the same row, column or box, whatever the number of nodes.
+     */
+    SUDOKU
+    {
+
+        @Override
+        int size( int nodes )
+        {
+            return 81;
+        }
+
+        @Override
+        void connect( int nodes, Random random, MutableGraph<Integer> graph )
+        {
+            for ( int i = 0; i < 81; i++ )
+            {
+                for ( int j = i + 1; j < 81; j++ )
+                {
+                    int row1 = i / 9, column1 = i % 9, row2 = j / 9, column2 = j % 9;
+                    if ( row1 == row2 || column1 == column2
+                        || ( row1 / 3 == row2 / 3 && column1 / 3 == column2 / 3 ) )
+                    {
+                        graph.putEdge( i, j );
+                    }
+                }
+            }
+        }
+
+    };
+
+    private static final int SPARSE_DEGREE = 8;
+
+    private static final double DENSE_PROBABILITY = 0.5;
+
+    /**
+     * Builds a graph of this family.
+     *
+     * @param nodes the number of nodes
+     * @param seed the seed of the random families
+     * @return a graph of this family
+     */
+    public MutableGraph<Integer> build( int nodes, long seed )
+    {
+        nodes = size( nodes );
+        final MutableGraph<Integer> graph = GraphBuilder.undirected().expectedNodeCount( nodes ).build();
+        for ( int i = 0; i < nodes; i++ )
+        {
+            graph.addNode( i );
+        }
+        connect( nodes, new Random( seed ), graph );
+        return graph;
+    }
+
+    int size( int nodes )
+    {
+        return nodes;
+    }
+
+    abstract void connect( int nodes, Random random, MutableGraph<Integer> graph );
+
+}
@@ -0,0 +1,48 @@
+package org.nnsoft.trudeau.coloring.benchmarks;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks the coloring algorithms on sparse graphs, up to ten millions of nodes.
+ *
+ * The largest graphs need a heap of tens of gigabytes in the forked JVMs, see {@link BenchmarksRunner}.
+ */
+public class SparseGraphsBenchmark
+    extends AbstractColoringBenchmark
+{
+
+    @Param( { "CROWN", "RANDOM_SPARSE" } )
+    public GraphFamily family;
+
+    @Param( { "1000", "10000", "100000", "1000000", "10000000" } )
+    public int nodes;
+
+    @Override
+    protected GraphFamily getFamily()
+    {
+        return family;
+    }
+
+    @Override
+    protected int getNodes()
+    {
+        return nodes;
+    }
+
+}
@@ -0,0 +1,697 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.fill;
+import static java.util.Arrays.sort;
+
+/**
+ * Exact graph m-coloring search over an {@link IndexedGraph} with conflict-directed backjumping.
+ *
+ * As in the {@link BacktrackingSearch}, coloring a node removes its color from the domains of the
+ * uncolored neighbors and the next node to color is the one with the minimum number of remaining
+ * values; here every removed color also records the depth that removed it. When a node runs out of
+ * colors, the depths that removed them, together with the ones that caused the failures below it,
+ * are its conflict set: the search jumps straight back to the deepest of them, skipping the nodes
+ * that had nothing to do with the dead end, and the conflict set is passed along to that depth.
+ *
+ * The assignments of a conflict set can not be all part of a coloring: small ones are learned as
+ * nogoods in a bounded cache, oldest first out, and every assignment that completes a nogood fails
+ * straight away, wherever it happens in the rest of the search.
+ *
+ * As in the chronological search only the lowest unused color is tried among the unused ones: none
+ * of the assignments that made it fail uses any unused color, so by symmetry the same conflicts
+ * explain the failure of all the others. The search is bounded by a {@link Budget}, polled every
+ * {@link #STOP_CHECK_INTERVAL} assignments: once expired the search gives up as if the coloring did
+ * not exist.
+ */
+final class BackjumpingSearch
+    implements ExactSearch
+{
+
+    private static final int STOP_CHECK_INTERVAL = 1024;
+
+    private static final int MAX_NOGOOD_SIZE = 16;
+
+    static final int NOGOODS_CAPACITY = 128;
+
+    private static final int AVAILABLE = -1;
+
+    private static final int PREDEFINED = -2;
+
+    private final int[] offsets;
+
+    private final int[] neighbors;
+
+    private final int colorsCount;
+
+    private final int[] nodeColors;
+
+    // the depth that removed each color from the domain of each node, indexed by node * colorsCount + color.
+
+    private final int[] pruners;
+
+    private final int[] domainSizes;
+
+    // nodes colored with each color, predefined ones included.
+
+    private final int[] colorUsages;
+
+    // the depth of each node colored by the search, -1 for the other nodes.
+
+    private final int[] depths;
+
+    // uncolored nodes, keyed by domain size.
+
+    private final UncoloredOrderedNodes uncoloredNodes;
+
+    // domain entries removed, undone when the assignment is retracted.
+
+    private final int[] trail;
+
+    private int trailSize;
+
+    // search stack: the node colored at each depth, its color and the trail size before coloring it.
+
+    private final int[] stackNodes;
+
+    private final int[] stackColors;
+
+    private final int[] stackMarks;
+
+    // the depths that caused the failures at each depth.
+
+    private final int[][] conflicts;
+
+    private final int[] conflictSizes;
+
+    private final int[] marks;
+
+    private int stamp;
+
+    private final int[] jumpSet;
+
+    // learned nogoods, the assignments of each slot indexed by slot * MAX_NOGOOD_SIZE + literal.
+
+    private final int[] nogoodNodes = new int[NOGOODS_CAPACITY * MAX_NOGOOD_SIZE];
+
+    private final int[] nogoodColors = new int[NOGOODS_CAPACITY * MAX_NOGOOD_SIZE];
+
+    private final int[] nogoodSizes = new int[NOGOODS_CAPACITY];
+
+    private int nextSlot;
+
+    private long learnedNogoods;
+
+    private long nogoodHits;
+
+    // the nogoods containing each assignment, as doubly linked lists of literals.
+
+    private final int[] watchHeads;
+
+    private final int[] watchNext = new int[NOGOODS_CAPACITY * MAX_NOGOOD_SIZE];
+
+    private final int[] watchPrevious = new int[NOGOODS_CAPACITY * MAX_NOGOOD_SIZE];
+
+    private boolean consistent = true;
+
+    private Budget budget = Budget.UNLIMITED;
+
+    private boolean stopped;
+
+    private long assignments;
+
+    private SearchCounters counters = new SearchCounters();
+
+    /**
+     * Creates a new search over the input graph.
+     *
+     * @param graph the graph to color
+     * @param colorsCount the number of colors that can be assigned
+     * @param nodeColors the color index of each node, -1 for the nodes to be colored;
+     *        it contains the solution once {@link #solve()} succeeds.
+     */
+    public BackjumpingSearch( IndexedGraph<?> graph, int colorsCount, int[] nodeColors )
+    {
+        this.offsets = graph.getOffsets();
+        this.neighbors = graph.getNeighbors();
+        this.colorsCount = colorsCount;
+        this.nodeColors = nodeColors;
+
+        final int size = graph.size();
+        pruners = new int[size * colorsCount];
+        fill( pruners, AVAILABLE );
+        domainSizes = new int[size];
+        colorUsages = new int[colorsCount];
+        depths = new int[size];
+        fill( depths, -1 );
+        uncoloredNodes = new UncoloredOrderedNodes( size, colorsCount );
+        trail = new int[neighbors.length];
+        watchHeads = new int[size * colorsCount];
+        fill( watchHeads, -1 );
+
+        for ( int node = 0; node < size; node++ )
+        {
+            if ( nodeColors[node] != -1 )
+            {
+                if ( nodeColors[node] < colorsCount )
+                {
+                    colorUsages[nodeColors[node]]++;
+                }
+                continue;
+            }
+
+            domainSizes[node] = colorsCount;
+            for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+            {
+                int adjacent = neighbors[i];
+                if ( adjacent == node )
+                {
+                    // a self loop can not be colored
+                    consistent = false;
+                }
+                int adjacentColor = nodeColors[adjacent];
+                if ( adjacentColor != -1 && adjacentColor < colorsCount
+                    && pruners[node * colorsCount + adjacentColor] == AVAILABLE )
+                {
+                    pruners[node * colorsCount + adjacentColor] = PREDEFINED;
+                    domainSizes[node]--;
+                }
+            }
+
+            if ( domainSizes[node] == 0 )
+            {
+                consistent = false;
+            }
+        }
+
+        // nodes are queued in reverse index order, so for each domain size the lowest indexes come first.
+        int uncolored = 0;
+        for ( int node = size - 1; node >= 0; node-- )
+        {
+            if ( nodeColors[node] == -1 )
+            {
+                uncoloredNodes.add( node, domainSizes[node] );
+                uncolored++;
+            }
+        }
+
+        stackNodes = new int[uncolored];
+        stackColors = new int[uncolored];
+        stackMarks = new int[uncolored];
+        conflicts = new int[uncolored][];
+        conflictSizes = new int[uncolored];
+        marks = new int[uncolored];
+        jumpSet = new int[uncolored];
+    }
+
+    /**
+     * Sets the budget that, once expired, interrupts this search.
+     *
+     * @param budget the search budget
+     */
+    public void setBudget( Budget budget )
+    {
+        this.budget = budget;
+    }
+
+    /**
+     * Sets the counters of the work done by this search.
+     *
+     * @param counters the counters of the run
+     */
+    public void setCounters( SearchCounters counters )
+    {
+        this.counters = counters;
+    }
+
+    /**
+     * Tells whether the last {@link #solve()} gave up because the budget expired,
+     * rather than because there is no coloring.
+     *
+     * @return true if the search has been interrupted, false otherwise.
+     */
+    public boolean isInterrupted()
+    {
+        return stopped;
+    }
+
+    /**
+     * Returns the number of nogoods learned by the last {@link #solve()}, evicted ones included.
+     *
+     * @return the number of learned nogoods.
+     */
+    long getLearnedNogoods()
+    {
+        return learnedNogoods;
+    }
+
+    /**
+     * Returns the number of nogoods currently in the cache, at most {@link #NOGOODS_CAPACITY}.
+     *
+     * @return the number of cached nogoods.
+     */
+    int getCachedNogoods()
+    {
+        int cached = 0;
+        for ( int slot = 0; slot < NOGOODS_CAPACITY; slot++ )
+        {
+            if ( nogoodSizes[slot] > 0 )
+            {
+                cached++;
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Returns the number of assignments that failed because they completed a cached nogood.
+     *
+     * @return the number of nogood hits.
+     */
+    long getNogoodHits()
+    {
+        return nogoodHits;
+    }
+
+    /**
+     * Searches a coloring for all the uncolored nodes.
+     *
+     * @return true if there is a valid coloring for the graph, false otherwise.
+     */
+    public boolean solve()
+    {
+        return consistent && search();
+    }
+
+    /**
+     * Depth-first search over an explicit stack, jumping back to the deepest conflict of each dead end.
+     *
+     * @return true if all the remaining nodes have been colored, false otherwise.
+     */
+    private boolean search()
+    {
+        int node = uncoloredNodes.peekMin();
+        if ( node == -1 )
+        {
+            return true;
+        }
+
+        int depth = 0;
+        push( depth, node );
+
+        while ( depth >= 0 )
+        {
+            node = stackNodes[depth];
+            int previousColor = stackColors[depth];
+            if ( previousColor != -1 )
+            {
+                retract( node, stackMarks[depth] );
+                counters.backtracks++;
+            }
+            if ( stopped )
+            {
+                return false;
+            }
+
+            int color = nextCandidate( node, previousColor + 1 );
+            if ( color == -1 )
+            {
+                // all colors failed, jump back to the deepest conflict
+                int target = collectConflicts( depth );
+                if ( target == -1 )
+                {
+                    return false;
+                }
+                jump( depth, target );
+                depth = target;
+                continue;
+            }
+
+            stackColors[depth] = color;
+            stackMarks[depth] = trailSize;
+            if ( !assign( depth, node, color ) )
+            {
+                continue;
+            }
+
+            int next = uncoloredNodes.peekMin();
+            if ( next == -1 )
+            {
+                return true;
+            }
+
+            depth++;
+            push( depth, next );
+        }
+        return false;
+    }
+
+    private void push( int depth, int node )
+    {
+        uncoloredNodes.remove( node );
+        stackNodes[depth] = node;
+        stackColors[depth] = -1;
+        conflictSizes[depth] = 0;
+        counters.visitedNodes++;
+    }
+
+    /**
+     * Returns the lowest used or lowest unused color, not lower than the input one, in the domain of the input node.
+     *
+     * @return the lowest candidate color, -1 if there are no more candidates.
+     */
+    private int nextCandidate( int node, int from )
+    {
+        int fresh = 0;
+        while ( fresh < colorsCount && colorUsages[fresh] > 0 )
+        {
+            fresh++;
+        }
+
+        final int base = node * colorsCount;
+        for ( int color = from; color < colorsCount; color++ )
+        {
+            if ( pruners[base + color] == AVAILABLE && ( color == fresh || colorUsages[color] > 0 ) )
+            {
+                return color;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Colors the node, checks the learned nogoods and removes its color from the domains of the uncolored
+     * neighbors; on failure the conflicts of the depth are extended with the depths responsible for it.
+     *
+     * @return false if the assignment completes a nogood or some neighbor has no more candidate colors,
+     *         true otherwise.
+     */
+    private boolean assign( int depth, int node, int color )
+    {
+        if ( ++assignments % STOP_CHECK_INTERVAL == 0 && budget.isExpired() )
+        {
+            stopped = true;
+            return false;
+        }
+
+        counters.exploredNodes++;
+        counters.colorAttempts++;
+        nodeColors[node] = color;
+        depths[node] = depth;
+        colorUsages[color]++;
+
+        final int nogood = findCompletedNogood( node * colorsCount + color );
+        if ( nogood != -1 )
+        {
+            nogoodHits++;
+            openConflicts( depth );
+            final int base = nogood * MAX_NOGOOD_SIZE;
+            for ( int i = 0; i < nogoodSizes[nogood]; i++ )
+            {
+                addConflict( depth, depths[nogoodNodes[base + i]] );
+            }
+            return false;
+        }
+
+        final int end = offsets[node + 1];
+        for ( int i = offsets[node]; i < end; i++ )
+        {
+            int adjacent = neighbors[i];
+            int entry = adjacent * colorsCount + color;
+            if ( nodeColors[adjacent] == -1 && pruners[entry] == AVAILABLE )
+            {
+                pruners[entry] = depth;
+                domainSizes[adjacent]--;
+                uncoloredNodes.decrementKey( adjacent );
+                trail[trailSize++] = entry;
+
+                if ( domainSizes[adjacent] == 0 )
+                {
+                    // the neighbor failed because of all the depths that emptied its domain
+                    counters.conflictChecks += i - offsets[node] + 1;
+                    openConflicts( depth );
+                    addPruners( depth, adjacent );
+                    return false;
+                }
+            }
+        }
+        counters.conflictChecks += end - offsets[node];
+        return true;
+    }
+
+    /**
+     * Uncolors the node and restores the domain entries removed since the trail mark.
+     */
+    private void retract( int node, int mark )
+    {
+        undo( mark );
+        uncolor( node );
+    }
+
+    private void uncolor( int node )
+    {
+        if ( nodeColors[node] != -1 )
+        {
+            colorUsages[nodeColors[node]]--;
+            nodeColors[node] = -1;
+            depths[node] = -1;
+        }
+    }
+
+    private void undo( int mark )
+    {
+        while ( trailSize > mark )
+        {
+            int entry = trail[--trailSize];
+            int adjacent = entry / colorsCount;
+            pruners[entry] = AVAILABLE;
+            domainSizes[adjacent]++;
+            if ( uncoloredNodes.contains( adjacent ) )
+            {
+                uncoloredNodes.incrementKey( adjacent );
+            }
+        }
+    }
+
+    /**
+     * Merges the conflicts of the exhausted depth with the depths that emptied the domain of its node,
+     * learns them as a nogood and passes them along to the deepest of them.
+     *
+     * @return the depth to jump back to, -1 if the dead end does not depend on any assignment.
+     */
+    private int collectConflicts( int depth )
+    {
+        stamp++;
+        int size = 0;
+        int target = -1;
+        final int[] depthConflicts = conflicts[depth];
+        for ( int i = 0; i < conflictSizes[depth]; i++ )
+        {
+            int conflict = depthConflicts[i];
+            if ( marks[conflict] != stamp )
+            {
+                marks[conflict] = stamp;
+                jumpSet[size++] = conflict;
+                target = Math.max( target, conflict );
+            }
+        }
+        final int base = stackNodes[depth] * colorsCount;
+        for ( int color = 0; color < colorsCount; color++ )
+        {
+            int pruner = pruners[base + color];
+            if ( pruner >= 0 && marks[pruner] != stamp )
+            {
+                marks[pruner] = stamp;
+                jumpSet[size++] = pruner;
+                target = Math.max( target, pruner );
+            }
+        }
+
+        if ( target == -1 )
+        {
+            return -1;
+        }
+
+        learn( size );
+
+        openConflicts( target );
+        for ( int i = 0; i < size; i++ )
+        {
+            addConflict( target, jumpSet[i] );
+        }
+        return target;
+    }
+
+    /**
+     * Uncolors all the nodes deeper than the target depth, putting them back in the queue.
+     */
+    private void jump( int depth, int target )
+    {
+        // the target assignment is retracted next, as after a chronological backtrack
+        counters.backtracks += depth - target - 1;
+        for ( int current = target + 1; current < depth; current++ )
+        {
+            uncolor( stackNodes[current] );
+        }
+        if ( target + 1 < depth )
+        {
+            undo( stackMarks[target + 1] );
+        }
+        for ( int current = depth; current > target; current-- )
+        {
+            int node = stackNodes[current];
+            uncoloredNodes.add( node, domainSizes[node] );
+        }
+    }
+
+    /**
+     * Marks the conflicts already recorded at the input depth, so that {@link #addConflict(int, int)}
+     * does not add them twice.
+     */
+    private void openConflicts( int depth )
+    {
+        stamp++;
+        final int[] depthConflicts = conflicts[depth];
+        for ( int i = 0; i < conflictSizes[depth]; i++ )
+        {
+            marks[depthConflicts[i]] = stamp;
+        }
+    }
+
+    private void addConflict( int depth, int conflict )
+    {
+        if ( conflict == depth || marks[conflict] == stamp )
+        {
+            return;
+        }
+        marks[conflict] = stamp;
+
+        int[] depthConflicts = conflicts[depth];
+        if ( depthConflicts == null )
+        {
+            depthConflicts = conflicts[depth] = new int[Math.min( 8, conflicts.length )];
+        }
+        else if ( conflictSizes[depth] == depthConflicts.length )
+        {
+            depthConflicts = conflicts[depth] = copyOf( depthConflicts, depthConflicts.length * 2 );
+        }
+        depthConflicts[conflictSizes[depth]++] = conflict;
+    }
+
+    private void addPruners( int depth, int node )
+    {
+        final int base = node * colorsCount;
+        for ( int color = 0; color < colorsCount; color++ )
+        {
+            int pruner = pruners[base + color];
+            if ( pruner >= 0 )
+            {
+                addConflict( depth, pruner );
+            }
+        }
+    }
+
+    /**
+     * Stores the assignments at the depths of the jump set as a nogood, replacing the oldest one.
+     */
+    private void learn( int size )
+    {
+        if ( size > MAX_NOGOOD_SIZE )
+        {
+            return;
+        }
+
+        final int slot = nextSlot;
+        nextSlot = ( nextSlot + 1 ) % NOGOODS_CAPACITY;
+        learnedNogoods++;
+
+        final int base = slot * MAX_NOGOOD_SIZE;
+        for ( int i = 0; i < nogoodSizes[slot]; i++ )
+        {
+            unwatch( base + i, nogoodNodes[base + i] * colorsCount + nogoodColors[base + i] );
+        }
+
+        // deepest assignments first, the likeliest ones to be missing when the nogood is checked
+        sort( jumpSet, 0, size );
+        for ( int i = 0; i < size; i++ )
+        {
+            int literal = base + i;
+            int depth = jumpSet[size - 1 - i];
+            nogoodNodes[literal] = stackNodes[depth];
+            nogoodColors[literal] = stackColors[depth];
+            watch( literal, nogoodNodes[literal] * colorsCount + nogoodColors[literal] );
+        }
+        nogoodSizes[slot] = size;
+    }
+
+    private void watch( int literal, int entry )
+    {
+        final int head = watchHeads[entry];
+        watchPrevious[literal] = -1;
+        watchNext[literal] = head;
+        if ( head != -1 )
+        {
+            watchPrevious[head] = literal;
+        }
+        watchHeads[entry] = literal;
+    }
+
+    private void unwatch( int literal, int entry )
+    {
+        final int previous = watchPrevious[literal];
+        final int next = watchNext[literal];
+        if ( previous == -1 )
+        {
+            watchHeads[entry] = next;
+        }
+        else
+        {
+            watchNext[previous] = next;
+        }
+        if ( next != -1 )
+        {
+            watchPrevious[next] = previous;
+        }
+    }
+
+    /**
+     * Looks for a nogood, containing the input assignment, whose assignments all hold.
+     *
+     * @return the slot of the completed nogood, -1 if there is none.
+     */
+    private int findCompletedNogood( int entry )
+    {
+        for ( int literal = watchHeads[entry]; literal != -1; literal = watchNext[literal] )
+        {
+            int slot = literal / MAX_NOGOOD_SIZE;
+            int base = slot * MAX_NOGOOD_SIZE;
+            boolean completed = true;
+            for ( int i = 0; completed && i < nogoodSizes[slot]; i++ )
+            {
+                completed = nodeColors[nogoodNodes[base + i]] == nogoodColors[base + i];
+            }
+            if ( completed )
+            {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+}
@@ -0,0 +1,584 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+import static java.lang.Long.numberOfTrailingZeros;
+import static java.util.Arrays.fill;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Exact graph m-coloring search over an {@link IndexedGraph}.
+ *
+ * Every uncolored node keeps a bitset of its remaining candidate colors: coloring a node removes
+ * that color from the domains of its uncolored neighbors (forward checking), so a dead end is
+ * detected as soon as a domain becomes empty, and the next node to color is always the one with
+ * the minimum number of remaining values.
+ *
+ * Colors that are neither predefined nor used yet are interchangeable: renaming them in a coloring
+ * gives another coloring, so only the lowest of them, the fresh color, is tried at each node, and
+ * an infeasible search does not explore again the permutations of the same subtree.
+ *
+ * A hint, such as a previous coloring, can tell the color class each node should join: every node
+ * first tries the color already taken by the nodes of its class, or the fresh color if there are none
+ * yet, so a coloring close to the hint is found without backtracking whenever it exists. The hint only
+ * changes the order of the candidates, never the colorings the search can find.
+ *
+ * A search can be shared with other workers through a stop flag and bounded by a {@link Budget},
+ * both polled every {@link #STOP_CHECK_INTERVAL} assignments: once raised or expired the search
+ * gives up as if the coloring did not exist. The same happens once the search exceeds its assignments limit, if any.
+ */
+final class BacktrackingSearch
+    implements ExactSearch
+{
+
+    private static final int STOP_CHECK_INTERVAL = 1024;
+
+    private final int[] offsets;
+
+    private final int[] neighbors;
+
+    private final int colorsCount;
+
+    private final int words;
+
+    private final int[] nodeColors;
+
+    private final long[] domains;
+
+    private final int[] domainSizes;
+
+    // candidate colors: the predefined ones, the ones used by the search and the fresh one.
+
+    private final long[] allowedColors;
+
+    // nodes colored with each color by the search.
+
+    private final int[] colorUsages;
+
+    // colors not predefined, in increasing order: the first 'freshUsed' ones are used by the search.
+
+    private final int[] freshColors;
+
+    private int freshUsed;
+
+    // uncolored nodes, keyed by domain size.
+
+    private final UncoloredOrderedNodes uncoloredNodes;
+
+    // neighbors that lost a color, undone when the assignment is retracted.
+
+    private final int[] trail;
+
+    private int trailSize;
+
+    // search stack: the node colored at each depth, its color and the trail size before coloring it.
+
+    private final int[] stackNodes;
+
+    private final int[] stackColors;
+
+    private final int[] stackMarks;
+
+    // the color class of each node in the hint, the search color of each hinted class, the preferred
+    // color tried first at each depth and the class mapped by the color at each depth.
+
+    private int[] hint;
+
+    private int[] hintColors;
+
+    private int[] stackPreferred;
+
+    private int[] stackHints;
+
+    private boolean consistent = true;
+
+    private AtomicBoolean stop;
+
+    private Budget budget = Budget.UNLIMITED;
+
+    private boolean stopped;
+
+    private long assignments;
+
+    private long assignmentsLimit = Long.MAX_VALUE;
+
+    private SearchCounters counters = new SearchCounters();
+
+    /**
+     * Creates a new search over the input graph.
+     *
+     * @param graph the graph to color
+     * @param colorsCount the number of colors that can be assigned
+     * @param nodeColors the color index of each node, -1 for the nodes to be colored;
+     *        it contains the solution once {@link #solve()} succeeds.
+     */
+    public BacktrackingSearch( IndexedGraph<?> graph, int colorsCount, int[] nodeColors )
+    {
+        this.offsets = graph.getOffsets();
+        this.neighbors = graph.getNeighbors();
+        this.colorsCount = colorsCount;
+        this.words = ( colorsCount + 63 ) >>> 6;
+        this.nodeColors = nodeColors;
+
+        final int size = graph.size();
+        domains = new long[size * words];
+        domainSizes = new int[size];
+        uncoloredNodes = new UncoloredOrderedNodes( size, colorsCount );
+        trail = new int[neighbors.length];
+
+        for ( int node = 0; node < size; node++ )
+        {
+            if ( nodeColors[node] != -1 )
+            {
+                continue;
+            }
+
+            for ( int word = 0; word < words; word++ )
+            {
+                int bits = Math.min( 64, colorsCount - ( word << 6 ) );
+                domains[node * words + word] = bits == 64 ? -1L : ( 1L << bits ) - 1;
+            }
+            domainSizes[node] = colorsCount;
+
+            for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+            {
+                int adjacent = neighbors[i];
+                if ( adjacent == node )
+                {
+                    // a self loop can not be colored
+                    consistent = false;
+                }
+                int adjacentColor = nodeColors[adjacent];
+                if ( adjacentColor != -1 && adjacentColor < colorsCount && removeValue( node, adjacentColor ) )
+                {
+                    domainSizes[node]--;
+                }
+            }
+
+            if ( domainSizes[node] == 0 )
+            {
+                consistent = false;
+            }
+        }
+
+        final boolean[] predefined = new boolean[colorsCount];
+        for ( int node = 0; node < size; node++ )
+        {
+            if ( nodeColors[node] != -1 && nodeColors[node] < colorsCount )
+            {
+                predefined[nodeColors[node]] = true;
+            }
+        }
+
+        allowedColors = new long[words];
+        colorUsages = new int[colorsCount];
+        int freshCount = 0;
+        for ( int color = 0; color < colorsCount; color++ )
+        {
+            if ( predefined[color] )
+            {
+                allowColor( color, true );
+            }
+            else
+            {
+                freshCount++;
+            }
+        }
+        freshColors = new int[freshCount];
+        freshCount = 0;
+        for ( int color = 0; color < colorsCount; color++ )
+        {
+            if ( !predefined[color] )
+            {
+                freshColors[freshCount++] = color;
+            }
+        }
+        if ( freshColors.length > 0 )
+        {
+            allowColor( freshColors[0], true );
+        }
+
+        // nodes are queued in reverse index order, so for each domain size the lowest indexes come first.
+        int uncolored = 0;
+        for ( int node = size - 1; node >= 0; node-- )
+        {
+            if ( nodeColors[node] == -1 )
+            {
+                uncoloredNodes.add( node, domainSizes[node] );
+                uncolored++;
+            }
+        }
+
+        stackNodes = new int[uncolored];
+        stackColors = new int[uncolored];
+        stackMarks = new int[uncolored];
+    }
+
+    /**
+     * Sets the flag that, once raised by another worker, interrupts this search.
+     *
+     * @param stop the shared stop flag
+     */
+    public void setStop( AtomicBoolean stop )
+    {
+        this.stop = stop;
+    }
+
+    /**
+     * Sets the budget that, once expired, interrupts this search.
+     *
+     * @param budget the search budget
+     */
+    public void setBudget( Budget budget )
+    {
+        this.budget = budget;
+    }
+
+    /**
+     * Sets the counters of the work done by this search.
+     *
+     * @param counters the counters of the run
+     */
+    public void setCounters( SearchCounters counters )
+    {
+        this.counters = counters;
+    }
+
+    /**
+     * Sets the color class of each node to be tried first, as in a previous coloring: the nodes of the
+     * same class prefer the same color, whatever its index in this search.
+     *
+     * @param hint the hinted color class of each node, -1 or not lower than the number of colors for
+     *        the nodes with no hint
+     */
+    public void setHint( int[] hint )
+    {
+        this.hint = hint;
+        hintColors = new int[colorsCount];
+        fill( hintColors, -1 );
+        stackPreferred = new int[stackNodes.length];
+        stackHints = new int[stackNodes.length];
+    }
+
+    /**
+     * Sets the maximum number of assignments the search can try before giving up.
+     *
+     * @param assignmentsLimit the maximum number of assignments
+     */
+    public void setAssignmentsLimit( long assignmentsLimit )
+    {
+        this.assignmentsLimit = assignmentsLimit;
+    }
+
+    /**
+     * Tells whether the last {@link #solve()} gave up because stopped or out of assignments,
+     * rather than because there is no coloring.
+     *
+     * @return true if the search has been interrupted, false otherwise.
+     */
+    public boolean isInterrupted()
+    {
+        return stopped;
+    }
+
+    /**
+     * Searches a coloring for all the uncolored nodes.
+     *
+     * @return true if there is a valid coloring for the graph, false otherwise.
+     */
+    public boolean solve()
+    {
+        return consistent && search();
+    }
+
+    /**
+     * Depth-first search over an explicit stack: the search depth is bounded by the heap only
+     * and no frame is allocated while searching.
+     *
+     * @return true if all the remaining nodes have been colored, false otherwise.
+     */
+    private boolean search()
+    {
+        // minimum remaining values: empty domains are never left behind a successful assignment.
+        int node = uncoloredNodes.peekMin();
+        if ( node == -1 )
+        {
+            return true;
+        }
+
+        int depth = 0;
+        uncoloredNodes.remove( node );
+        push( depth, node );
+
+        while ( depth >= 0 )
+        {
+            node = stackNodes[depth];
+            int previousColor = stackColors[depth];
+            if ( previousColor != -1 )
+            {
+                retract( node, previousColor, stackMarks[depth] );
+                counters.backtracks++;
+                if ( hint != null && stackHints[depth] != -1 )
+                {
+                    hintColors[stackHints[depth]] = -1;
+                }
+            }
+
+            // the domain of a colored node is never pruned, it can be safely iterated
+            int color = hint == null ? nextCandidate( node, previousColor + 1 )
+                            : nextHintedCandidate( node, previousColor, stackPreferred[depth] );
+            if ( color == -1 )
+            {
+                // all colors failed, backtrack to the previous node
+                uncoloredNodes.add( node, domainSizes[node] );
+                depth--;
+                continue;
+            }
+
+            stackColors[depth] = color;
+            stackMarks[depth] = trailSize;
+            if ( hint != null )
+            {
+                mapHint( depth, node, color );
+            }
+            if ( !assign( node, color ) )
+            {
+                continue;
+            }
+
+            int next = uncoloredNodes.peekMin();
+            if ( next == -1 )
+            {
+                return true;
+            }
+
+            depth++;
+            uncoloredNodes.remove( next );
+            push( depth, next );
+        }
+        return false;
+    }
+
+    private void push( int depth, int node )
+    {
+        stackNodes[depth] = node;
+        stackColors[depth] = -1;
+        if ( hint != null )
+        {
+            stackPreferred[depth] = preferredColor( node );
+        }
+        counters.visitedNodes++;
+    }
+
+    /**
+     * Returns the color of the class hinted for the input node, or the fresh color if no node of that
+     * class has been colored yet.
+     *
+     * @return the preferred color, -1 if the node has no hint or the color is not a candidate.
+     */
+    private int preferredColor( int node )
+    {
+        final int hinted = hint[node];
+        if ( hinted < 0 || hinted >= colorsCount )
+        {
+            return -1;
+        }
+
+        int color = hintColors[hinted];
+        if ( color == -1 )
+        {
+            if ( freshUsed == freshColors.length )
+            {
+                return -1;
+            }
+            color = freshColors[freshUsed];
+        }
+
+        final int word = color >>> 6;
+        return ( domains[node * words + word] & allowedColors[word] & ( 1L << color ) ) != 0 ? color : -1;
+    }
+
+    /**
+     * Returns the candidate following the input one, trying the preferred color first and then all
+     * the others in increasing order.
+     *
+     * @return the next candidate color, -1 if there are no more candidates.
+     */
+    private int nextHintedCandidate( int node, int previousColor, int preferred )
+    {
+        if ( previousColor == -1 && preferred != -1 )
+        {
+            return preferred;
+        }
+
+        int color = nextCandidate( node, previousColor == preferred ? 0 : previousColor + 1 );
+        if ( color != -1 && color == preferred )
+        {
+            color = nextCandidate( node, preferred + 1 );
+        }
+        return color;
+    }
+
+    /**
+     * Binds the hinted class of the node to the input color, when the node is the first of its class
+     * taking a color not in use yet.
+     */
+    private void mapHint( int depth, int node, int color )
+    {
+        final int hinted = hint[node];
+        stackHints[depth] = -1;
+        if ( hinted >= 0 && hinted < colorsCount && hintColors[hinted] == -1 && colorUsages[color] == 0 )
+        {
+            hintColors[hinted] = color;
+            stackHints[depth] = hinted;
+        }
+    }
+
+    /**
+     * Returns the lowest allowed color, not lower than the input one, in the domain of the input node.
+     *
+     * @return the lowest candidate color, -1 if there are no more candidates.
+     */
+    private int nextCandidate( int node, int from )
+    {
+        int word = from >>> 6;
+        if ( word >= words )
+        {
+            return -1;
+        }
+
+        final int base = node * words;
+        long candidates = domains[base + word] & allowedColors[word] & ( -1L << from );
+        while ( candidates == 0 )
+        {
+            if ( ++word == words )
+            {
+                return -1;
+            }
+            candidates = domains[base + word] & allowedColors[word];
+        }
+        return ( word << 6 ) + numberOfTrailingZeros( candidates );
+    }
+
+    /**
+     * Colors the node and removes its color from the domains of the uncolored neighbors.
+     *
+     * @return false if some neighbor has no more candidate colors, true otherwise.
+     */
+    private boolean assign( int node, int color )
+    {
+        // the first use of the fresh color makes the next one available
+        if ( colorUsages[color]++ == 0 && freshUsed < freshColors.length && color == freshColors[freshUsed] )
+        {
+            if ( ++freshUsed < freshColors.length )
+            {
+                allowColor( freshColors[freshUsed], true );
+            }
+        }
+
+        if ( isStopped() )
+        {
+            return false;
+        }
+
+        counters.exploredNodes++;
+        counters.colorAttempts++;
+        nodeColors[node] = color;
+        final int end = offsets[node + 1];
+        for ( int i = offsets[node]; i < end; i++ )
+        {
+            int adjacent = neighbors[i];
+            if ( nodeColors[adjacent] == -1 && removeValue( adjacent, color ) )
+            {
+                domainSizes[adjacent]--;
+                uncoloredNodes.decrementKey( adjacent );
+                trail[trailSize++] = adjacent;
+
+                if ( domainSizes[adjacent] == 0 )
+                {
+                    counters.conflictChecks += i - offsets[node] + 1;
+                    return false;
+                }
+            }
+        }
+        counters.conflictChecks += end - offsets[node];
+        return true;
+    }
+
+    /**
+     * Uncolors the node and restores its color in the domains pruned since the trail mark.
+     */
+    private void retract( int node, int color, int mark )
+    {
+        final int word = color >>> 6;
+        final long bit = 1L << color;
+        while ( trailSize > mark )
+        {
+            int adjacent = trail[--trailSize];
+            domains[adjacent * words + word] |= bit;
+            domainSizes[adjacent]++;
+            uncoloredNodes.incrementKey( adjacent );
+        }
+        nodeColors[node] = -1;
+
+        // the last use of the latest fresh color makes it the fresh one again
+        if ( --colorUsages[color] == 0 && freshUsed > 0 && color == freshColors[freshUsed - 1] )
+        {
+            if ( freshUsed < freshColors.length )
+            {
+                allowColor( freshColors[freshUsed], false );
+            }
+            freshUsed--;
+        }
+    }
+
+    private void allowColor( int color, boolean allowed )
+    {
+        if ( allowed )
+        {
+            allowedColors[color >>> 6] |= 1L << color;
+        }
+        else
+        {
+            allowedColors[color >>> 6] &= ~( 1L << color );
+        }
+    }
+
+    private boolean isStopped()
+    {
+        if ( !stopped )
+        {
+            assignments++;
+            stopped = assignments > assignmentsLimit
+                || ( assignments % STOP_CHECK_INTERVAL == 0 && ( ( stop != null && stop.get() ) || budget.isExpired() ) );
+        }
+        return stopped;
+    }
+
+    private boolean removeValue( int node, int color )
+    {
+        final int index = node * words + ( color >>> 6 );
+        final long bit = 1L << color;
+        if ( ( domains[index] & bit ) == 0 )
+        {
+            return false;
+        }
+        domains[index] &= ~bit;
+        return true;
+    }
+
+}
@@ -0,0 +1,402 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.String.format;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.base.Converter;
+
+/**
+ * Stores colorings in a compact, versioned binary format, that can be queried straight from the
+ * memory mapped file with no deserialization.
+ *
+ * The format, in big endian order, is:
+ * <ul>
+ * <li>the magic number {@code TCOL} and the format version, one byte;</li>
+ * <li>the bits of each color id, one byte, followed by two reserved bytes;</li>
+ * <li>the number of nodes and the number of colors, ints;</li>
+ * <li>the palette table: the length and the UTF-8 bytes of each color text, in color id order;</li>
+ * <li>padding up to a multiple of 8 bytes;</li>
+ * <li>the color id of each node in node index order, incremented by one so that 0 is uncolored, packed
+ * in longs from the least significant bit.</li>
+ * </ul>
+ *
+ * Nodes are stored by index only: the nodes colored outside the graph keep their colors, after the graph
+ * nodes, but not their identities.
+ */
+public final class BinaryColorings
+{
+
+    /**
+     * The current version of the format.
+     */
+    public static final int VERSION = 1;
+
+    private static final int MAGIC = 0x54434F4C;
+
+    private static final int HEADER_SIZE = 16;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final Charset UTF_8 = Charset.forName( "UTF-8" );
+
+    private BinaryColorings()
+    {
+        // do nothing
+    }
+
+    /**
+     * Writes the input coloring to the input channel; nodes are stored by index, the graph nodes in the
+     * graph iteration order followed by the nodes colored outside the graph, and only the used colors
+     * enter the palette table.
+     *
+     * @param <C> the Color type
+     * @param coloredNodes the coloring to write
+     * @param colorConverter converts the color texts to colors, used backward to store the palette
+     * @param channel the channel where writing the coloring, that is not closed
+     * @throws IOException if the coloring can not be written
+     */
+    public static <C> void write( ColoredNodes<?, C> coloredNodes, Converter<String, C> colorConverter,
+                                  WritableByteChannel channel )
+        throws IOException
+    {
+        coloredNodes = checkNotNull( coloredNodes, "Impossible to write a null coloring" );
+        colorConverter = checkNotNull( colorConverter, "Impossible to write colors with a null converter" );
+        channel = checkNotNull( channel, "Impossible to write a coloring to a null channel" );
+
+        // the used colors only, renumbered densely in color id order
+        final int size = coloredNodes.size();
+        final int[] denseIds = new int[coloredNodes.getColorIds()];
+        for ( int nodeIndex = 0; nodeIndex < size; nodeIndex++ )
+        {
+            int colorId = coloredNodes.getColorId( nodeIndex );
+            if ( colorId != -1 )
+            {
+                denseIds[colorId] = 1;
+            }
+        }
+        final List<byte[]> palette = new ArrayList<byte[]>();
+        int paletteBytes = 0;
+        for ( int colorId = 0; colorId < denseIds.length; colorId++ )
+        {
+            if ( denseIds[colorId] == 0 )
+            {
+                continue;
+            }
+            denseIds[colorId] = palette.size() + 1;
+            byte[] text = colorConverter.reverse().convert( coloredNodes.getColorById( colorId ) ).getBytes( UTF_8 );
+            palette.add( text );
+            paletteBytes += 4 + text.length;
+        }
+        final int bitsPerColor = 32 - Integer.numberOfLeadingZeros( palette.size() );
+
+        final ByteBuffer header = ByteBuffer.allocate( align( HEADER_SIZE + paletteBytes ) );
+        header.putInt( MAGIC );
+        header.put( (byte) VERSION );
+        header.put( (byte) bitsPerColor );
+        header.putShort( (short) 0 );
+        header.putInt( size );
+        header.putInt( palette.size() );
+        for ( byte[] text : palette )
+        {
+            header.putInt( text.length );
+            header.put( text );
+        }
+        header.position( header.capacity() );
+        header.flip();
+        writeFully( header, channel );
+
+        if ( bitsPerColor == 0 )
+        {
+            return;
+        }
+
+        // color ids spanning two longs get split between them
+        final ByteBuffer buffer = ByteBuffer.allocate( BUFFER_SIZE );
+        long word = 0;
+        int usedBits = 0;
+        for ( int nodeIndex = 0; nodeIndex < size; nodeIndex++ )
+        {
+            int colorId = coloredNodes.getColorId( nodeIndex );
+            long value = colorId == -1 ? 0 : denseIds[colorId];
+            word |= value << usedBits;
+            usedBits += bitsPerColor;
+            if ( usedBits >= 64 )
+            {
+                putLong( buffer, word, channel );
+                usedBits -= 64;
+                word = usedBits == 0 ? 0 : value >>> ( bitsPerColor - usedBits );
+            }
+        }
+        if ( usedBits > 0 )
+        {
+            putLong( buffer, word, channel );
+        }
+        buffer.flip();
+        writeFully( buffer, channel );
+    }
+
+    /**
+     * Maps the input file, written by {@link #write(ColoredNodes, Converter, WritableByteChannel)}, so that
+     * the stored coloring can be queried with no deserialization: only the palette table is decoded.
+     *
+     * @param <C> the Color type
+     * @param file the file where the coloring is stored
+     * @param colorConverter converts the color texts to colors
+     * @return the stored coloring
+     * @throws IOException if the file can not be read or it is not a valid coloring file
+     */
+    public static <C> MappedColoring<C> map( File file, Converter<String, C> colorConverter )
+        throws IOException
+    {
+        file = checkNotNull( file, "Impossible to map a null file" );
+        colorConverter = checkNotNull( colorConverter, "Impossible to read colors with a null converter" );
+
+        final String source = "file " + file;
+        final RandomAccessFile input = new RandomAccessFile( file, "r" );
+        try
+        {
+            final FileChannel channel = input.getChannel();
+            final long length = channel.size();
+            if ( length < HEADER_SIZE )
+            {
+                throw malformed( source, "truncated header" );
+            }
+
+            final Header header = Header.parse( channel.map( MapMode.READ_ONLY, 0, HEADER_SIZE ), source );
+            final int size = header.size;
+            final int bitsPerColor = header.bitsPerColor;
+            final int paletteSize = header.paletteSize;
+
+            // the palette table is the only decoded section
+            final List<C> palette = new ArrayList<C>( Math.min( paletteSize, 1 << 16 ) );
+            long position = HEADER_SIZE;
+            final ByteBuffer length4 = ByteBuffer.allocate( 4 );
+            for ( int colorId = 0; colorId < paletteSize; colorId++ )
+            {
+                length4.clear();
+                readFully( channel, length4, position, source );
+                int textLength = length4.getInt( 0 );
+                if ( textLength < 0 || position + 4 + textLength > length )
+                {
+                    throw malformed( source, "truncated palette" );
+                }
+                ByteBuffer text = ByteBuffer.allocate( textLength );
+                readFully( channel, text, position + 4, source );
+                palette.add( colorConverter.convert( new String( text.array(), UTF_8 ) ) );
+                position += 4 + textLength;
+            }
+            position = align( position );
+
+            final long packedLength = packedLength( size, bitsPerColor );
+            if ( packedLength > Integer.MAX_VALUE )
+            {
+                throw malformed( source, "too many nodes to be mapped" );
+            }
+            if ( position + packedLength > length )
+            {
+                throw malformed( source, "truncated color ids" );
+            }
+            final ByteBuffer packedColors = channel.map( MapMode.READ_ONLY, position, packedLength );
+
+            return new MappedColoring<C>( packedColors, size, bitsPerColor, Collections.unmodifiableList( palette ) );
+        }
+        finally
+        {
+            // the mapping stays valid once the file is closed
+            input.close();
+        }
+    }
+
+    /**
+     * Reads the coloring written by {@link #write(ColoredNodes, Converter, WritableByteChannel)} from the
+     * input channel, copying the packed color ids on the heap: unlike {@link #map(File, Converter)}, it
+     * reads from any channel, such as a socket or a compressed stream, in a single pass.
+     *
+     * @param <C> the Color type
+     * @param channel the channel where reading the coloring from, that is not closed
+     * @param colorConverter converts the color texts to colors
+     * @return the stored coloring
+     * @throws IOException if the channel can not be read or it does not contain a valid coloring
+     */
+    public static <C> MappedColoring<C> read( ReadableByteChannel channel, Converter<String, C> colorConverter )
+        throws IOException
+    {
+        channel = checkNotNull( channel, "Impossible to read a coloring from a null channel" );
+        colorConverter = checkNotNull( colorConverter, "Impossible to read colors with a null converter" );
+
+        final String source = "stream";
+        final Header header = Header.parse( readFully( channel, HEADER_SIZE, source, "truncated header" ), source );
+
+        final List<C> palette = new ArrayList<C>( Math.min( header.paletteSize, 1 << 16 ) );
+        long position = HEADER_SIZE;
+        for ( int colorId = 0; colorId < header.paletteSize; colorId++ )
+        {
+            int textLength = readFully( channel, 4, source, "truncated palette" ).getInt();
+            if ( textLength < 0 )
+            {
+                throw malformed( source, "truncated palette" );
+            }
+            ByteBuffer text = readFully( channel, textLength, source, "truncated palette" );
+            palette.add( colorConverter.convert( new String( text.array(), UTF_8 ) ) );
+            position += 4 + textLength;
+        }
+        readFully( channel, (int) ( align( position ) - position ), source, "truncated palette" );
+
+        final long packedLength = packedLength( header.size, header.bitsPerColor );
+        if ( packedLength > Integer.MAX_VALUE )
+        {
+            throw malformed( source, "too many nodes to be read" );
+        }
+        final ByteBuffer packedColors = readFully( channel, (int) packedLength, source, "truncated color ids" );
+
+        return new MappedColoring<C>( packedColors, header.size, header.bitsPerColor,
+                                      Collections.unmodifiableList( palette ) );
+    }
+
+    private static long packedLength( int size, int bitsPerColor )
+    {
+        return ( ( (long) size * bitsPerColor + 63 ) >>> 6 ) << 3;
+    }
+
+    private static long align( long position )
+    {
+        return ( position + 7 ) & ~7L;
+    }
+
+    private static int align( int position )
+    {
+        return ( position + 7 ) & ~7;
+    }
+
+    private static void putLong( ByteBuffer buffer, long word, WritableByteChannel channel )
+        throws IOException
+    {
+        if ( !buffer.hasRemaining() )
+        {
+            buffer.flip();
+            writeFully( buffer, channel );
+            buffer.clear();
+        }
+        buffer.putLong( word );
+    }
+
+    private static void writeFully( ByteBuffer buffer, WritableByteChannel channel )
+        throws IOException
+    {
+        while ( buffer.hasRemaining() )
+        {
+            channel.write( buffer );
+        }
+    }
+
+    private static void readFully( FileChannel channel, ByteBuffer buffer, long position, String source )
+        throws IOException
+    {
+        while ( buffer.hasRemaining() )
+        {
+            if ( channel.read( buffer, position + buffer.position() ) == -1 )
+            {
+                throw malformed( source, "truncated palette" );
+            }
+        }
+    }
+
+    /**
+     * Reads the input number of bytes from the current channel position.
+     *
+     * @return the bytes read, ready to be decoded.
+     */
+    private static ByteBuffer readFully( ReadableByteChannel channel, int length, String source, String reason )
+        throws IOException
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate( length );
+        while ( buffer.hasRemaining() )
+        {
+            if ( channel.read( buffer ) == -1 )
+            {
+                throw malformed( source, reason );
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static IOException malformed( String source, String reason )
+    {
+        return new IOException( format( "Malformed coloring %s: %s", source, reason ) );
+    }
+
+    /**
+     * The fixed size header, that tells how the palette and the color ids are laid out.
+     */
+    private static final class Header
+    {
+
+        final int bitsPerColor;
+
+        final int size;
+
+        final int paletteSize;
+
+        private Header( int bitsPerColor, int size, int paletteSize )
+        {
+            this.bitsPerColor = bitsPerColor;
+            this.size = size;
+            this.paletteSize = paletteSize;
+        }
+
+        static Header parse( ByteBuffer header, String source )
+            throws IOException
+        {
+            if ( header.getInt() != MAGIC )
+            {
+                throw malformed( source, "not a coloring file" );
+            }
+            final int version = header.get();
+            if ( version != VERSION )
+            {
+                throw malformed( source, format( "unsupported version %s", version ) );
+            }
+            final int bitsPerColor = header.get();
+            header.getShort();
+            final int size = header.getInt();
+            final int paletteSize = header.getInt();
+            if ( size < 0 || paletteSize < 0 || bitsPerColor != 32 - Integer.numberOfLeadingZeros( paletteSize ) )
+            {
+                throw malformed( source, "inconsistent header" );
+            }
+            return new Header( bitsPerColor, size, paletteSize );
+        }
+
+    }
+
+}
@@ -0,0 +1,91 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+/**
+ * Deadline and cancellation token that bound the time spent by a search.
+ *
+ * Budgets are immutable: restricting a budget creates a new one.
+ */
+final class Budget
+{
+
+    /**
+     * The budget that never expires.
+     */
+    public static final Budget UNLIMITED = new Budget( false, 0, null );
+
+    private final boolean timed;
+
+    private final long deadline;
+
+    private final CancellationToken token;
+
+    private Budget( boolean timed, long deadline, CancellationToken token )
+    {
+        this.timed = timed;
+        this.deadline = deadline;
+        this.token = token;
+    }
+
+    /**
+     * Creates a budget that also expires at the given instant, if earlier than the current deadline.
+     *
+     * @param deadline the {@link System#nanoTime()} at which the budget expires
+     * @return the restricted budget
+     */
+    public Budget withDeadline( long deadline )
+    {
+        if ( timed && this.deadline - deadline < 0 )
+        {
+            return this;
+        }
+        return new Budget( true, deadline, token );
+    }
+
+    /**
+     * Creates a budget that also expires once the input token is cancelled, in place of the current one.
+     *
+     * @param token the token that cancels the search
+     * @return the restricted budget
+     */
+    public Budget withCancellation( CancellationToken token )
+    {
+        return new Budget( timed, deadline, token );
+    }
+
+    /**
+     * Tells whether this budget can ever expire.
+     *
+     * @return true if there is a deadline or a cancellation token, false otherwise.
+     */
+    public boolean isLimited()
+    {
+        return timed || token != null;
+    }
+
+    /**
+     * Tells whether the deadline passed or the token has been cancelled.
+     *
+     * @return true if the search has to be interrupted, false otherwise.
+     */
+    public boolean isExpired()
+    {
+        return ( token != null && token.isCancelled() ) || ( timed && System.nanoTime() - deadline >= 0 );
+    }
+
+}
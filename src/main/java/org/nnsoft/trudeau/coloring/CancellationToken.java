@@ -0,0 +1,47 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+/**
+ * Token that a caller keeps to interrupt, from any thread, the colorings started with it.
+ *
+ * Once cancelled, a token can not be reused.
+ */
+public final class CancellationToken
+{
+
+    private volatile boolean cancelled;
+
+    /**
+     * Interrupts all the colorings started with this token.
+     */
+    public void cancel()
+    {
+        cancelled = true;
+    }
+
+    /**
+     * Tells whether this token has been cancelled.
+     *
+     * @return true if this token has been cancelled, false otherwise.
+     */
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+}
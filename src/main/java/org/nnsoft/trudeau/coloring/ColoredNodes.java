@@ -17,6 +17,8 @@ package org.nnsoft.trudeau.coloring;
  */
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.fill;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -26,22 +28,72 @@ import java.util.Map;
 /**
  * Maintains the color for each vertex and the required number of colors for {@link org.nnsoft.trudeau.Graph} coloring.
  *
+ * Colors are stored by node index: the nodes of the solved graph share the graph indexes, any other node
+ * gets the next free index, and each color is mapped to a dense color id with its own usage counter,
+ * so storing or removing a color and counting the required colors cost {@code O(1)}.
+ *
  * @param <N> the Graph nodes type.
  * @param <C> the Color type.
  */
 public final class ColoredNodes<N, C>
 {
 
-    private final Map<N, C> coloredNodes = new HashMap<N, C>();
+    private static final int NO_COLOR = -1;
+
+    private final IndexedGraph<N> graph;
+
+    private final Map<N, Integer> nodeIndexes = new HashMap<N, Integer>();
+
+    private final List<C> colors;
+
+    private final Map<C, Integer> colorIds = new HashMap<C, Integer>();
+
+    private int[] nodeColors;
+
+    private int[] colorUsages;
 
-    private final List<C> usedColor = new ArrayList<C>();
+    private int requiredColors;
+
+    private ColoringStatus status = ColoringStatus.FEASIBLE;
+
+    private long exploredNodes;
 
     /**
      * This class can be instantiated only inside the package
      */
     ColoredNodes()
     {
-        // do nothing
+        graph = null;
+        colors = new ArrayList<C>();
+        nodeColors = new int[0];
+        colorUsages = new int[0];
+    }
+
+    /**
+     * Creates the coloring of all the graph nodes, with no copy of the color indexes.
+     *
+     * @param graph the colored graph
+     * @param palette the colors, indexed by color id
+     * @param nodeColors the color id of each graph node, -1 if the node is not colored
+     */
+    ColoredNodes( IndexedGraph<N> graph, List<C> palette, int[] nodeColors )
+    {
+        this.graph = graph;
+        this.colors = new ArrayList<C>( palette );
+        this.nodeColors = nodeColors;
+        this.colorUsages = new int[palette.size()];
+
+        for ( C color : palette )
+        {
+            colorIds.put( color, colorIds.size() );
+        }
+        for ( int nodeColor : nodeColors )
+        {
+            if ( nodeColor != NO_COLOR && colorUsages[nodeColor]++ == 0 )
+            {
+                requiredColors++;
+            }
+        }
     }
 
     /**
@@ -52,15 +104,14 @@ public final class ColoredNodes<N, C>
      */
     public void addColor( N node, C color )
     {
-        coloredNodes.put( node, color );
-        int idx = usedColor.indexOf( color );
-        if ( idx == -1 )
-        {
-            usedColor.add( color );
-        }
-        else
+        final int nodeIndex = indexOf( node, true );
+        final int colorId = colorIdOf( color );
+
+        release( nodeColors[nodeIndex] );
+        nodeColors[nodeIndex] = colorId;
+        if ( colorUsages[colorId]++ == 0 )
         {
-            usedColor.set( idx, color );
+            requiredColors++;
         }
     }
 
@@ -71,8 +122,53 @@ public final class ColoredNodes<N, C>
      */
     void removeColor( N node )
     {
-        C color = coloredNodes.remove( node );
-        usedColor.remove( color );
+        final int nodeIndex = indexOf( node, false );
+        if ( nodeIndex != -1 )
+        {
+            release( nodeColors[nodeIndex] );
+            nodeColors[nodeIndex] = NO_COLOR;
+        }
+    }
+
+    /**
+     * Returns what the solver proved about this coloring when it returned it.
+     *
+     * @return {@link ColoringStatus#OPTIMAL} if the coloring is proven to use the minimum number of colors,
+     *         {@link ColoringStatus#FEASIBLE} otherwise.
+     */
+    public ColoringStatus getStatus()
+    {
+        return status;
+    }
+
+    /**
+     * Sets what the solver proved about this coloring.
+     *
+     * @param status the coloring status
+     */
+    void setStatus( ColoringStatus status )
+    {
+        this.status = status;
+    }
+
+    /**
+     * Returns the number of search tree nodes the exact solver explored to find this coloring.
+     *
+     * @return the number of search tree nodes explored, 0 if this coloring has not been searched.
+     */
+    public long getExploredNodes()
+    {
+        return exploredNodes;
+    }
+
+    /**
+     * Sets the number of search tree nodes the exact solver explored to find this coloring.
+     *
+     * @param exploredNodes the number of search tree nodes explored
+     */
+    void setExploredNodes( long exploredNodes )
+    {
+        this.exploredNodes = exploredNodes;
     }
 
     /**
@@ -85,7 +181,12 @@ public final class ColoredNodes<N, C>
     {
         node = checkNotNull( node, "Impossible to get the color for a null Vertex" );
 
-        return coloredNodes.get( node );
+        final int nodeIndex = indexOf( node, false );
+        if ( nodeIndex == -1 || nodeColors[nodeIndex] == NO_COLOR )
+        {
+            return null;
+        }
+        return colors.get( nodeColors[nodeIndex] );
     }
 
     /**
@@ -95,7 +196,7 @@ public final class ColoredNodes<N, C>
      */
     public int getRequiredColors()
     {
-        return usedColor.size();
+        return requiredColors;
     }
 
     /**
@@ -106,7 +207,113 @@ public final class ColoredNodes<N, C>
      */
     public boolean containsColoredNode( N node )
     {
-        return coloredNodes.containsKey( node );
+        final int nodeIndex = indexOf( node, false );
+        return nodeIndex != -1 && nodeColors[nodeIndex] != NO_COLOR;
+    }
+
+    /**
+     * Returns the number of indexed nodes: the graph nodes, in the graph order,
+     * followed by the nodes colored outside the graph, in insertion order.
+     *
+     * @return the number of indexed nodes.
+     */
+    int size()
+    {
+        return ( graph == null ? 0 : graph.size() ) + nodeIndexes.size();
+    }
+
+    /**
+     * Returns the color id of the node with the input index.
+     *
+     * @param nodeIndex the node index
+     * @return the color id of the node, -1 if the node is not colored.
+     */
+    int getColorId( int nodeIndex )
+    {
+        return nodeIndex < nodeColors.length ? nodeColors[nodeIndex] : NO_COLOR;
+    }
+
+    /**
+     * Returns the color with the input id.
+     *
+     * @param colorId the color id
+     * @return the color with the input id.
+     */
+    C getColorById( int colorId )
+    {
+        return colors.get( colorId );
+    }
+
+    /**
+     * Returns the number of ids assigned to colors, used or not.
+     *
+     * @return the number of ids assigned to colors.
+     */
+    int getColorIds()
+    {
+        return colors.size();
+    }
+
+    /**
+     * Returns the index of the input node, eventually assigning it the next free index.
+     */
+    private int indexOf( N node, boolean assign )
+    {
+        if ( graph != null )
+        {
+            int index = graph.getIndex( node );
+            if ( index != -1 )
+            {
+                return index;
+            }
+        }
+
+        Integer index = nodeIndexes.get( node );
+        if ( index != null )
+        {
+            return index;
+        }
+        if ( !assign )
+        {
+            return -1;
+        }
+
+        index = ( graph == null ? 0 : graph.size() ) + nodeIndexes.size();
+        nodeIndexes.put( node, index );
+        if ( index == nodeColors.length )
+        {
+            int previousLength = nodeColors.length;
+            nodeColors = copyOf( nodeColors, Math.max( 16, previousLength << 1 ) );
+            fill( nodeColors, previousLength, nodeColors.length, NO_COLOR );
+        }
+        return index;
+    }
+
+    /**
+     * Returns the id of the input color, eventually assigning it the next free id.
+     */
+    private int colorIdOf( C color )
+    {
+        Integer colorId = colorIds.get( color );
+        if ( colorId == null )
+        {
+            colorId = colors.size();
+            colorIds.put( color, colorId );
+            colors.add( color );
+            if ( colorId == colorUsages.length )
+            {
+                colorUsages = copyOf( colorUsages, Math.max( 16, colorUsages.length << 1 ) );
+            }
+        }
+        return colorId;
+    }
+
+    private void release( int colorId )
+    {
+        if ( colorId != NO_COLOR && --colorUsages[colorId] == 0 )
+        {
+            requiredColors--;
+        }
     }
 
 }
@@ -0,0 +1,75 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+/**
+ * The algorithms of the {@link ColoringAlgorithmsSelector}, as reported by the solves monitoring.
+ */
+enum ColoringAlgorithm
+{
+
+    /**
+     * See {@link ColoringAlgorithmsSelector#applyingGreedyAlgorithm(NodeOrdering)}.
+     */
+    GREEDY,
+
+    /**
+     * See {@link ColoringAlgorithmsSelector#applyingParallelGreedyAlgorithm(java.util.concurrent.ForkJoinPool, long)}.
+     */
+    PARALLEL_GREEDY,
+
+    /**
+     * See {@link ColoringAlgorithmsSelector#applyingDSaturAlgorithm()}.
+     */
+    DSATUR,
+
+    /**
+     * See {@link ColoringAlgorithmsSelector#applyingRecursiveLargestFirstAlgorithm()}.
+     */
+    RECURSIVE_LARGEST_FIRST,
+
+    /**
+     * See {@link ColoringAlgorithmsSelector#applyingTabuSearchAlgorithm(long, long)}.
+     */
+    TABU_SEARCH,
+
+    /**
+     * See {@link ColoringAlgorithmsSelector#applyingBackTrackingAlgorithm(ColoredNodes)}.
+     */
+    BACKTRACKING,
+
+    /**
+     * See {@link ColoringAlgorithmsSelector#applyingBackJumpingAlgorithm(ColoredNodes)}.
+     */
+    BACKJUMPING,
+
+    /**
+     * See {@link ColoringAlgorithmsSelector#applyingParallelBackTrackingAlgorithm(java.util.concurrent.ForkJoinPool, ColoredNodes)}.
+     */
+    PARALLEL_BACKTRACKING,
+
+    /**
+     * See {@link ColoringAlgorithmsSelector#applyingMinimumColoring()}.
+     */
+    MINIMUM_COLORING,
+
+    /**
+     * See {@link ColoringAlgorithmsSelector#applyingBranchAndBoundAlgorithm()}.
+     */
+    BRANCH_AND_BOUND
+
+}
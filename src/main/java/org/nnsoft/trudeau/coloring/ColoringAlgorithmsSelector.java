@@ -16,6 +16,9 @@ package org.nnsoft.trudeau.coloring;
  *   limitations under the License.
  */
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Builder for selecting the coloring algorithm to perform.
  *
@@ -25,6 +28,38 @@ package org.nnsoft.trudeau.coloring;
 public interface ColoringAlgorithmsSelector<N, C>
 {
 
+    /**
+     * Bounds the time spent by the exact algorithms, starting from now: once the deadline passes,
+     * the minimum coloring returns the best coloring found so far, the m-coloring ones return
+     * a heuristic coloring if it fits the colors, otherwise throw a
+     * {@link java.util.concurrent.CancellationException}.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the time unit of the timeout argument
+     * @return a selector for the same graph and colors, bounded by the deadline.
+     */
+    ColoringAlgorithmsSelector<N, C> withDeadline( long timeout, TimeUnit unit );
+
+    /**
+     * Makes the exact algorithms interruptible by the input token, with the same outcome
+     * as the expiration of a deadline.
+     *
+     * @param token the token that interrupts the coloring.
+     * @return a selector for the same graph and colors, interruptible by the token.
+     * @see #withDeadline(long, TimeUnit)
+     */
+    ColoringAlgorithmsSelector<N, C> withCancellation( CancellationToken token );
+
+    /**
+     * Collects in the input statistics what the algorithms do: the nodes visited, the colors tried,
+     * the conflict checks, the backtracks and the search tree nodes of the exact ones, together with
+     * the time spent in each {@link SolverPhase}. Interrupted and failed colorings are collected too.
+     *
+     * @param stats the statistics to be updated by each coloring.
+     * @return a selector for the same graph and colors, updating the statistics.
+     */
+    ColoringAlgorithmsSelector<N, C> withStatistics( SolverStats stats );
+
     /**
      * Colors the graph such that no two adjacent nodes share the same color.
      *
@@ -33,10 +68,79 @@ public interface ColoringAlgorithmsSelector<N, C>
     ColoredNodes<N, C> applyingGreedyAlgorithm()
         throws NotEnoughColorsException;
 
+    /**
+     * Colors the graph such that no two adjacent nodes share the same color, visiting
+     * the nodes in the given order.
+     *
+     * @param ordering the order in which nodes are colored.
+     * @return The color - vertex association.
+     */
+    ColoredNodes<N, C> applyingGreedyAlgorithm( NodeOrdering ordering )
+        throws NotEnoughColorsException;
+
+    /**
+     * Colors the graph such that no two adjacent nodes share the same color, applying the
+     * Jones-Plassmann parallel greedy algorithm: nodes get random priorities and every node
+     * whose higher priority neighbors are all colored is colored concurrently by the input pool.
+     *
+     * The result depends only on the seed, not on the pool parallelism.
+     *
+     * @param pool the pool where coloring the nodes.
+     * @param seed the seed of the random nodes priorities.
+     * @return The color - vertex association.
+     */
+    ColoredNodes<N, C> applyingParallelGreedyAlgorithm( ForkJoinPool pool, long seed )
+        throws NotEnoughColorsException;
+
+    /**
+     * Colors the graph such that no two adjacent nodes share the same color, applying the
+     * <a href="http://en.wikipedia.org/wiki/DSatur">DSatur</a> heuristic: the next node to be colored
+     * is always the one with the highest number of differently colored neighbors.
+     *
+     * @return The color - vertex association.
+     */
+    ColoredNodes<N, C> applyingDSaturAlgorithm()
+        throws NotEnoughColorsException;
+
+    /**
+     * Colors the graph such that no two adjacent nodes share the same color, applying the
+     * <a href="https://doi.org/10.6028/jres.084.024">Recursive Largest First</a> heuristic: each color
+     * is a maximal independent set, grown adding the node with the most neighbors that can not
+     * take that color anymore.
+     *
+     * @return The color - vertex association.
+     */
+    ColoredNodes<N, C> applyingRecursiveLargestFirstAlgorithm()
+        throws NotEnoughColorsException;
+
+    /**
+     * Colors the graph such that no two adjacent nodes share the same color, applying the
+     * <a href="https://doi.org/10.1007/BF02239976">Tabucol</a> local search: starting from the DSatur
+     * coloring, it drops one color at a time and moves the conflicting nodes until no adjacent nodes
+     * share the same color, forbidding for a while the moves just undone.
+     *
+     * The search stops once it runs out of iterations, or the deadline passes, returning the coloring
+     * with the fewest colors found so far.
+     *
+     * For each node and each color of the DSatur coloring, the search keeps the number of neighbors
+     * with that color and the iteration the move stays forbidden until: two {@code int} matrices,
+     * taking {@code O(V k)} memory, 8 bytes times the nodes times the colors.
+     *
+     * @param maxIterations the maximum number of moves.
+     * @param seed the seed of the random choices among equivalent moves.
+     * @return The color - vertex association.
+     * @throws IllegalArgumentException if the matrices need more than {@code Integer.MAX_VALUE - 8} cells.
+     */
+    ColoredNodes<N, C> applyingTabuSearchAlgorithm( long maxIterations, long seed )
+        throws NotEnoughColorsException;
+
     /**
      * Graph m-coloring algorithm. This algorithm uses a brute-force backtracking
      * procedure to find a graph color.
      *
+     * Graphs with a clique larger than the colors are rejected before searching, and
+     * the thrown {@link NotEnoughColorsException} carries the clique.
+     *
      * @return The color - vertex association.
      */
     ColoredNodes<N, C> applyingBackTrackingAlgorithm()
@@ -52,4 +156,88 @@ public interface ColoringAlgorithmsSelector<N, C>
     ColoredNodes<N, C> applyingBackTrackingAlgorithm( ColoredNodes<N, C> partialColoredNodes )
         throws NotEnoughColorsException;
 
+    /**
+     * Graph m-coloring algorithm. This algorithm is the backtracking search that, on a dead end,
+     * jumps straight back to the latest node that caused it and learns the assignments
+     * that led to it, so that they are never tried together again.
+     *
+     * Graphs with a clique larger than the colors are rejected before searching, and
+     * the thrown {@link NotEnoughColorsException} carries the clique.
+     *
+     * @return The color - vertex association.
+     */
+    ColoredNodes<N, C> applyingBackJumpingAlgorithm()
+        throws NotEnoughColorsException;
+
+    /**
+     * Graph m-coloring algorithm. This algorithm is the backtracking search that, on a dead end,
+     * jumps straight back to the latest node that caused it, using a predefined set of colors.
+     *
+     * @param partialColoredNodes subset of nodes already colored.
+     * @return The color - vertex association.
+     */
+    ColoredNodes<N, C> applyingBackJumpingAlgorithm( ColoredNodes<N, C> partialColoredNodes )
+        throws NotEnoughColorsException;
+
+    /**
+     * Graph m-coloring algorithm. This algorithm splits the backtracking search tree in
+     * subproblems, solved in parallel by the input pool; the first solution found stops
+     * all the other workers.
+     *
+     * @param pool the pool where running the search.
+     * @return The color - vertex association.
+     */
+    ColoredNodes<N, C> applyingParallelBackTrackingAlgorithm( ForkJoinPool pool )
+        throws NotEnoughColorsException;
+
+    /**
+     * Graph m-coloring algorithm. This algorithm splits the backtracking search tree in
+     * subproblems, solved in parallel by the input pool, using a predefined set of colors;
+     * the first solution found stops all the other workers.
+     *
+     * @param pool the pool where running the search.
+     * @param partialColoredNodes subset of nodes already colored.
+     * @return The color - vertex association.
+     */
+    ColoredNodes<N, C> applyingParallelBackTrackingAlgorithm( ForkJoinPool pool, ColoredNodes<N, C> partialColoredNodes )
+        throws NotEnoughColorsException;
+
+    /**
+     * Colors the graph with the minimum number of colors, that is its chromatic number:
+     * the available colors are a cap, only the first ones are assigned.
+     *
+     * The search starts from a heuristic coloring and a clique lower bound, tightening the
+     * coloring one color at a time until it is proven optimal; the returned coloring status
+     * tells whether the search completed before the deadline.
+     *
+     * @return The color - vertex association.
+     */
+    ColoredNodes<N, C> applyingMinimumColoring()
+        throws NotEnoughColorsException;
+
+    /**
+     * Colors the graph with the minimum number of colors, applying an exact branch and bound
+     * driven by DSatur: the available colors are a cap, only the first ones are assigned.
+     *
+     * The nodes of a large clique are colored in advance and bound the colors from below, the DSatur
+     * coloring bounds them from above; the search branches on the most saturated node and prunes
+     * every branch that can not use less colors than the best coloring so far. Once interrupted by
+     * the deadline, the best coloring so far is returned with a {@link ColoringStatus#FEASIBLE} status.
+     * The returned coloring also tells how many search tree nodes have been explored.
+     *
+     * @return The color - vertex association.
+     */
+    ColoredNodes<N, C> applyingBranchAndBoundAlgorithm()
+        throws NotEnoughColorsException;
+
+    /**
+     * Opens a session that keeps the input coloring valid while the graph changes, recoloring
+     * only the neighborhood of each change; nodes not colored yet are colored when the session opens.
+     *
+     * @param coloredNodes the coloring to be maintained, updated in place.
+     * @return the incremental coloring session.
+     */
+    IncrementalColoring<N, C> maintaining( ColoredNodes<N, C> coloredNodes )
+        throws NotEnoughColorsException;
+
 }
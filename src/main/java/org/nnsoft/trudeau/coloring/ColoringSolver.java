@@ -41,7 +41,7 @@ public final class ColoringSolver
     {
         graph = checkNotNull( graph, "Coloring can not be calculated on null graph." );
         checkArgument( !graph.isDirected(), "Graph coloring algorithms do not work with directed graphs." );
-        return new DefaultColorsBuilder<N>( graph );
+        return new DefaultColorsBuilder<N>( IndexedGraph.compile( graph ) );
     }
 
 }
@@ -0,0 +1,395 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.fill;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Exact graph m-coloring that solves independently each connected component of the uncolored nodes,
+ * so the search is exponential in the largest component only.
+ *
+ * Precolored nodes never change color, so they do not connect components: each component carries
+ * its precolored neighbors, that only restrict the candidate colors of the component nodes.
+ */
+final class ComponentsSearch
+    implements ExactSearch
+{
+
+    private final IndexedGraph<?> graph;
+
+    private final int colorsCount;
+
+    private final int[] nodeColors;
+
+    private final List<Component> components = new ArrayList<Component>();
+
+    private Budget budget = Budget.UNLIMITED;
+
+    private SearchCounters counters = new SearchCounters();
+
+    private SearchStrategy strategy = SearchStrategy.CHRONOLOGICAL;
+
+    private int[] hint;
+
+    private boolean interrupted;
+
+    /**
+     * Creates a new search over the input graph.
+     *
+     * @param graph the graph to color
+     * @param colorsCount the number of colors that can be assigned
+     * @param nodeColors the color index of each node, -1 for the nodes to be colored;
+     *        it contains the solution once the search succeeds.
+     */
+    public ComponentsSearch( IndexedGraph<?> graph, int colorsCount, int[] nodeColors )
+    {
+        this.graph = graph;
+        this.colorsCount = colorsCount;
+        this.nodeColors = nodeColors;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void setBudget( Budget budget )
+    {
+        this.budget = budget;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void setCounters( SearchCounters counters )
+    {
+        this.counters = counters;
+    }
+
+    /**
+     * Sets the strategy of the sequential search of each component.
+     *
+     * @param strategy the search strategy
+     */
+    public void setStrategy( SearchStrategy strategy )
+    {
+        this.strategy = strategy;
+    }
+
+    /**
+     * Sets the color class each node should join, as in a previous coloring, tried first by the
+     * sequential chronological search of each component, see {@link BacktrackingSearch#setHint(int[])}.
+     *
+     * @param hint the hinted color class of each node, -1 for the nodes with no hint
+     */
+    public void setHint( int[] hint )
+    {
+        this.hint = hint;
+    }
+
+    /**
+     * Tells whether the last solve gave up because the budget expired, rather than because there is
+     * no coloring: a component proven with no coloring is a proof for the whole graph.
+     *
+     * @return true if the search has been interrupted, false otherwise.
+     */
+    public boolean isInterrupted()
+    {
+        return interrupted;
+    }
+
+    /**
+     * Colors all the uncolored nodes, solving the components one after the other.
+     *
+     * @return true if there is a valid coloring for the graph, false otherwise or if interrupted.
+     */
+    public boolean solve()
+    {
+        interrupted = false;
+        components.clear();
+        if ( !decompose() )
+        {
+            ExactSearch exactSearch = createSearch( graph, nodeColors, hint );
+            exactSearch.setBudget( budget );
+            exactSearch.setCounters( counters );
+            boolean solved = exactSearch.solve();
+            interrupted = !solved && exactSearch.isInterrupted();
+            return solved;
+        }
+
+        for ( Component component : components )
+        {
+            ExactSearch exactSearch = createSearch( component.graph, component.nodeColors, component.hint( hint ) );
+            exactSearch.setBudget( budget );
+            exactSearch.setCounters( counters );
+            if ( !exactSearch.solve() )
+            {
+                interrupted = exactSearch.isInterrupted();
+                return false;
+            }
+            merge( component );
+        }
+        return true;
+    }
+
+    private ExactSearch createSearch( IndexedGraph<?> searchGraph, int[] searchColors, int[] searchHint )
+    {
+        if ( searchHint != null && strategy == SearchStrategy.CHRONOLOGICAL )
+        {
+            BacktrackingSearch search = new BacktrackingSearch( searchGraph, colorsCount, searchColors );
+            search.setHint( searchHint );
+            return search;
+        }
+        return strategy.create( searchGraph, colorsCount, searchColors );
+    }
+
+    /**
+     * Colors all the uncolored nodes, solving the components in parallel; the largest components
+     * are split in parallel subproblems as well, and the first component with no solution stops
+     * all the others.
+     *
+     * @param pool the pool where running the search
+     * @return true if there is a valid coloring for the graph, false otherwise or if interrupted.
+     */
+    public boolean solve( ForkJoinPool pool )
+    {
+        interrupted = false;
+        components.clear();
+        if ( !decompose() )
+        {
+            ParallelBacktrackingSearch root =
+                new ParallelBacktrackingSearch( graph, colorsCount, nodeColors, pool.getParallelism(), budget,
+                                                counters );
+            pool.invoke( root );
+            if ( root.getSolution() == null )
+            {
+                interrupted = root.isInterrupted();
+                return false;
+            }
+            System.arraycopy( root.getSolution(), 0, nodeColors, 0, nodeColors.length );
+            return true;
+        }
+
+        // components larger than a fair share of the nodes get subproblems for all the workers
+        final int parallelism = pool.getParallelism();
+        final long fairShare = (long) graph.size() / parallelism;
+        final List<ParallelBacktrackingSearch> searches = new ArrayList<ParallelBacktrackingSearch>();
+        for ( Component component : components )
+        {
+            int componentParallelism = component.graph.size() > fairShare ? parallelism : 1;
+            searches.add( new ParallelBacktrackingSearch( component.graph, colorsCount, component.nodeColors,
+                                                          componentParallelism, budget, counters ) );
+        }
+
+        final AtomicBoolean failed = new AtomicBoolean();
+        pool.invoke( new RecursiveAction()
+        {
+
+            private static final long serialVersionUID = -6129478218330962741L;
+
+            @Override
+            protected void compute()
+            {
+                List<RecursiveAction> tasks = new ArrayList<RecursiveAction>();
+                for ( final ParallelBacktrackingSearch componentSearch : searches )
+                {
+                    tasks.add( new RecursiveAction()
+                    {
+
+                        private static final long serialVersionUID = 2386110528823467021L;
+
+                        @Override
+                        protected void compute()
+                        {
+                            if ( failed.get() )
+                            {
+                                return;
+                            }
+                            componentSearch.invoke();
+                            if ( componentSearch.getSolution() == null && failed.compareAndSet( false, true ) )
+                            {
+                                for ( ParallelBacktrackingSearch other : searches )
+                                {
+                                    other.cancel();
+                                }
+                            }
+                        }
+
+                    } );
+                }
+                invokeAll( tasks );
+            }
+
+        } );
+
+        if ( failed.get() )
+        {
+            // interrupted unless some component, not cancelled by the others, proved to have no coloring
+            interrupted = true;
+            for ( ParallelBacktrackingSearch componentSearch : searches )
+            {
+                if ( componentSearch.isDone() && componentSearch.getSolution() == null
+                    && !componentSearch.isInterrupted() )
+                {
+                    interrupted = false;
+                }
+            }
+            return false;
+        }
+        for ( int i = 0; i < searches.size(); i++ )
+        {
+            Component component = components.get( i );
+            System.arraycopy( searches.get( i ).getSolution(), 0, component.nodeColors, 0, component.nodeColors.length );
+            merge( component );
+        }
+        return true;
+    }
+
+    /**
+     * Splits the uncolored nodes in connected components.
+     *
+     * @return false if there is nothing to split, that is all the nodes form a single uncolored
+     *         component, true otherwise.
+     */
+    private boolean decompose()
+    {
+        final int size = graph.size();
+        final int[] offsets = graph.getOffsets();
+        final int[] neighbors = graph.getNeighbors();
+
+        // visited[node] == stamp means that 'node' already belongs to the current component
+        final int[] visited = new int[size];
+        fill( visited, -1 );
+        final int[] queue = new int[size];
+        final int[] localIndexes = new int[size];
+        fill( localIndexes, -1 );
+
+        for ( int start = 0; start < size; start++ )
+        {
+            if ( nodeColors[start] != -1 || visited[start] != -1 )
+            {
+                continue;
+            }
+
+            // breadth first visit of the uncolored nodes, collecting the precolored neighbors apart
+            final int stamp = components.size();
+            int head = 0;
+            int tail = 0;
+            int[] boundary = new int[4];
+            int boundarySize = 0;
+
+            queue[tail++] = start;
+            visited[start] = stamp;
+            while ( head < tail )
+            {
+                int node = queue[head++];
+                for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+                {
+                    int adjacent = neighbors[i];
+                    if ( visited[adjacent] == stamp )
+                    {
+                        continue;
+                    }
+                    visited[adjacent] = stamp;
+                    if ( nodeColors[adjacent] == -1 )
+                    {
+                        queue[tail++] = adjacent;
+                    }
+                    else
+                    {
+                        if ( boundarySize == boundary.length )
+                        {
+                            boundary = copyOf( boundary, boundarySize << 1 );
+                        }
+                        boundary[boundarySize++] = adjacent;
+                    }
+                }
+            }
+
+            if ( stamp == 0 && tail == size )
+            {
+                return false;
+            }
+
+            int[] componentNodes = copyOf( queue, tail + boundarySize );
+            System.arraycopy( boundary, 0, componentNodes, tail, boundarySize );
+
+            int[] componentColors = new int[componentNodes.length];
+            for ( int i = 0; i < componentNodes.length; i++ )
+            {
+                componentColors[i] = nodeColors[componentNodes[i]];
+            }
+
+            components.add( new Component( graph.subgraph( componentNodes, localIndexes ), componentNodes,
+                                           componentColors ) );
+        }
+
+        return true;
+    }
+
+    /**
+     * Copies the colors of the component nodes in the whole graph coloring.
+     */
+    private void merge( Component component )
+    {
+        for ( int i = 0; i < component.nodes.length; i++ )
+        {
+            nodeColors[component.nodes[i]] = component.nodeColors[i];
+        }
+    }
+
+    /**
+     * A connected component of uncolored nodes, together with their precolored neighbors.
+     */
+    private static final class Component
+    {
+
+        final IndexedGraph<?> graph;
+
+        final int[] nodes;
+
+        final int[] nodeColors;
+
+        Component( IndexedGraph<?> graph, int[] nodes, int[] nodeColors )
+        {
+            this.graph = graph;
+            this.nodes = nodes;
+            this.nodeColors = nodeColors;
+        }
+
+        int[] hint( int[] graphHint )
+        {
+            if ( graphHint == null )
+            {
+                return null;
+            }
+
+            final int[] componentHint = new int[nodes.length];
+            for ( int i = 0; i < nodes.length; i++ )
+            {
+                componentHint[i] = graphHint[nodes[i]];
+            }
+            return componentHint;
+        }
+
+    }
+
+}
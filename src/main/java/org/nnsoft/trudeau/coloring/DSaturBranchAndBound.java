@@ -0,0 +1,292 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import static java.util.Arrays.fill;
+
+/**
+ * Exact chromatic number search over an {@link IndexedGraph}, branching as
+ * <a href="http://en.wikipedia.org/wiki/DSatur">DSatur</a> does.
+ *
+ * The nodes of a large clique are colored in advance, as any coloring can be renamed to give them
+ * the first colors, and their number is the lower bound; DSatur gives the first incumbent. The search
+ * always branches on the most saturated node, ties broken by the uncolored degree, trying the colors
+ * already used and one new color, as long as the colors stay fewer than the incumbent ones: every
+ * complete coloring found tightens the bound, and the search stops once it meets the lower bound.
+ *
+ * The neighbor colors are counted in a flat matrix, so the saturation degrees are updated in
+ * {@code O(degree)} at each assignment and retraction.
+ */
+final class DSaturBranchAndBound
+{
+
+    private static final int BUDGET_CHECK_INTERVAL = 1024;
+
+    private final IndexedGraph<?> graph;
+
+    private final int[] offsets;
+
+    private final int[] neighbors;
+
+    private final int maxColors;
+
+    private final Budget budget;
+
+    private int stride;
+
+    private int[] nodeColors;
+
+    // neighborColors[node * stride + color] is the number of neighbors of 'node' colored with 'color'.
+
+    private int[] neighborColors;
+
+    private int[] saturations;
+
+    private int[] uncoloredDegrees;
+
+    private boolean optimal;
+
+    private boolean interrupted;
+
+    private SearchCounters counters = new SearchCounters();
+
+    /**
+     * Creates a new search over the input graph.
+     *
+     * @param graph the graph to color, with no self loops
+     * @param maxColors the maximum number of colors that can be assigned
+     * @param budget the budget that, once expired, interrupts the search
+     */
+    public DSaturBranchAndBound( IndexedGraph<?> graph, int maxColors, Budget budget )
+    {
+        this.graph = graph;
+        this.offsets = graph.getOffsets();
+        this.neighbors = graph.getNeighbors();
+        this.maxColors = maxColors;
+        this.budget = budget;
+    }
+
+    /**
+     * Sets the counters of the work done by this search.
+     *
+     * @param counters the counters of the run
+     */
+    public void setCounters( SearchCounters counters )
+    {
+        this.counters = counters;
+    }
+
+    /**
+     * Colors the graph with the minimum number of colors, not greater than the maximum one.
+     *
+     * @return the color index of each node, null if the colors are not enough or
+     *         if the search has been interrupted before finding any coloring.
+     */
+    public int[] solve()
+    {
+        final int size = graph.size();
+
+        final int[] clique = GreedyClique.find( graph );
+        final int lowerBound = clique.length;
+        if ( lowerBound > maxColors )
+        {
+            return null;
+        }
+
+        int[] best = DSaturColoring.color( graph, Math.min( maxColors, graph.getMaxDegree() + 1 ), counters );
+        // the search looks for colorings with less colors than the upper bound
+        int upperBound = best != null ? countColors( best ) : maxColors + 1;
+        if ( upperBound <= lowerBound )
+        {
+            optimal = best != null;
+            return best;
+        }
+
+        stride = upperBound;
+        nodeColors = new int[size];
+        fill( nodeColors, -1 );
+        neighborColors = new int[size * stride];
+        saturations = new int[size];
+        uncoloredDegrees = new int[size];
+        for ( int node = 0; node < size; node++ )
+        {
+            uncoloredDegrees[node] = graph.degree( node );
+        }
+
+        for ( int i = 0; i < clique.length; i++ )
+        {
+            assign( clique[i], i );
+        }
+        int usedColors = clique.length;
+
+        final int uncolored = size - clique.length;
+        final int[] stackNodes = new int[uncolored];
+        final int[] stackColors = new int[uncolored];
+        final int[] stackUsedColors = new int[uncolored];
+
+        int depth = 0;
+        stackNodes[depth] = selectNode();
+        stackColors[depth] = -1;
+        while ( depth >= 0 )
+        {
+            final int node = stackNodes[depth];
+            final int previousColor = stackColors[depth];
+            if ( previousColor != -1 )
+            {
+                retract( node, previousColor );
+                usedColors = stackUsedColors[depth];
+                counters.backtracks++;
+            }
+            else
+            {
+                counters.visitedNodes++;
+            }
+
+            // existing colors and a new one, as long as they stay fewer than the upper bound
+            final int colorsLimit = Math.min( usedColors + 1, upperBound - 1 );
+            int color = previousColor + 1;
+            final int base = node * stride;
+            while ( color < colorsLimit && neighborColors[base + color] != 0 )
+            {
+                color++;
+            }
+            counters.colorAttempts += Math.max( 0, Math.min( color + 1, colorsLimit ) - previousColor - 1 );
+
+            if ( color >= colorsLimit )
+            {
+                depth--;
+                continue;
+            }
+
+            if ( ++counters.exploredNodes % BUDGET_CHECK_INTERVAL == 0 && budget.isExpired() )
+            {
+                interrupted = true;
+                return best;
+            }
+
+            stackColors[depth] = color;
+            stackUsedColors[depth] = usedColors;
+            assign( node, color );
+            if ( color == usedColors )
+            {
+                usedColors++;
+            }
+
+            final int next = selectNode();
+            if ( next == -1 )
+            {
+                // a better coloring: the colors beyond it are pruned from now on
+                best = nodeColors.clone();
+                upperBound = usedColors;
+                if ( upperBound <= lowerBound )
+                {
+                    break;
+                }
+                continue;
+            }
+
+            depth++;
+            stackNodes[depth] = next;
+            stackColors[depth] = -1;
+        }
+
+        optimal = best != null;
+        return best;
+    }
+
+    /**
+     * Tells whether the last {@link #solve()} proved its coloring optimal.
+     *
+     * @return true if the coloring uses the minimum number of colors, false otherwise.
+     */
+    public boolean isOptimal()
+    {
+        return optimal;
+    }
+
+    /**
+     * Tells whether the last {@link #solve()} has been interrupted by the budget expiration.
+     *
+     * @return true if the search has been interrupted, false otherwise.
+     */
+    public boolean isInterrupted()
+    {
+        return interrupted;
+    }
+
+    /**
+     * Selects the uncolored node with the highest saturation, ties broken by the uncolored degree.
+     *
+     * @return the selected node, -1 if all nodes are colored.
+     */
+    private int selectNode()
+    {
+        int selected = -1;
+        for ( int node = 0; node < nodeColors.length; node++ )
+        {
+            if ( nodeColors[node] == -1
+                && ( selected == -1
+                    || saturations[node] > saturations[selected]
+                    || ( saturations[node] == saturations[selected]
+                        && uncoloredDegrees[node] > uncoloredDegrees[selected] ) ) )
+            {
+                selected = node;
+            }
+        }
+        return selected;
+    }
+
+    private void assign( int node, int color )
+    {
+        nodeColors[node] = color;
+        counters.conflictChecks += offsets[node + 1] - offsets[node];
+        for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+        {
+            int adjacent = neighbors[i];
+            if ( neighborColors[adjacent * stride + color]++ == 0 )
+            {
+                saturations[adjacent]++;
+            }
+            uncoloredDegrees[adjacent]--;
+        }
+    }
+
+    private void retract( int node, int color )
+    {
+        for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+        {
+            int adjacent = neighbors[i];
+            if ( --neighborColors[adjacent * stride + color] == 0 )
+            {
+                saturations[adjacent]--;
+            }
+            uncoloredDegrees[adjacent]++;
+        }
+        nodeColors[node] = -1;
+    }
+
+    private static int countColors( int[] nodeColors )
+    {
+        int colors = 0;
+        for ( int color : nodeColors )
+        {
+            colors = Math.max( colors, color + 1 );
+        }
+        return colors;
+    }
+
+}
@@ -0,0 +1,114 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+import static java.util.Arrays.fill;
+
+/**
+ * <a href="http://en.wikipedia.org/wiki/DSatur">DSatur</a> coloring over an {@link IndexedGraph}:
+ * the next node to color is always the most saturated one, ties broken by the degree in the
+ * uncolored subgraph, and it takes the lowest color not used by its neighbors.
+ *
+ * The whole coloring runs in {@code O((V + E) log V)}.
+ */
+final class DSaturColoring
+{
+
+    private DSaturColoring()
+    {
+        // do nothing
+    }
+
+    /**
+     * Colors the input graph using at most the given number of colors.
+     *
+     * @param graph the graph to color
+     * @param colorsCount the number of available colors
+     * @return the color index of each node, null if the colors are not enough.
+     */
+    public static int[] color( IndexedGraph<?> graph, int colorsCount )
+    {
+        return color( graph, colorsCount, new SearchCounters() );
+    }
+
+    /**
+     * Colors the input graph using at most the given number of colors, counting the work done.
+     *
+     * @param graph the graph to color
+     * @param colorsCount the number of available colors
+     * @param counters the counters of the run
+     * @return the color index of each node, null if the colors are not enough.
+     */
+    public static int[] color( IndexedGraph<?> graph, int colorsCount, SearchCounters counters )
+    {
+        final int[] offsets = graph.getOffsets();
+        final int[] neighbors = graph.getNeighbors();
+
+        final int[] nodeColors = new int[graph.size()];
+        fill( nodeColors, -1 );
+
+        final NeighborColors neighborColors = new NeighborColors( graph );
+        final SaturationQueue queue = new SaturationQueue( graph );
+
+        long visitedNodes = 0;
+        long colorAttempts = 0;
+        long conflictChecks = 0;
+        try
+        {
+            while ( !queue.isEmpty() )
+            {
+                int node = queue.poll();
+
+                int color = 0;
+                while ( neighborColors.contains( node, color ) )
+                {
+                    color++;
+                }
+                visitedNodes++;
+                colorAttempts += color + 1;
+
+                if ( color >= colorsCount )
+                {
+                    return null;
+                }
+                nodeColors[node] = color;
+                conflictChecks += offsets[node + 1] - offsets[node];
+
+                for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+                {
+                    int adjacent = neighbors[i];
+                    if ( queue.contains( adjacent ) )
+                    {
+                        if ( neighborColors.add( adjacent, color ) )
+                        {
+                            queue.increaseSaturation( adjacent );
+                        }
+                        queue.decreaseDegree( adjacent );
+                    }
+                }
+            }
+
+            return nodeColors;
+        }
+        finally
+        {
+            counters.visitedNodes += visitedNodes;
+            counters.colorAttempts += colorAttempts;
+            counters.conflictChecks += conflictChecks;
+        }
+    }
+
+}
@@ -16,14 +16,19 @@ package org.nnsoft.trudeau.coloring;
  *   limitations under the License.
  */
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Arrays.fill;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-
-import com.google.common.graph.Graph;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 /**
  * {@link ColoringAlgorithmsSelector} implementation.
@@ -35,14 +40,60 @@ final class DefaultColoringAlgorithmsSelector<N, C>
     implements ColoringAlgorithmsSelector<N, C>
 {
 
-    private final Graph<N> graph;
+    private final IndexedGraph<N> graph;
 
     private final Set<C> colors;
 
-    public DefaultColoringAlgorithmsSelector( Graph<N> graph, Set<C> colors )
+    private final List<C> palette;
+
+    private final Budget budget;
+
+    private final SolverStats stats;
+
+    public DefaultColoringAlgorithmsSelector( IndexedGraph<N> graph, Set<C> colors )
+    {
+        this( graph, colors, new ArrayList<C>( colors ), Budget.UNLIMITED, new SolverStats() );
+    }
+
+    private DefaultColoringAlgorithmsSelector( IndexedGraph<N> graph, Set<C> colors, List<C> palette, Budget budget,
+                                              SolverStats stats )
     {
         this.graph = graph;
         this.colors = colors;
+        this.palette = palette;
+        this.budget = budget;
+        this.stats = stats;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoringAlgorithmsSelector<N, C> withDeadline( long timeout, TimeUnit unit )
+    {
+        checkArgument( timeout >= 0, "Timeout must be not negative" );
+        unit = checkNotNull( unit, "Unit must be not null" );
+        final long deadline = System.nanoTime() + unit.toNanos( timeout );
+        return new DefaultColoringAlgorithmsSelector<N, C>( graph, colors, palette, budget.withDeadline( deadline ),
+                                                            stats );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoringAlgorithmsSelector<N, C> withCancellation( CancellationToken token )
+    {
+        token = checkNotNull( token, "Token must be not null" );
+        return new DefaultColoringAlgorithmsSelector<N, C>( graph, colors, palette, budget.withCancellation( token ),
+                                                            stats );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoringAlgorithmsSelector<N, C> withStatistics( SolverStats stats )
+    {
+        stats = checkNotNull( stats, "Stats must be not null" );
+        return new DefaultColoringAlgorithmsSelector<N, C>( graph, colors, palette, budget, stats );
     }
 
     /**
@@ -51,60 +102,178 @@ final class DefaultColoringAlgorithmsSelector<N, C>
     public ColoredNodes<N, C> applyingGreedyAlgorithm()
         throws NotEnoughColorsException
     {
-        final ColoredNodes<N, C> coloredNodes = new ColoredNodes<N, C>();
+        return applyingGreedyAlgorithm( NodeOrdering.LARGEST_FIRST );
+    }
 
-        // decreasing sorting all nodes by degree.
-        final UncoloredOrderedNodes<N> uncoloredOrderedNodes = new UncoloredOrderedNodes<N>();
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingGreedyAlgorithm( NodeOrdering ordering )
+        throws NotEnoughColorsException
+    {
+        ordering = checkNotNull( ordering, "Ordering must be not null" );
 
-        for ( N node : graph.nodes() )
+        final SearchCounters counters = new SearchCounters();
+        final long start = System.nanoTime();
+        try
         {
-            uncoloredOrderedNodes.addVertexDegree( node, graph.degree( node ) );
-        }
+            final int size = graph.size();
+            final int[] offsets = graph.getOffsets();
+            final int[] neighbors = graph.getNeighbors();
+            final int colorsCount = palette.size();
 
-        // search coloring
-        Iterator<N> it = uncoloredOrderedNodes.iterator();
-        Iterator<C> colorsIt = colors.iterator();
-        while ( it.hasNext() )
-        {
-            if ( !colorsIt.hasNext() )
-            {
-                throw new NotEnoughColorsException( colors );
-            }
-            C color = colorsIt.next();
+            final int[] nodeColors = new int[size];
+            fill( nodeColors, -1 );
 
-            // this list contains all vertex colors with the current color.
-            List<N> currentColorNodes = new ArrayList<N>();
-            Iterator<N> uncoloredNodesIterator = uncoloredOrderedNodes.iterator();
-            while ( uncoloredNodesIterator.hasNext() )
-            {
-                N uncoloredNode = uncoloredNodesIterator.next();
+            // forbidden[color] == node means that 'color' is already used by a neighbor of 'node';
+            // stamping with the node index avoids clearing the array at each step.
+            final int[] forbidden = new int[colorsCount];
+            fill( forbidden, -1 );
 
-                boolean foundAnAdjacentNode = false;
-                for ( N currentColoredNode : currentColorNodes )
+            // first-fit: every node, in the given order, takes the lowest color not used by its neighbors,
+            // that is the same coloring built opening one color at a time over the same order.
+            for ( int node : ordering.order( graph ) )
+            {
+                for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
                 {
-                    if ( graph.hasEdgeConnecting( currentColoredNode, uncoloredNode ) )
+                    int adjacentColor = nodeColors[neighbors[i]];
+                    if ( adjacentColor != -1 )
                     {
-                        // we've found that 'uncoloredVtx' is adiacent to
-                        // 'currentColoredVtx'
-                        foundAnAdjacentNode = true;
-                        break;
+                        forbidden[adjacentColor] = node;
                     }
                 }
 
-                if ( !foundAnAdjacentNode )
+                int color = 0;
+                while ( color < colorsCount && forbidden[color] == node )
                 {
-                    // It's possible to color the vertex 'uncoloredVtx', it has
-                    // no connected vertex into
-                    // 'currentcoloredvtx'
-                    uncoloredNodesIterator.remove();
-                    coloredNodes.addColor( uncoloredNode, color );
-                    currentColorNodes.add( uncoloredNode );
+                    color++;
                 }
+                counters.visitedNodes++;
+                counters.colorAttempts += color + 1;
+                counters.conflictChecks += offsets[node + 1] - offsets[node];
+
+                if ( color == colorsCount )
+                {
+                    throw new NotEnoughColorsException( colors );
+                }
+                nodeColors[node] = color;
             }
 
-            it = uncoloredOrderedNodes.iterator();
+            return toColoredNodes( nodeColors );
+        }
+        finally
+        {
+            endRun( SolverPhase.HEURISTIC, start, counters );
         }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingParallelGreedyAlgorithm( ForkJoinPool pool, long seed )
+        throws NotEnoughColorsException
+    {
+        pool = checkNotNull( pool, "Pool must be not null" );
 
+        final SearchCounters counters = new SearchCounters();
+        final long start = System.nanoTime();
+        try
+        {
+            final int[] nodeColors = ParallelGreedyColoring.color( graph, palette.size(), pool, seed, counters );
+            if ( nodeColors == null )
+            {
+                throw new NotEnoughColorsException( colors );
+            }
+            return toColoredNodes( nodeColors );
+        }
+        finally
+        {
+            endRun( SolverPhase.HEURISTIC, start, counters );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingDSaturAlgorithm()
+        throws NotEnoughColorsException
+    {
+        final SearchCounters counters = new SearchCounters();
+        final long start = System.nanoTime();
+        try
+        {
+            final int[] nodeColors = DSaturColoring.color( graph, palette.size(), counters );
+            if ( nodeColors == null )
+            {
+                throw new NotEnoughColorsException( colors );
+            }
+            return toColoredNodes( nodeColors );
+        }
+        finally
+        {
+            endRun( SolverPhase.HEURISTIC, start, counters );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingRecursiveLargestFirstAlgorithm()
+        throws NotEnoughColorsException
+    {
+        final SearchCounters counters = new SearchCounters();
+        final long start = System.nanoTime();
+        try
+        {
+            final int[] nodeColors = RecursiveLargestFirstColoring.color( graph, palette.size(), counters );
+            if ( nodeColors == null )
+            {
+                throw new NotEnoughColorsException( colors );
+            }
+            return toColoredNodes( nodeColors );
+        }
+        finally
+        {
+            endRun( SolverPhase.HEURISTIC, start, counters );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingTabuSearchAlgorithm( long maxIterations, long seed )
+        throws NotEnoughColorsException
+    {
+        checkArgument( maxIterations >= 0, "MaxIterations must be not negative" );
+
+        if ( graph.hasSelfLoops() )
+        {
+            throw new NotEnoughColorsException( colors );
+        }
+
+        final SearchCounters counters = new SearchCounters();
+        final long start = System.nanoTime();
+        final TabuSearch search = new TabuSearch( graph, palette.size(), maxIterations, seed, budget );
+        search.setCounters( counters );
+        final int[] nodeColors;
+        try
+        {
+            nodeColors = search.solve();
+        }
+        finally
+        {
+            endRun( SolverPhase.SEARCH, start, counters );
+        }
+        if ( nodeColors == null )
+        {
+            throw new NotEnoughColorsException( colors );
+        }
+
+        final ColoredNodes<N, C> coloredNodes = toColoredNodes( nodeColors );
+        if ( search.isOptimal() )
+        {
+            coloredNodes.setStatus( ColoringStatus.OPTIMAL );
+        }
         return coloredNodes;
     }
 
@@ -122,91 +291,432 @@ final class DefaultColoringAlgorithmsSelector<N, C>
      */
     public ColoredNodes<N, C> applyingBackTrackingAlgorithm( ColoredNodes<N, C> partialColoredVertex )
         throws NotEnoughColorsException
+    {
+        return applyingExactSearch( partialColoredVertex, SearchStrategy.CHRONOLOGICAL );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingBackJumpingAlgorithm()
+        throws NotEnoughColorsException
+    {
+        return applyingBackJumpingAlgorithm( new ColoredNodes<N, C>() );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingBackJumpingAlgorithm( ColoredNodes<N, C> partialColoredVertex )
+        throws NotEnoughColorsException
+    {
+        return applyingExactSearch( partialColoredVertex, SearchStrategy.BACKJUMPING );
+    }
+
+    private ColoredNodes<N, C> applyingExactSearch( ColoredNodes<N, C> partialColoredVertex, SearchStrategy strategy )
+        throws NotEnoughColorsException
     {
         partialColoredVertex = checkNotNull( partialColoredVertex, "PartialColoredVertex must be not null" );
 
-        final List<N> nodesList = new ArrayList<N>();
+        final SearchCounters counters = new SearchCounters();
+        long start = System.nanoTime();
+        SolverPhase phase = SolverPhase.BOUNDING;
+        try
+        {
+            final int[] nodeColors = toColorIndexes( partialColoredVertex );
+            final int[] clique = checkCliqueBound( nodeColors );
+
+            start = endPhase( phase, start );
+            phase = SolverPhase.HEURISTIC;
+            final int[] heuristicColors = heuristicColoring( nodeColors, counters );
+            if ( heuristicColors != null )
+            {
+                return addColors( partialColoredVertex, heuristicColors );
+            }
+
+            start = endPhase( phase, start );
+            phase = SolverPhase.REDUCTION;
+            anchorClique( nodeColors, clique );
+            final Kernel kernel = Kernel.reduce( graph, palette.size(), nodeColors );
+
+            start = endPhase( phase, start );
+            phase = SolverPhase.SEARCH;
+            final ComponentsSearch search = new ComponentsSearch( kernel.getCore(), palette.size(),
+                                                                  kernel.getCoreColors() );
+            search.setBudget( budget );
+            search.setStrategy( strategy );
+            search.setCounters( counters );
+            if ( search.solve() )
+            {
+                kernel.restore( nodeColors );
+                return addColors( partialColoredVertex, nodeColors );
+            }
 
-        for ( N node : graph.nodes() )
+            checkNotInterrupted( search.isInterrupted() );
+            throw new NotEnoughColorsException( colors );
+        }
+        finally
         {
-            if ( !partialColoredVertex.containsColoredNode( node ) )
+            endRun( phase, start, counters );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingParallelBackTrackingAlgorithm( ForkJoinPool pool )
+        throws NotEnoughColorsException
+    {
+        return applyingParallelBackTrackingAlgorithm( pool, new ColoredNodes<N, C>() );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingParallelBackTrackingAlgorithm( ForkJoinPool pool,
+                                                                     ColoredNodes<N, C> partialColoredVertex )
+        throws NotEnoughColorsException
+    {
+        pool = checkNotNull( pool, "Pool must be not null" );
+        partialColoredVertex = checkNotNull( partialColoredVertex, "PartialColoredVertex must be not null" );
+
+        final SearchCounters counters = new SearchCounters();
+        long start = System.nanoTime();
+        SolverPhase phase = SolverPhase.BOUNDING;
+        try
+        {
+            final int[] nodeColors = toColorIndexes( partialColoredVertex );
+            final int[] clique = checkCliqueBound( nodeColors );
+
+            start = endPhase( phase, start );
+            phase = SolverPhase.HEURISTIC;
+            final int[] heuristicColors = heuristicColoring( nodeColors, counters );
+            if ( heuristicColors != null )
+            {
+                return addColors( partialColoredVertex, heuristicColors );
+            }
+
+            start = endPhase( phase, start );
+            phase = SolverPhase.REDUCTION;
+            anchorClique( nodeColors, clique );
+            final Kernel kernel = Kernel.reduce( graph, palette.size(), nodeColors );
+
+            start = endPhase( phase, start );
+            phase = SolverPhase.SEARCH;
+            final ComponentsSearch search = new ComponentsSearch( kernel.getCore(), palette.size(),
+                                                                  kernel.getCoreColors() );
+            search.setBudget( budget );
+            search.setCounters( counters );
+            if ( search.solve( pool ) )
+            {
+                kernel.restore( nodeColors );
+                return addColors( partialColoredVertex, nodeColors );
+            }
+
+            checkNotInterrupted( search.isInterrupted() );
+            throw new NotEnoughColorsException( colors );
+        }
+        finally
+        {
+            endRun( phase, start, counters );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingMinimumColoring()
+        throws NotEnoughColorsException
+    {
+        final SearchCounters counters = new SearchCounters();
+        long start = System.nanoTime();
+        final int[] nodeColors;
+        final MinimumColoringSearch search = new MinimumColoringSearch( graph, palette.size(), budget );
+        search.setCounters( counters );
+        SolverPhase phase = SolverPhase.BOUNDING;
+        try
+        {
+            final int[] uncolored = new int[graph.size()];
+            fill( uncolored, -1 );
+            checkCliqueBound( uncolored );
+
+            start = endPhase( phase, start );
+            phase = SolverPhase.SEARCH;
+            nodeColors = search.solve();
+        }
+        finally
+        {
+            endRun( phase, start, counters );
+        }
+        if ( nodeColors == null )
+        {
+            checkNotInterrupted( search.isInterrupted() );
+            throw new NotEnoughColorsException( colors );
+        }
+
+        final ColoredNodes<N, C> coloredNodes = toColoredNodes( nodeColors );
+        if ( search.isOptimal() )
+        {
+            coloredNodes.setStatus( ColoringStatus.OPTIMAL );
+        }
+        return coloredNodes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingBranchAndBoundAlgorithm()
+        throws NotEnoughColorsException
+    {
+        final SearchCounters counters = new SearchCounters();
+        long start = System.nanoTime();
+        final int[] nodeColors;
+        final DSaturBranchAndBound search = new DSaturBranchAndBound( graph, palette.size(), budget );
+        search.setCounters( counters );
+        SolverPhase phase = SolverPhase.BOUNDING;
+        try
+        {
+            final int[] uncolored = new int[graph.size()];
+            fill( uncolored, -1 );
+            checkCliqueBound( uncolored );
+
+            if ( graph.hasSelfLoops() )
             {
-                nodesList.add( node );
+                throw new NotEnoughColorsException( colors );
             }
+
+            start = endPhase( phase, start );
+            phase = SolverPhase.SEARCH;
+            nodeColors = search.solve();
+        }
+        finally
+        {
+            endRun( phase, start, counters );
+        }
+        if ( nodeColors == null )
+        {
+            checkNotInterrupted( search.isInterrupted() );
+            throw new NotEnoughColorsException( colors );
         }
 
-        if ( backtraking( -1, nodesList, partialColoredVertex ) )
+        final ColoredNodes<N, C> coloredNodes = toColoredNodes( nodeColors );
+        coloredNodes.setExploredNodes( counters.exploredNodes );
+        if ( search.isOptimal() )
         {
-            return partialColoredVertex;
+            coloredNodes.setStatus( ColoringStatus.OPTIMAL );
         }
+        return coloredNodes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public IncrementalColoring<N, C> maintaining( ColoredNodes<N, C> coloredNodes )
+        throws NotEnoughColorsException
+    {
+        coloredNodes = checkNotNull( coloredNodes, "ColoredNodes must be not null" );
+        return new DefaultIncrementalColoring<N, C>( graph, colors, palette, coloredNodes );
+    }
 
-        throw new NotEnoughColorsException( colors );
+    /**
+     * When the exact search is bounded and there are no predefined colors, colors the graph
+     * with DSatur first, so that a coloring is available even if the search is interrupted.
+     *
+     * @param nodeColors the color index of each node, -1 for the nodes to be colored.
+     * @param counters the counters of the run
+     * @return the heuristic coloring, null if not applicable or if the colors are not enough.
+     */
+    private int[] heuristicColoring( int[] nodeColors, SearchCounters counters )
+    {
+        if ( !budget.isLimited() || graph.hasSelfLoops() )
+        {
+            return null;
+        }
+        for ( int nodeColor : nodeColors )
+        {
+            if ( nodeColor != -1 )
+            {
+                return null;
+            }
+        }
+        return DSaturColoring.color( graph, palette.size(), counters );
     }
 
     /**
-     * This is the recursive step.
+     * Rejects the exact searches on graphs with a clique larger than the palette, before exhausting
+     * the whole search tree to prove the same.
      *
-     * @param result The set that will be returned
-     * @param element the element
-     * @return true if there is a valid coloring for the graph, false otherwise.
+     * @param nodeColors the color index of each node, -1 for the nodes to be colored.
+     * @return the clique found, not larger than the palette unless some of its nodes are predefined.
+     * @throws NotEnoughColorsException carrying the witness clique, if found.
      */
-    private boolean backtraking( int currentVertexIndex, List<N> nodesList, ColoredNodes<N, C> coloredNodes )
+    private int[] checkCliqueBound( int[] nodeColors )
+        throws NotEnoughColorsException
     {
-        if ( currentVertexIndex != -1
-                        && isThereColorConflict( nodesList.get( currentVertexIndex ), coloredNodes ) )
+        final int colorsCount = palette.size();
+        final int[] clique = GreedyClique.find( graph, colorsCount + 1 );
+        if ( clique.length <= colorsCount )
         {
-            return false;
+            return clique;
         }
 
-        if ( currentVertexIndex == nodesList.size() - 1 )
+        // nodes predefined with colors out of the palette do not need any palette color
+        final Set<N> witness = new LinkedHashSet<N>();
+        for ( int node : clique )
         {
-            return true;
+            if ( nodeColors[node] < colorsCount )
+            {
+                witness.add( graph.getNode( node ) );
+            }
         }
 
-        int next = currentVertexIndex + 1;
-        N nextNode = nodesList.get( next );
-        for ( C color : colors )
+        if ( witness.size() > colorsCount )
         {
-            coloredNodes.addColor( nextNode, color );
-            boolean isDone = backtraking( next, nodesList, coloredNodes );
-            if ( isDone )
+            throw new NotEnoughColorsException( colors, witness );
+        }
+        return clique;
+    }
+
+    /**
+     * When there are no predefined colors, colors the clique nodes with the first colors before the
+     * exact search: any coloring can be renamed to do the same, so no solution is lost, and the
+     * search does not try the permutations of the clique colors.
+     *
+     * @param nodeColors the color index of each node, -1 for the nodes to be colored.
+     * @param clique the clique nodes, not more than the palette colors
+     */
+    private void anchorClique( int[] nodeColors, int[] clique )
+    {
+        if ( graph.hasSelfLoops() )
+        {
+            // left to the search, that rejects them
+            return;
+        }
+        for ( int nodeColor : nodeColors )
+        {
+            if ( nodeColor != -1 )
             {
-                return true;
+                return;
             }
         }
-        coloredNodes.removeColor( nextNode );
-        return false;
+        for ( int i = 0; i < clique.length; i++ )
+        {
+            nodeColors[clique[i]] = i;
+        }
+    }
+
+    /**
+     * Publishes the time spent in a phase of the current run.
+     *
+     * @param phase the completed phase
+     * @param start when the phase started, in nanoseconds
+     * @return when the phase ended, that is when the next one starts.
+     */
+    private long endPhase( SolverPhase phase, long start )
+    {
+        final long end = System.nanoTime();
+        stats.addPhaseTime( phase, end - start );
+        return end;
     }
 
     /**
-     * Tests if there is some adjacent nodes with the same color.
+     * Publishes the last phase and the counters of the current run, whether it succeeded or not.
      *
-     * @param currentNode
-     * @return
+     * @param phase the last phase of the run
+     * @param start when the last phase started, in nanoseconds
+     * @param counters the counters of the run
      */
-    private boolean isThereColorConflict( N currentNode, ColoredNodes<N, C> coloredNodes )
+    private void endRun( SolverPhase phase, long start, SearchCounters counters )
     {
-        if ( currentNode == null )
+        endPhase( phase, start );
+        stats.addCounters( counters );
+        stats.addRun();
+    }
+
+    /**
+     * Tells apart an exact search that found no coloring because interrupted from one that proved
+     * the colors are not enough.
+     *
+     * @param interrupted whether the search has been interrupted
+     * @throws CancellationException if the search has been interrupted.
+     */
+    private static void checkNotInterrupted( boolean interrupted )
+    {
+        if ( interrupted )
         {
-            return false;
+            throw new CancellationException( "Coloring interrupted before finding a solution" );
         }
+    }
 
-        C nextNodeColor = coloredNodes.getColor( currentNode );
-        if ( nextNodeColor == null )
+    /**
+     * Maps the input partial coloring to color indexes.
+     *
+     * Predefined colors that are not part of the palette are indexed after the palette ones,
+     * so they can be checked for conflicts but never assigned to the uncolored nodes.
+     *
+     * @param partialColoredVertex subset of nodes already colored.
+     * @return the color index of each node, -1 for the nodes to be colored.
+     */
+    private int[] toColorIndexes( ColoredNodes<N, C> partialColoredVertex )
+    {
+        final Map<C, Integer> colorIndexes = new HashMap<C, Integer>();
+        for ( C color : palette )
         {
-            return false;
+            colorIndexes.put( color, colorIndexes.size() );
         }
 
-        for ( N abj : graph.adjacentNodes( currentNode ) )
+        final int[] nodeColors = new int[graph.size()];
+        for ( int node = 0; node < nodeColors.length; node++ )
         {
-            C adjColor = coloredNodes.getColor( abj );
-            if ( adjColor != null && nextNodeColor.equals( adjColor ) )
+            N graphNode = graph.getNode( node );
+            if ( partialColoredVertex.containsColoredNode( graphNode ) )
             {
-                return true;
+                C color = partialColoredVertex.getColor( graphNode );
+                Integer colorIndex = colorIndexes.get( color );
+                if ( colorIndex == null )
+                {
+                    colorIndex = colorIndexes.size();
+                    colorIndexes.put( color, colorIndex );
+                }
+                nodeColors[node] = colorIndex;
             }
+            else
+            {
+                nodeColors[node] = -1;
+            }
+        }
+        return nodeColors;
+    }
 
+    /**
+     * Adds to the partial coloring the colors of all the nodes it does not contain.
+     *
+     * @param partialColoredVertex subset of nodes already colored.
+     * @param nodeColors the color index of each node
+     * @return The color - vertex association.
+     */
+    private ColoredNodes<N, C> addColors( ColoredNodes<N, C> partialColoredVertex, int[] nodeColors )
+    {
+        for ( int node = 0; node < nodeColors.length; node++ )
+        {
+            N graphNode = graph.getNode( node );
+            if ( !partialColoredVertex.containsColoredNode( graphNode ) )
+            {
+                partialColoredVertex.addColor( graphNode, palette.get( nodeColors[node] ) );
+            }
         }
-        return false;
+        return partialColoredVertex;
+    }
+
+    /**
+     * Wraps the color indexes of all nodes in a view that maps them back to the graph nodes and the palette colors.
+     *
+     * @param nodeColors the color index of each node
+     * @return The color - vertex association.
+     */
+    private ColoredNodes<N, C> toColoredNodes( int[] nodeColors )
+    {
+        return new ColoredNodes<N, C>( graph, palette, nodeColors );
     }
 
 }
@@ -20,8 +20,6 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.Set;
 
-import com.google.common.graph.Graph;
-
 /**
  * {@link ColorsBuilder} implementation
  *
@@ -31,13 +29,13 @@ final class DefaultColorsBuilder<N>
     implements ColorsBuilder<N>
 {
 
-    private final Graph<N> graph;
+    private final IndexedGraph<N> graph;
 
     /**
      * Creates a new instance of {@link DefaultColorsBuilder} for the input graph.
-     * @param graph the graph
+     * @param graph the int-indexed graph snapshot
      */
-    public DefaultColorsBuilder( Graph<N> graph )
+    public DefaultColorsBuilder( IndexedGraph<N> graph )
     {
         this.graph = graph;
     }
@@ -48,7 +46,12 @@ final class DefaultColorsBuilder<N>
     public <C> ColoringAlgorithmsSelector<N, C> withColors( Set<C> colors )
     {
         colors = checkNotNull( colors, "Colors set must be not null" );
-        return new DefaultColoringAlgorithmsSelector<N, C>( graph, colors );
+        final ColoringAlgorithmsSelector<N, C> selector = new DefaultColoringAlgorithmsSelector<N, C>( graph, colors );
+        if ( !SolveMonitor.isEnabled() )
+        {
+            return selector;
+        }
+        return new MonitoredColoringAlgorithmsSelector<N, C>( graph, colors.size(), selector );
     }
 
 }
@@ -0,0 +1,465 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.fill;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link IncrementalColoring} implementation.
+ *
+ * A conflicting edge is repaired recoloring one of its nodes with a color unused by its neighbors or,
+ * when there is none, moving to another free color all the neighbors that block one of the colors,
+ * so the cost of each change depends on the neighborhood of the edge only.
+ *
+ * @param <N> the Graph nodes type
+ * @param <C> the Color type
+ */
+final class DefaultIncrementalColoring<N, C>
+    implements IncrementalColoring<N, C>
+{
+
+    private static final int NO_COLOR = -1;
+
+    private final IndexedGraph<N> graph;
+
+    private final Set<C> colors;
+
+    private final List<C> palette;
+
+    private final ColoredNodes<N, C> coloredNodes;
+
+    private final Map<N, Integer> addedNodes = new HashMap<N, Integer>();
+
+    private Object[] nodes;
+
+    private boolean[] present;
+
+    private int[][] adjacency;
+
+    private int[] degrees;
+
+    private int[] nodeColors;
+
+    private int size;
+
+    // forbidden[color] == stamp means that 'color' is used by a neighbor of the node being recolored;
+    // it only spans the palette, so colors out of it are never assigned
+
+    private final int[] forbidden;
+
+    private int stamp;
+
+    private Set<N> changed;
+
+    public DefaultIncrementalColoring( IndexedGraph<N> graph, Set<C> colors, List<C> palette,
+                                       ColoredNodes<N, C> coloredNodes )
+        throws NotEnoughColorsException
+    {
+        this.graph = graph;
+        this.colors = colors;
+        this.palette = palette;
+        this.coloredNodes = coloredNodes;
+        this.forbidden = new int[palette.size()];
+
+        size = graph.size();
+        nodes = new Object[Math.max( 16, size )];
+        present = new boolean[nodes.length];
+        adjacency = new int[nodes.length][];
+        degrees = new int[nodes.length];
+        nodeColors = new int[nodes.length];
+
+        final Map<C, Integer> colorIndexes = new HashMap<C, Integer>();
+        for ( C color : palette )
+        {
+            colorIndexes.put( color, colorIndexes.size() );
+        }
+
+        final int[] offsets = graph.getOffsets();
+        final int[] neighbors = graph.getNeighbors();
+        for ( int node = 0; node < size; node++ )
+        {
+            N graphNode = graph.getNode( node );
+            nodes[node] = graphNode;
+            present[node] = true;
+            degrees[node] = graph.degree( node );
+            adjacency[node] = new int[degrees[node]];
+            System.arraycopy( neighbors, offsets[node], adjacency[node], 0, degrees[node] );
+
+            if ( coloredNodes.containsColoredNode( graphNode ) )
+            {
+                // colors out of the palette are indexed after it: they are kept, but never assigned
+                C color = coloredNodes.getColor( graphNode );
+                Integer colorIndex = colorIndexes.get( color );
+                if ( colorIndex == null )
+                {
+                    colorIndex = colorIndexes.size();
+                    colorIndexes.put( color, colorIndex );
+                }
+                nodeColors[node] = colorIndex;
+            }
+            else
+            {
+                nodeColors[node] = NO_COLOR;
+            }
+        }
+
+        // nodes missing in the input coloring are colored first-fit
+        changed = new HashSet<N>();
+        for ( int node = 0; node < size; node++ )
+        {
+            if ( nodeColors[node] == NO_COLOR && !recolor( node ) )
+            {
+                throw new NotEnoughColorsException( colors );
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Set<N> addNode( N node )
+        throws NotEnoughColorsException
+    {
+        node = checkNotNull( node, "Null nodes can not be added" );
+
+        changed = new HashSet<N>();
+        ensureNode( node );
+        return changed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Set<N> removeNode( N node )
+    {
+        node = checkNotNull( node, "Null nodes can not be removed" );
+
+        changed = new HashSet<N>();
+        final int index = indexOf( node );
+        if ( index != -1 )
+        {
+            dropNode( index );
+        }
+        return changed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Set<N> addEdge( N nodeU, N nodeV )
+        throws NotEnoughColorsException
+    {
+        nodeU = checkNotNull( nodeU, "Null nodes can not be connected" );
+        nodeV = checkNotNull( nodeV, "Null nodes can not be connected" );
+        checkArgument( !nodeU.equals( nodeV ), "Self loops can not be colored" );
+
+        changed = new HashSet<N>();
+        final boolean addedU = indexOf( nodeU ) == -1;
+        final boolean addedV = indexOf( nodeV ) == -1;
+        final int u = ensureNode( nodeU );
+        final int v = ensureNode( nodeV );
+        if ( isConnected( u, v ) )
+        {
+            return changed;
+        }
+
+        connect( u, v );
+        connect( v, u );
+
+        if ( nodeColors[u] == nodeColors[v] )
+        {
+            // the node with the lowest degree is the cheapest to repair
+            int first = degrees[u] <= degrees[v] ? u : v;
+            int second = first == u ? v : u;
+
+            if ( !recolor( first ) && !recolor( second ) && !recolorBlockers( first ) && !recolorBlockers( second ) )
+            {
+                // the graph is left as it was, without the edge and the nodes added with it
+                disconnect( u, v );
+                disconnect( v, u );
+                if ( addedU )
+                {
+                    dropNode( u );
+                }
+                if ( addedV )
+                {
+                    dropNode( v );
+                }
+                throw new NotEnoughColorsException( colors );
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Set<N> removeEdge( N nodeU, N nodeV )
+    {
+        nodeU = checkNotNull( nodeU, "Null nodes can not be disconnected" );
+        nodeV = checkNotNull( nodeV, "Null nodes can not be disconnected" );
+
+        changed = new HashSet<N>();
+        final int u = indexOf( nodeU );
+        final int v = indexOf( nodeV );
+        if ( u != -1 && v != -1 )
+        {
+            disconnect( u, v );
+            disconnect( v, u );
+        }
+        return changed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> getColoredNodes()
+    {
+        return coloredNodes;
+    }
+
+    /**
+     * Gives the node the lowest color not used by its neighbors.
+     *
+     * @return true if the node has been recolored, false if all colors are used by its neighbors.
+     */
+    private boolean recolor( int node )
+    {
+        final int color = freeColor( node, NO_COLOR );
+        if ( color == NO_COLOR )
+        {
+            return false;
+        }
+        setColor( node, color );
+        return true;
+    }
+
+    /**
+     * Looks for a color whose neighbors using it can all move to another free color, then moves
+     * them and gives the node that color.
+     *
+     * @return true if the node has been recolored, false otherwise.
+     */
+    private boolean recolorBlockers( int node )
+    {
+        final int[] blockers = new int[degrees[node]];
+        final int[] blockersColors = new int[degrees[node]];
+
+        for ( int color = 0; color < palette.size(); color++ )
+        {
+            if ( color == nodeColors[node] )
+            {
+                continue;
+            }
+
+            // neighbors sharing the same color are never adjacent, they can move independently
+            int blockersCount = 0;
+            boolean movable = true;
+            for ( int i = 0; movable && i < degrees[node]; i++ )
+            {
+                int adjacent = adjacency[node][i];
+                if ( nodeColors[adjacent] == color )
+                {
+                    int blockerColor = freeColor( adjacent, color );
+                    movable = blockerColor != NO_COLOR;
+                    blockers[blockersCount] = adjacent;
+                    blockersColors[blockersCount++] = blockerColor;
+                }
+            }
+
+            if ( movable )
+            {
+                for ( int i = 0; i < blockersCount; i++ )
+                {
+                    setColor( blockers[i], blockersColors[i] );
+                }
+                setColor( node, color );
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the lowest color not used by the node neighbors and different from the excluded one.
+     *
+     * @return the lowest free color, -1 if there is none.
+     */
+    private int freeColor( int node, int excluded )
+    {
+        if ( ++stamp == Integer.MAX_VALUE )
+        {
+            fill( forbidden, 0 );
+            stamp = 1;
+        }
+
+        for ( int i = 0; i < degrees[node]; i++ )
+        {
+            int adjacentColor = nodeColors[adjacency[node][i]];
+            if ( adjacentColor != NO_COLOR && adjacentColor < forbidden.length )
+            {
+                forbidden[adjacentColor] = stamp;
+            }
+        }
+
+        for ( int color = 0; color < forbidden.length; color++ )
+        {
+            if ( forbidden[color] != stamp && color != excluded )
+            {
+                return color;
+            }
+        }
+        return NO_COLOR;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private void setColor( int node, int color )
+    {
+        if ( nodeColors[node] != color )
+        {
+            nodeColors[node] = color;
+            coloredNodes.addColor( (N) nodes[node], palette.get( color ) );
+            changed.add( (N) nodes[node] );
+        }
+    }
+
+    /**
+     * Returns the index of the input node, -1 if it is not part of the graph.
+     */
+    private int indexOf( N node )
+    {
+        int index = graph.getIndex( node );
+        if ( index == -1 )
+        {
+            Integer addedIndex = addedNodes.get( node );
+            index = addedIndex == null ? -1 : addedIndex;
+        }
+        return index != -1 && present[index] ? index : -1;
+    }
+
+    /**
+     * Returns the index of the input node, adding and coloring it if it is not part of the graph.
+     */
+    private int ensureNode( N node )
+        throws NotEnoughColorsException
+    {
+        int index = indexOf( node );
+        if ( index != -1 )
+        {
+            return index;
+        }
+        if ( palette.isEmpty() )
+        {
+            throw new NotEnoughColorsException( colors );
+        }
+
+        // removed nodes get back their own index
+        index = graph.getIndex( node );
+        if ( index == -1 )
+        {
+            Integer addedIndex = addedNodes.get( node );
+            if ( addedIndex == null )
+            {
+                addedIndex = size++;
+                addedNodes.put( node, addedIndex );
+                ensureCapacity( size );
+                nodes[addedIndex] = node;
+                adjacency[addedIndex] = new int[4];
+            }
+            index = addedIndex;
+        }
+
+        present[index] = true;
+        degrees[index] = 0;
+        nodeColors[index] = NO_COLOR;
+        setColor( index, 0 );
+        return index;
+    }
+
+    /**
+     * Removes the node with the input index, and all its edges, and drops its color.
+     */
+    @SuppressWarnings( "unchecked" )
+    private void dropNode( int index )
+    {
+        for ( int i = 0; i < degrees[index]; i++ )
+        {
+            disconnect( adjacency[index][i], index );
+        }
+        degrees[index] = 0;
+        present[index] = false;
+        nodeColors[index] = NO_COLOR;
+        coloredNodes.removeColor( (N) nodes[index] );
+    }
+
+    private void ensureCapacity( int capacity )
+    {
+        if ( capacity > nodes.length )
+        {
+            int length = Math.max( capacity, nodes.length << 1 );
+            nodes = copyOf( nodes, length );
+            present = copyOf( present, length );
+            adjacency = copyOf( adjacency, length );
+            degrees = copyOf( degrees, length );
+            nodeColors = copyOf( nodeColors, length );
+        }
+    }
+
+    private boolean isConnected( int u, int v )
+    {
+        final int node = degrees[u] <= degrees[v] ? u : v;
+        final int other = node == u ? v : u;
+        for ( int i = 0; i < degrees[node]; i++ )
+        {
+            if ( adjacency[node][i] == other )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void connect( int node, int adjacent )
+    {
+        if ( degrees[node] == adjacency[node].length )
+        {
+            adjacency[node] = copyOf( adjacency[node], Math.max( 4, degrees[node] << 1 ) );
+        }
+        adjacency[node][degrees[node]++] = adjacent;
+    }
+
+    private void disconnect( int node, int adjacent )
+    {
+        for ( int i = 0; i < degrees[node]; i++ )
+        {
+            if ( adjacency[node][i] == adjacent )
+            {
+                adjacency[node][i] = adjacency[node][--degrees[node]];
+                return;
+            }
+        }
+    }
+
+}
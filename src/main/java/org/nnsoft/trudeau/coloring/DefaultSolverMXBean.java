@@ -0,0 +1,250 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@link SolverMXBean} implementation, updated once per solve by concurrent threads.
+ */
+final class DefaultSolverMXBean
+    implements SolverMXBean
+{
+
+    private static final int BUCKETS = 40;
+
+    private static final double NANOS_PER_MILLI = 1000000D;
+
+    private final ColoringAlgorithm algorithm;
+
+    // solves by outcome, indexed by SolveOutcome ordinal.
+
+    private final AtomicLongArray outcomes = new AtomicLongArray( SolveOutcome.values().length );
+
+    private final AtomicLongArray histogram = new AtomicLongArray( BUCKETS );
+
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Creates the aggregates of the input algorithm.
+     *
+     * @param algorithm the monitored algorithm
+     */
+    public DefaultSolverMXBean( ColoringAlgorithm algorithm )
+    {
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Adds a solve to the aggregates.
+     *
+     * @param outcome how the solve ended
+     * @param nanos the solve latency, in nanoseconds
+     */
+    public void record( SolveOutcome outcome, long nanos )
+    {
+        outcomes.incrementAndGet( outcome.ordinal() );
+        histogram.incrementAndGet( bucketOf( nanos / 1000 ) );
+        totalNanos.addAndGet( nanos );
+
+        long max = maxNanos.get();
+        while ( nanos > max && !maxNanos.compareAndSet( max, nanos ) )
+        {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getAlgorithm()
+    {
+        return algorithm.name();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getSolves()
+    {
+        long solves = 0;
+        for ( int i = 0; i < outcomes.length(); i++ )
+        {
+            solves += outcomes.get( i );
+        }
+        return solves;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getColored()
+    {
+        return outcomes.get( SolveOutcome.COLORED.ordinal() );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getNotEnoughColors()
+    {
+        return outcomes.get( SolveOutcome.NOT_ENOUGH_COLORS.ordinal() );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getInterrupted()
+    {
+        return outcomes.get( SolveOutcome.INTERRUPTED.ordinal() );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getFailed()
+    {
+        return outcomes.get( SolveOutcome.FAILED.ordinal() );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public double getNotEnoughColorsRate()
+    {
+        final long solves = getSolves();
+        return solves == 0 ? 0 : (double) getNotEnoughColors() / solves;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public double getMeanLatencyMillis()
+    {
+        final long solves = getSolves();
+        return solves == 0 ? 0 : totalNanos.get() / NANOS_PER_MILLI / solves;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public double getMaxLatencyMillis()
+    {
+        return maxNanos.get() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public double getMedianLatencyMillis()
+    {
+        return getLatencyPercentileMillis( 50 );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public double get99thPercentileLatencyMillis()
+    {
+        return getLatencyPercentileMillis( 99 );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long[] getLatencyHistogram()
+    {
+        final long[] counts = new long[BUCKETS];
+        for ( int bucket = 0; bucket < BUCKETS; bucket++ )
+        {
+            counts[bucket] = histogram.get( bucket );
+        }
+        return counts;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long[] getLatencyBucketBoundsMicros()
+    {
+        final long[] bounds = new long[BUCKETS];
+        for ( int bucket = 0; bucket < BUCKETS; bucket++ )
+        {
+            bounds[bucket] = 1L << bucket;
+        }
+        return bounds;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public double getLatencyPercentileMillis( double percentile )
+    {
+        checkArgument( percentile > 0 && percentile <= 100, "Percentile must be in (0, 100]" );
+
+        final long[] counts = getLatencyHistogram();
+        long solves = 0;
+        for ( long count : counts )
+        {
+            solves += count;
+        }
+        if ( solves == 0 )
+        {
+            return 0;
+        }
+
+        final double rank = percentile / 100 * solves;
+        long cumulative = 0;
+        int bucket = 0;
+        while ( bucket < BUCKETS - 1 && ( cumulative += counts[bucket] ) < rank )
+        {
+            bucket++;
+        }
+        return ( 1L << bucket ) / 1000D;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void reset()
+    {
+        for ( int i = 0; i < outcomes.length(); i++ )
+        {
+            outcomes.set( i, 0 );
+        }
+        for ( int bucket = 0; bucket < BUCKETS; bucket++ )
+        {
+            histogram.set( bucket, 0 );
+        }
+        totalNanos.set( 0 );
+        maxNanos.set( 0 );
+    }
+
+    /**
+     * Returns the bucket of the input latency: the number of bits of the microseconds.
+     */
+    private static int bucketOf( long micros )
+    {
+        return Math.min( BUCKETS - 1, 64 - Long.numberOfLeadingZeros( micros ) );
+    }
+
+}
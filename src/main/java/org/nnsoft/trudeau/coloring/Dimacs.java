@@ -0,0 +1,409 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.String.format;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.sort;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.common.graph.Graph;
+
+/**
+ * Reads graphs from, and writes colorings to, files in the
+ * <a href="http://mat.gsia.cmu.edu/COLOR/general/ccformat.ps">DIMACS</a> {@code .col} format.
+ *
+ * Graphs are read straight from the memory mapped file into the form the algorithms work on, with
+ * no intermediate {@link com.google.common.graph.MutableGraph}: a first pass counts the degrees, a
+ * second one fills the adjacency lists, then duplicated edges are dropped.
+ */
+public final class Dimacs
+{
+
+    private static final long CHUNK_SIZE = 1L << 30;
+
+    private Dimacs()
+    {
+        // do nothing
+    }
+
+    /**
+     * Reads the graph described by the input DIMACS file, where nodes are numbered from 1.
+     *
+     * Lines other than the problem line ({@code p edge <nodes> <edges>}) and the edges
+     * ({@code e <node> <node>}) are ignored; edges may be listed in both directions.
+     *
+     * @param file the DIMACS file
+     * @return the graph described by the input file
+     * @throws IOException if the file can not be read or it is not a valid DIMACS file
+     */
+    public static DimacsGraph read( File file )
+        throws IOException
+    {
+        file = checkNotNull( file, "Impossible to read a null file" );
+
+        final RandomAccessFile input = new RandomAccessFile( file, "r" );
+        try
+        {
+            final FileChannel channel = input.getChannel();
+            final long size = channel.size();
+            final ByteBuffer[] chunks = new ByteBuffer[(int) ( ( size + CHUNK_SIZE - 1 ) / CHUNK_SIZE )];
+            for ( int i = 0; i < chunks.length; i++ )
+            {
+                long position = i * CHUNK_SIZE;
+                chunks[i] = channel.map( MapMode.READ_ONLY, position, Math.min( CHUNK_SIZE, size - position ) );
+            }
+
+            // first pass: degrees, the node i counted at i + 1 before the prefix sums
+            Parser parser = new Parser( chunks );
+            int[] offsets = null;
+            while ( parser.nextEdge() )
+            {
+                if ( offsets == null )
+                {
+                    offsets = new int[parser.nodes + 1];
+                }
+                offsets[parser.source]++;
+                offsets[parser.target]++;
+            }
+            if ( parser.nodes == -1 )
+            {
+                throw new IOException( format( "Missing problem line in DIMACS file %s", file ) );
+            }
+            if ( offsets == null )
+            {
+                offsets = new int[parser.nodes + 1];
+            }
+
+            long total = 0;
+            for ( int i = 1; i < offsets.length; i++ )
+            {
+                total += offsets[i];
+                if ( total > Integer.MAX_VALUE )
+                {
+                    throw new IOException( format( "Too many edges in DIMACS file %s", file ) );
+                }
+                offsets[i] = (int) total;
+            }
+
+            // second pass: adjacency lists
+            final int[] neighbors = new int[(int) total];
+            final int[] positions = copyOf( offsets, parser.nodes );
+            parser = new Parser( chunks );
+            while ( parser.nextEdge() )
+            {
+                int source = parser.source - 1;
+                int target = parser.target - 1;
+                neighbors[positions[source]++] = target;
+                neighbors[positions[target]++] = source;
+            }
+
+            return new DimacsGraph( offsets, removeDuplicates( offsets, neighbors ) );
+        }
+        finally
+        {
+            input.close();
+        }
+    }
+
+    /**
+     * Sorts every adjacency list and removes the duplicated neighbors, compacting the lists and updating
+     * the offsets in place.
+     *
+     * @return the compacted adjacency lists
+     */
+    private static int[] removeDuplicates( int[] offsets, int[] neighbors )
+    {
+        int size = 0;
+        for ( int node = 0; node < offsets.length - 1; node++ )
+        {
+            int from = offsets[node];
+            int to = offsets[node + 1];
+            sort( neighbors, from, to );
+
+            offsets[node] = size;
+            for ( int i = from; i < to; i++ )
+            {
+                if ( i == from || neighbors[i] != neighbors[i - 1] )
+                {
+                    neighbors[size++] = neighbors[i];
+                }
+            }
+        }
+        offsets[offsets.length - 1] = size;
+        return size == neighbors.length ? neighbors : copyOf( neighbors, size );
+    }
+
+    /**
+     * Writes the input coloring in the DIMACS solution format: the number of colors
+     * ({@code s col <colors>}) followed by the color of each colored node ({@code l <node> <color>}),
+     * colors numbered from 1 in order of first appearance.
+     *
+     * The output stream is flushed, not closed.
+     *
+     * @param <C> the Color type
+     * @param graph the colored graph
+     * @param coloredNodes the coloring of the graph
+     * @param output the stream where writing the coloring
+     * @throws IOException if the coloring can not be written
+     */
+    public static <C> void write( Graph<Integer> graph, ColoredNodes<Integer, C> coloredNodes, OutputStream output )
+        throws IOException
+    {
+        graph = checkNotNull( graph, "Impossible to write the coloring of a null graph" );
+        coloredNodes = checkNotNull( coloredNodes, "Impossible to write a null coloring" );
+        output = checkNotNull( output, "Impossible to write to a null stream" );
+
+        final Writer writer = new BufferedWriter( new OutputStreamWriter( output, "US-ASCII" ), 1 << 16 );
+        final StringBuilder line = new StringBuilder();
+        line.append( "c coloring of " ).append( graph.nodes().size() ).append( " nodes\n" );
+        line.append( "s col " ).append( coloredNodes.getRequiredColors() ).append( '\n' );
+        writer.append( line );
+
+        final Map<C, Integer> colorNumbers = new HashMap<C, Integer>();
+        for ( Integer node : graph.nodes() )
+        {
+            C color = coloredNodes.getColor( node );
+            if ( color == null )
+            {
+                continue;
+            }
+
+            Integer colorNumber = colorNumbers.get( color );
+            if ( colorNumber == null )
+            {
+                colorNumber = colorNumbers.size() + 1;
+                colorNumbers.put( color, colorNumber );
+            }
+
+            line.setLength( 0 );
+            line.append( "l " ).append( node.intValue() ).append( ' ' ).append( colorNumber.intValue() ).append( '\n' );
+            writer.append( line );
+        }
+        writer.flush();
+    }
+
+    /**
+     * Scans the edges of a DIMACS file across the mapped chunks, copied block by block
+     * so that every byte is not read through the buffer.
+     */
+    private static final class Parser
+    {
+
+        private static final int BLOCK_SIZE = 1 << 16;
+
+        private static final ByteBuffer EMPTY = ByteBuffer.allocate( 0 );
+
+        private final ByteBuffer[] chunks;
+
+        private int chunk = -1;
+
+        private ByteBuffer buffer = EMPTY;
+
+        private final byte[] block = new byte[BLOCK_SIZE];
+
+        private int blockPosition;
+
+        private int blockLimit;
+
+        private int last;
+
+        private long line = 1;
+
+        // the declared number of nodes, -1 until the problem line.
+
+        int nodes = -1;
+
+        // the endpoints of the last edge read, numbered from 1.
+
+        int source;
+
+        int target;
+
+        Parser( ByteBuffer[] chunks )
+        {
+            this.chunks = chunks;
+            for ( ByteBuffer chunkBuffer : chunks )
+            {
+                chunkBuffer.rewind();
+            }
+        }
+
+        /**
+         * Reads the next edge, skipping the problem line, the comments and the other descriptors.
+         *
+         * @return true if an edge has been read, false at the end of the file.
+         */
+        boolean nextEdge()
+            throws IOException
+        {
+            while ( true )
+            {
+                int c = skipBlanks();
+                if ( c == -1 )
+                {
+                    return false;
+                }
+                if ( c == '\n' )
+                {
+                    line++;
+                }
+                else if ( c == 'e' )
+                {
+                    if ( nodes == -1 )
+                    {
+                        throw malformed( "edge before the problem line" );
+                    }
+                    source = readNode();
+                    target = readNode();
+                    skipLine();
+                    return true;
+                }
+                else if ( c == 'p' )
+                {
+                    if ( nodes != -1 )
+                    {
+                        throw malformed( "duplicated problem line" );
+                    }
+                    // the format, usually 'edge' or 'col'
+                    skipBlanks();
+                    while ( last != -1 && last != '\n' && !isBlank( last ) )
+                    {
+                        read();
+                    }
+                    nodes = readNumber();
+                    // the declared edges are not trusted
+                    readNumber();
+                    skipLine();
+                }
+                else
+                {
+                    skipLine();
+                }
+            }
+        }
+
+        private int readNode()
+            throws IOException
+        {
+            final int node = readNumber();
+            if ( node < 1 || node > nodes )
+            {
+                throw malformed( format( "node %s out of [1, %s]", node, nodes ) );
+            }
+            return node;
+        }
+
+        private int readNumber()
+            throws IOException
+        {
+            int c = last == '\n' ? last : skipBlanks();
+            if ( c < '0' || c > '9' )
+            {
+                throw malformed( "number expected" );
+            }
+
+            long number = 0;
+            while ( c >= '0' && c <= '9' )
+            {
+                number = number * 10 + ( c - '0' );
+                if ( number > Integer.MAX_VALUE )
+                {
+                    throw malformed( "number too large" );
+                }
+                c = read();
+            }
+            return (int) number;
+        }
+
+        private int skipBlanks()
+        {
+            int c = read();
+            while ( isBlank( c ) )
+            {
+                c = read();
+            }
+            return c;
+        }
+
+        private void skipLine()
+        {
+            while ( last != '\n' && last != -1 )
+            {
+                read();
+            }
+            if ( last == '\n' )
+            {
+                line++;
+                // the next line starts from scratch
+                last = 0;
+            }
+        }
+
+        private int read()
+        {
+            if ( blockPosition == blockLimit && !fill() )
+            {
+                last = -1;
+                return last;
+            }
+            last = block[blockPosition++] & 0xFF;
+            return last;
+        }
+
+        private boolean fill()
+        {
+            while ( !buffer.hasRemaining() )
+            {
+                if ( chunk + 1 >= chunks.length )
+                {
+                    return false;
+                }
+                buffer = chunks[++chunk];
+            }
+            blockLimit = Math.min( BLOCK_SIZE, buffer.remaining() );
+            buffer.get( block, 0, blockLimit );
+            blockPosition = 0;
+            return true;
+        }
+
+        private static boolean isBlank( int c )
+        {
+            return c == ' ' || c == '\t' || c == '\r';
+        }
+
+        private IOException malformed( String reason )
+        {
+            return new IOException( format( "Malformed DIMACS file at line %s: %s", line, reason ) );
+        }
+
+    }
+
+}
@@ -0,0 +1,195 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Arrays.binarySearch;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.google.common.collect.ContiguousSet;
+import com.google.common.collect.DiscreteDomain;
+import com.google.common.collect.Range;
+import com.google.common.graph.AbstractGraph;
+import com.google.common.graph.ElementOrder;
+
+/**
+ * Immutable undirected graph loaded by {@link Dimacs#read(java.io.File)}, whose nodes are numbered from 1.
+ *
+ * The graph is stored in the same int-indexed form the algorithms work on, so coloring it does not
+ * copy it again; the {@link com.google.common.graph.Graph} methods are views over that form.
+ */
+public final class DimacsGraph
+    extends AbstractGraph<Integer>
+{
+
+    private final IndexedGraph<Integer> graph;
+
+    private final int[] offsets;
+
+    private final int[] neighbors;
+
+    /**
+     * This class can be instantiated only inside the package
+     *
+     * @param offsets the adjacency offsets, {@code size + 1} elements
+     * @param neighbors the sorted adjacency lists of all nodes, concatenated
+     */
+    DimacsGraph( int[] offsets, int[] neighbors )
+    {
+        this.graph = IndexedGraph.numbered( offsets, neighbors );
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+    }
+
+    IndexedGraph<Integer> getIndexedGraph()
+    {
+        return graph;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Integer> nodes()
+    {
+        return ContiguousSet.create( Range.closedOpen( 1, offsets.length ), DiscreteDomain.integers() );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isDirected()
+    {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean allowsSelfLoops()
+    {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ElementOrder<Integer> nodeOrder()
+    {
+        return ElementOrder.natural();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Integer> adjacentNodes( Integer node )
+    {
+        node = checkNotNull( node, "Node must be not null" );
+        final int index = graph.getIndex( node );
+        checkArgument( index != -1, "Node %s is not an element of this graph.", node );
+        return new AdjacentNodes( offsets[index], offsets[index + 1] );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Integer> predecessors( Integer node )
+    {
+        return adjacentNodes( node );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Integer> successors( Integer node )
+    {
+        return adjacentNodes( node );
+    }
+
+    /**
+     * The neighbors of a node, in the range {@code [from, to)} of the adjacency lists.
+     */
+    private final class AdjacentNodes
+        extends AbstractSet<Integer>
+    {
+
+        private final int from;
+
+        private final int to;
+
+        AdjacentNodes( int from, int to )
+        {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public int size()
+        {
+            return to - from;
+        }
+
+        @Override
+        public boolean contains( Object node )
+        {
+            return node instanceof Integer && binarySearch( neighbors, from, to, (Integer) node - 1 ) >= 0;
+        }
+
+        @Override
+        public Iterator<Integer> iterator()
+        {
+            return new Iterator<Integer>()
+            {
+
+                private int position = from;
+
+                public boolean hasNext()
+                {
+                    return position < to;
+                }
+
+                public Integer next()
+                {
+                    if ( position == to )
+                    {
+                        throw new NoSuchElementException();
+                    }
+                    return neighbors[position++] + 1;
+                }
+
+                public void remove()
+                {
+                    throw new UnsupportedOperationException();
+                }
+
+            };
+        }
+
+    }
+
+}
@@ -0,0 +1,53 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+/**
+ * Exact graph m-coloring search over an {@link IndexedGraph}, coloring in place the uncolored nodes.
+ */
+interface ExactSearch
+{
+
+    /**
+     * Sets the budget that, once expired, interrupts this search.
+     *
+     * @param budget the search budget
+     */
+    void setBudget( Budget budget );
+
+    /**
+     * Sets the counters of the work done by this search.
+     *
+     * @param counters the counters of the run
+     */
+    void setCounters( SearchCounters counters );
+
+    /**
+     * Searches a coloring for all the uncolored nodes.
+     *
+     * @return true if there is a valid coloring for the graph, false otherwise.
+     */
+    boolean solve();
+
+    /**
+     * Tells whether the last {@link #solve()} gave up before finding a coloring or proving there is none.
+     *
+     * @return true if the search has been interrupted, false otherwise.
+     */
+    boolean isInterrupted();
+
+}
@@ -0,0 +1,183 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import static java.util.Arrays.copyOf;
+
+/**
+ * Greedy heuristic for large cliques over an {@link IndexedGraph}: the size of any clique
+ * is a lower bound for the number of colors of the graph.
+ *
+ * Starting from each node, in decreasing degree order, the clique is grown adding at every step
+ * the highest degree neighbor adjacent to all its members. A node of core number {@code c}, that is
+ * the largest {@code c} such that it belongs to a subgraph where all the degrees are at least
+ * {@code c}, can not be part of cliques with more than {@code c + 1} nodes: nodes that can not
+ * improve the largest clique found so far are neither used as starting point nor as members.
+ */
+final class GreedyClique
+{
+
+    private GreedyClique()
+    {
+        // do nothing
+    }
+
+    /**
+     * Finds a large clique of the input graph.
+     *
+     * @param graph the graph where looking for the clique
+     * @return the indexes of the clique nodes, in the order they have been added.
+     */
+    public static int[] find( IndexedGraph<?> graph )
+    {
+        return find( graph, Integer.MAX_VALUE );
+    }
+
+    /**
+     * Finds a large clique of the input graph, stopping as soon as the clique is large enough.
+     *
+     * @param graph the graph where looking for the clique
+     * @param enough the clique size that stops the search
+     * @return the indexes of the clique nodes, in the order they have been added.
+     */
+    public static int[] find( IndexedGraph<?> graph, int enough )
+    {
+        final int size = graph.size();
+        final int[] offsets = graph.getOffsets();
+        final int[] neighbors = graph.getNeighbors();
+
+        int[] best = new int[0];
+        if ( size == 0 )
+        {
+            return best;
+        }
+
+        final int[] order = NodeOrdering.LARGEST_FIRST.order( graph );
+        final int[] cores = coreNumbers( graph );
+
+        // adjacents[node] counts the clique members adjacent to 'node', valid while stamps[node] == start
+        final int[] adjacents = new int[size];
+        final int[] stamps = new int[size];
+        final int[] candidates = new int[graph.getMaxDegree()];
+        final int[] clique = new int[graph.getMaxDegree() + 1];
+
+        for ( int start : order )
+        {
+            if ( graph.degree( start ) < best.length )
+            {
+                // nodes are sorted by decreasing degree: no other start can do better
+                break;
+            }
+            if ( cores[start] < best.length )
+            {
+                continue;
+            }
+
+            int cliqueSize = 0;
+            clique[cliqueSize++] = start;
+
+            int candidatesCount = 0;
+            for ( int i = offsets[start]; i < offsets[start + 1]; i++ )
+            {
+                int adjacent = neighbors[i];
+                if ( adjacent != start && stamps[adjacent] != start + 1 && cores[adjacent] >= best.length )
+                {
+                    stamps[adjacent] = start + 1;
+                    adjacents[adjacent] = 1;
+                    candidates[candidatesCount++] = adjacent;
+                }
+            }
+
+            while ( true )
+            {
+                // the highest degree candidate adjacent to all the clique members
+                int next = -1;
+                for ( int i = 0; i < candidatesCount; i++ )
+                {
+                    int candidate = candidates[i];
+                    if ( adjacents[candidate] == cliqueSize
+                        && ( next == -1 || graph.degree( candidate ) > graph.degree( next ) ) )
+                    {
+                        next = candidate;
+                    }
+                }
+
+                if ( next == -1 )
+                {
+                    break;
+                }
+
+                clique[cliqueSize++] = next;
+                adjacents[next] = -1;
+                for ( int i = offsets[next]; i < offsets[next + 1]; i++ )
+                {
+                    int adjacent = neighbors[i];
+                    if ( stamps[adjacent] == start + 1 && adjacents[adjacent] >= 0 )
+                    {
+                        adjacents[adjacent]++;
+                    }
+                }
+            }
+
+            if ( cliqueSize > best.length )
+            {
+                best = copyOf( clique, cliqueSize );
+                if ( best.length >= enough )
+                {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Computes the core number of each node, peeling the node with the lowest remaining degree.
+     *
+     * @return the core number of each node.
+     */
+    private static int[] coreNumbers( IndexedGraph<?> graph )
+    {
+        final int[] offsets = graph.getOffsets();
+        final int[] neighbors = graph.getNeighbors();
+
+        final UncoloredOrderedNodes queue = new UncoloredOrderedNodes( graph.size(), graph.getMaxDegree() );
+        for ( int node = 0; node < graph.size(); node++ )
+        {
+            queue.add( node, graph.degree( node ) );
+        }
+
+        final int[] cores = new int[graph.size()];
+        int core = 0;
+        while ( !queue.isEmpty() )
+        {
+            int node = queue.peekMin();
+            core = Math.max( core, queue.getKey( node ) );
+            queue.remove( node );
+            cores[node] = core;
+            for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+            {
+                if ( queue.contains( neighbors[i] ) )
+                {
+                    queue.decrementKey( neighbors[i] );
+                }
+            }
+        }
+        return cores;
+    }
+
+}
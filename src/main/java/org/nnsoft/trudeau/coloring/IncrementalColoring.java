@@ -0,0 +1,76 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+import java.util.Set;
+
+/**
+ * Keeps a graph coloring valid while the graph changes, repairing only the neighborhood of each change.
+ *
+ * The session works on its own copy of the graph topology, so changes have to be notified through
+ * this interface; the maintained {@link ColoredNodes} is updated in place.
+ *
+ * @param <N> the Graph nodes type
+ * @param <C> the Color type
+ */
+public interface IncrementalColoring<N, C>
+{
+
+    /**
+     * Adds a node, with no edges, to the graph and colors it.
+     *
+     * @param node the node to be added.
+     * @return the nodes whose color has changed.
+     */
+    Set<N> addNode( N node )
+        throws NotEnoughColorsException;
+
+    /**
+     * Removes a node, and all its edges, from the graph and drops its color.
+     *
+     * @param node the node to be removed.
+     * @return the nodes whose color has changed, always empty.
+     */
+    Set<N> removeNode( N node );
+
+    /**
+     * Connects two nodes, adding them to the graph if needed, recoloring their neighborhood when they
+     * share the same color. When no local recoloring is found the edge is not added.
+     *
+     * @param nodeU one of the edge nodes.
+     * @param nodeV the other edge node.
+     * @return the nodes whose color has changed.
+     */
+    Set<N> addEdge( N nodeU, N nodeV )
+        throws NotEnoughColorsException;
+
+    /**
+     * Disconnects two nodes.
+     *
+     * @param nodeU one of the edge nodes.
+     * @param nodeV the other edge node.
+     * @return the nodes whose color has changed, always empty.
+     */
+    Set<N> removeEdge( N nodeU, N nodeV );
+
+    /**
+     * Returns the maintained coloring.
+     *
+     * @return The color - vertex association.
+     */
+    ColoredNodes<N, C> getColoredNodes();
+
+}
@@ -0,0 +1,328 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ContiguousSet;
+import com.google.common.collect.DiscreteDomain;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Range;
+import com.google.common.graph.Graph;
+
+/**
+ * Immutable, int-indexed snapshot of a {@link Graph}.
+ *
+ * Nodes are mapped to dense indexes in {@code [0, size())} and the adjacency is stored
+ * in compressed sparse row format: the neighbors of the node {@code i} are the elements
+ * of {@link #getNeighbors()} in the range {@code [offsets[i], offsets[i + 1])}.
+ *
+ * @param <N> the Graph nodes type
+ */
+final class IndexedGraph<N>
+{
+
+    private final List<N> nodes;
+
+    // built on the first lookup for subgraphs, that are rarely looked up
+
+    private volatile Map<N, Integer> indexes;
+
+    private final int[] offsets;
+
+    private final int[] neighbors;
+
+    /**
+     * Compiles the input graph in its int-indexed representation.
+     *
+     * @param <N> the Graph nodes type
+     * @param graph the graph to compile
+     * @return the int-indexed snapshot of the input graph
+     */
+    @SuppressWarnings( "unchecked" ) // a DimacsGraph is a Graph<Integer>
+    public static <N> IndexedGraph<N> compile( Graph<N> graph )
+    {
+        graph = checkNotNull( graph, "Impossible to compile a null graph" );
+
+        if ( graph instanceof DimacsGraph )
+        {
+            // already compiled when loaded
+            return (IndexedGraph<N>) ( (DimacsGraph) graph ).getIndexedGraph();
+        }
+
+        final Set<N> graphNodes = graph.nodes();
+        final int size = graphNodes.size();
+
+        final List<N> nodes = new ArrayList<N>( graphNodes );
+        final Map<N, Integer> indexes = index( nodes );
+
+        final int[] offsets = new int[size + 1];
+        for ( int i = 0; i < size; i++ )
+        {
+            offsets[i + 1] = offsets[i] + graph.adjacentNodes( nodes.get( i ) ).size();
+        }
+
+        final int[] neighbors = new int[offsets[size]];
+        for ( int i = 0; i < size; i++ )
+        {
+            int position = offsets[i];
+            for ( N adjacent : graph.adjacentNodes( nodes.get( i ) ) )
+            {
+                neighbors[position++] = indexes.get( adjacent );
+            }
+        }
+
+        return new IndexedGraph<N>( nodes, indexes, offsets, neighbors );
+    }
+
+    /**
+     * Wraps the input adjacency, in compressed sparse row format, of the nodes numbered from 1,
+     * so that the node {@code i} has index {@code i - 1}.
+     *
+     * @param offsets the adjacency offsets, {@code size + 1} elements
+     * @param neighbors the adjacency lists of all nodes, concatenated
+     * @return the int-indexed graph over the input adjacency
+     */
+    static IndexedGraph<Integer> numbered( int[] offsets, int[] neighbors )
+    {
+        final ContiguousSet<Integer> nodes =
+            ContiguousSet.create( Range.closedOpen( 1, offsets.length ), DiscreteDomain.integers() );
+        final Map<Integer, Integer> indexes = Maps.asMap( nodes, new Function<Integer, Integer>()
+        {
+
+            public Integer apply( Integer node )
+            {
+                return node - 1;
+            }
+
+        } );
+        return new IndexedGraph<Integer>( nodes.asList(), indexes, offsets, neighbors );
+    }
+
+    private static <N> Map<N, Integer> index( List<N> nodes )
+    {
+        final Map<N, Integer> indexes = new HashMap<N, Integer>( capacity( nodes.size() ) );
+        for ( int index = 0; index < nodes.size(); index++ )
+        {
+            indexes.put( nodes.get( index ), index );
+        }
+        return indexes;
+    }
+
+    private static int capacity( int expectedSize )
+    {
+        return expectedSize < 3 ? expectedSize + 1 : (int) ( expectedSize / 0.75F + 1.0F );
+    }
+
+    private IndexedGraph( List<N> nodes, Map<N, Integer> indexes, int[] offsets, int[] neighbors )
+    {
+        this.nodes = nodes;
+        this.indexes = indexes;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+    }
+
+    /**
+     * Returns the number of nodes in the graph.
+     *
+     * @return the number of nodes in the graph.
+     */
+    public int size()
+    {
+        return nodes.size();
+    }
+
+    /**
+     * Returns the node mapped to the input index.
+     *
+     * @param index the node index
+     * @return the node mapped to the input index.
+     */
+    public N getNode( int index )
+    {
+        return nodes.get( index );
+    }
+
+    /**
+     * Returns the index of the input node.
+     *
+     * @param node the node for which getting the index
+     * @return the index of the input node, -1 if the node is not part of the graph.
+     */
+    public int getIndex( N node )
+    {
+        Map<N, Integer> nodeIndexes = indexes;
+        if ( nodeIndexes == null )
+        {
+            // racing threads build equal maps
+            nodeIndexes = index( nodes );
+            indexes = nodeIndexes;
+        }
+        Integer index = nodeIndexes.get( node );
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the degree of the node mapped to the input index.
+     *
+     * @param index the node index
+     * @return the degree of the node mapped to the input index.
+     */
+    public int degree( int index )
+    {
+        return offsets[index + 1] - offsets[index];
+    }
+
+    /**
+     * Returns the maximum degree of the graph nodes.
+     *
+     * @return the maximum degree of the graph nodes, 0 if the graph is empty.
+     */
+    public int getMaxDegree()
+    {
+        int maxDegree = 0;
+        for ( int node = 0; node < size(); node++ )
+        {
+            maxDegree = Math.max( maxDegree, degree( node ) );
+        }
+        return maxDegree;
+    }
+
+    /**
+     * Tells whether some node is adjacent to itself, so that the graph can not be colored.
+     *
+     * @return true if the graph contains self loops, false otherwise.
+     */
+    public boolean hasSelfLoops()
+    {
+        for ( int node = 0; node < size(); node++ )
+        {
+            for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+            {
+                if ( neighbors[i] == node )
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates the subgraph induced by the input nodes, indexed in the given order.
+     *
+     * The subgraph shares the nodes with this graph; their local indexes are looked up in a map
+     * built on the first {@link #getIndex(Object)} call.
+     *
+     * @param subgraphNodes the indexes, in this graph, of the subgraph nodes
+     * @param localIndexes a scratch array of {@code size()} elements, all set to -1, left unchanged on return
+     * @return the induced subgraph
+     */
+    public IndexedGraph<N> subgraph( final int[] subgraphNodes, int[] localIndexes )
+    {
+        for ( int i = 0; i < subgraphNodes.length; i++ )
+        {
+            localIndexes[subgraphNodes[i]] = i;
+        }
+
+        final int[] subgraphOffsets = new int[subgraphNodes.length + 1];
+        for ( int i = 0; i < subgraphNodes.length; i++ )
+        {
+            int node = subgraphNodes[i];
+            int degree = 0;
+            for ( int j = offsets[node]; j < offsets[node + 1]; j++ )
+            {
+                if ( localIndexes[neighbors[j]] != -1 )
+                {
+                    degree++;
+                }
+            }
+            subgraphOffsets[i + 1] = subgraphOffsets[i] + degree;
+        }
+
+        final int[] subgraphNeighbors = new int[subgraphOffsets[subgraphNodes.length]];
+        for ( int i = 0; i < subgraphNodes.length; i++ )
+        {
+            int node = subgraphNodes[i];
+            int position = subgraphOffsets[i];
+            for ( int j = offsets[node]; j < offsets[node + 1]; j++ )
+            {
+                int local = localIndexes[neighbors[j]];
+                if ( local != -1 )
+                {
+                    subgraphNeighbors[position++] = local;
+                }
+            }
+        }
+
+        for ( int node : subgraphNodes )
+        {
+            localIndexes[node] = -1;
+        }
+
+        final List<N> nodesView = new AbstractList<N>()
+        {
+
+            @Override
+            public N get( int index )
+            {
+                return nodes.get( subgraphNodes[index] );
+            }
+
+            @Override
+            public int size()
+            {
+                return subgraphNodes.length;
+            }
+
+        };
+        return new IndexedGraph<N>( nodesView, null, subgraphOffsets, subgraphNeighbors );
+    }
+
+    /**
+     * Returns the adjacency offsets, indexed by node; it contains {@code size() + 1} elements.
+     *
+     * The returned array is shared and must not be modified.
+     *
+     * @return the adjacency offsets.
+     */
+    int[] getOffsets()
+    {
+        return offsets;
+    }
+
+    /**
+     * Returns the adjacency lists of all nodes, concatenated.
+     *
+     * The returned array is shared and must not be modified.
+     *
+     * @return the adjacency lists of all nodes.
+     */
+    int[] getNeighbors()
+    {
+        return neighbors;
+    }
+
+}
@@ -0,0 +1,347 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.fill;
+
+/**
+ * The core of an m-coloring problem over an {@link IndexedGraph}, left once the nodes that can always
+ * be colored afterwards have been peeled off.
+ *
+ * An uncolored node with less than m constraining neighbors always finds a free color, whatever the
+ * colors of its neighbors; an uncolored node whose constraining neighbors are all neighbors of
+ * another, non adjacent, node can always take the color of that node. Both are removed, repeatedly,
+ * since every removal lowers the degree of the neighbors; predefined nodes are never removed, and
+ * neighbors predefined with a color out of the palette do not constrain.
+ *
+ * Once the core has been colored, the peeled nodes are colored greedily in reverse removal order:
+ * the neighbors colored at that point are the ones that were in the graph when the node was removed.
+ */
+final class Kernel
+{
+
+    private final IndexedGraph<?> graph;
+
+    private final int colorsCount;
+
+    private final int[] peeled;
+
+    private final int[] coreNodes;
+
+    private final IndexedGraph<?> core;
+
+    private final int[] coreColors;
+
+    /**
+     * Peels the input problem down to its core.
+     *
+     * @param graph the graph to color
+     * @param colorsCount the number of colors that can be assigned
+     * @param nodeColors the color index of each node, -1 for the nodes to be colored
+     * @return the core of the input problem
+     */
+    public static Kernel reduce( IndexedGraph<?> graph, int colorsCount, int[] nodeColors )
+    {
+        if ( graph.hasSelfLoops() )
+        {
+            // left to the search, that rejects them
+            return new Kernel( graph, graph, colorsCount, new int[0], null, nodeColors );
+        }
+
+        final Peeling peeling = new Peeling( graph, colorsCount, nodeColors );
+        peeling.peelLowDegrees();
+
+        // every removal may lower other degrees or break other dominations, until nothing changes
+        boolean changed = true;
+        while ( changed )
+        {
+            changed = false;
+            for ( int node = 0; node < graph.size(); node++ )
+            {
+                if ( peeling.isDominated( node ) )
+                {
+                    peeling.remove( node );
+                    peeling.peelLowDegrees();
+                    changed = true;
+                }
+            }
+        }
+
+        if ( peeling.peeledSize == 0 )
+        {
+            return new Kernel( graph, graph, colorsCount, new int[0], null, nodeColors );
+        }
+
+        final int[] coreNodes = new int[graph.size() - peeling.peeledSize];
+        int coreSize = 0;
+        for ( int node = 0; node < graph.size(); node++ )
+        {
+            if ( !peeling.removed[node] )
+            {
+                coreNodes[coreSize++] = node;
+            }
+        }
+
+        final int[] localIndexes = new int[graph.size()];
+        fill( localIndexes, -1 );
+        final int[] coreColors = new int[coreSize];
+        for ( int i = 0; i < coreSize; i++ )
+        {
+            coreColors[i] = nodeColors[coreNodes[i]];
+        }
+        return new Kernel( graph, graph.subgraph( coreNodes, localIndexes ), colorsCount,
+                           copyOf( peeling.peeled, peeling.peeledSize ), coreNodes, coreColors );
+    }
+
+    private Kernel( IndexedGraph<?> graph, IndexedGraph<?> core, int colorsCount, int[] peeled, int[] coreNodes,
+                    int[] coreColors )
+    {
+        this.graph = graph;
+        this.core = core;
+        this.colorsCount = colorsCount;
+        this.peeled = peeled;
+        this.coreNodes = coreNodes;
+        this.coreColors = coreColors;
+    }
+
+    /**
+     * Returns the graph induced by the nodes left, the whole graph if no node has been peeled.
+     *
+     * @return the core graph
+     */
+    public IndexedGraph<?> getCore()
+    {
+        return core;
+    }
+
+    /**
+     * Returns the color index of each core node, -1 for the nodes to be colored; once colored,
+     * {@link #restore(int[])} brings the colors back to the whole graph.
+     *
+     * @return the color index of each core node
+     */
+    public int[] getCoreColors()
+    {
+        return coreColors;
+    }
+
+    /**
+     * Returns the number of nodes peeled off the graph.
+     *
+     * @return the number of nodes peeled off the graph
+     */
+    public int getPeeledNodes()
+    {
+        return peeled.length;
+    }
+
+    /**
+     * Colors the whole graph from the colored core: the core colors are copied back
+     * and the peeled nodes are colored in reverse removal order.
+     *
+     * @param nodeColors the color index of each node of the whole graph, filled in on return
+     */
+    public void restore( int[] nodeColors )
+    {
+        if ( coreNodes == null )
+        {
+            return;
+        }
+
+        for ( int i = 0; i < coreNodes.length; i++ )
+        {
+            nodeColors[coreNodes[i]] = coreColors[i];
+        }
+
+        final int[] offsets = graph.getOffsets();
+        final int[] neighbors = graph.getNeighbors();
+        final int[] forbidden = new int[colorsCount];
+        fill( forbidden, -1 );
+        for ( int i = peeled.length - 1; i >= 0; i-- )
+        {
+            int node = peeled[i];
+            for ( int j = offsets[node]; j < offsets[node + 1]; j++ )
+            {
+                int adjacentColor = nodeColors[neighbors[j]];
+                if ( adjacentColor != -1 && adjacentColor < colorsCount )
+                {
+                    forbidden[adjacentColor] = node;
+                }
+            }
+
+            int color = 0;
+            while ( forbidden[color] == node )
+            {
+                color++;
+            }
+            nodeColors[node] = color;
+        }
+    }
+
+    /**
+     * The graph being peeled: the removed nodes and the degree of the others, counting only
+     * the constraining neighbors still in the graph.
+     */
+    private static final class Peeling
+    {
+
+        private final int[] offsets;
+
+        private final int[] neighbors;
+
+        private final int colorsCount;
+
+        private final int[] nodeColors;
+
+        private final boolean[] constraining;
+
+        private final int[] degrees;
+
+        private final boolean[] removed;
+
+        private final int[] peeled;
+
+        private int peeledSize;
+
+        // uncolored nodes whose degree dropped below the colors, to be removed.
+
+        private final int[] stack;
+
+        private int stackSize;
+
+        private final int[] marks;
+
+        private int stamp;
+
+        Peeling( IndexedGraph<?> graph, int colorsCount, int[] nodeColors )
+        {
+            this.offsets = graph.getOffsets();
+            this.neighbors = graph.getNeighbors();
+            this.colorsCount = colorsCount;
+            this.nodeColors = nodeColors;
+
+            final int size = graph.size();
+            constraining = new boolean[size];
+            degrees = new int[size];
+            removed = new boolean[size];
+            peeled = new int[size];
+            stack = new int[size];
+            marks = new int[size];
+
+            // only the neighbors that can take a color of the palette constrain a node
+            for ( int node = 0; node < size; node++ )
+            {
+                constraining[node] = nodeColors[node] < colorsCount;
+            }
+            for ( int node = 0; node < size; node++ )
+            {
+                for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+                {
+                    if ( constraining[neighbors[i]] )
+                    {
+                        degrees[node]++;
+                    }
+                }
+                if ( nodeColors[node] == -1 && degrees[node] < colorsCount )
+                {
+                    stack[stackSize++] = node;
+                }
+            }
+        }
+
+        void peelLowDegrees()
+        {
+            while ( stackSize > 0 )
+            {
+                remove( stack[--stackSize] );
+            }
+        }
+
+        void remove( int node )
+        {
+            removed[node] = true;
+            peeled[peeledSize++] = node;
+            for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+            {
+                int adjacent = neighbors[i];
+                // the degree drops below the colors exactly once
+                if ( !removed[adjacent] && degrees[adjacent]-- == colorsCount && nodeColors[adjacent] == -1 )
+                {
+                    stack[stackSize++] = adjacent;
+                }
+            }
+        }
+
+        /**
+         * Tells whether the uncolored node has a non adjacent node whose neighbors include all its own.
+         */
+        boolean isDominated( int node )
+        {
+            if ( nodeColors[node] != -1 || removed[node] )
+            {
+                return false;
+            }
+
+            // the dominating node is a neighbor of every neighbor, the one with the fewest neighbors is scanned
+            stamp++;
+            int pivot = -1;
+            for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+            {
+                int adjacent = neighbors[i];
+                if ( !removed[adjacent] && constraining[adjacent] )
+                {
+                    marks[adjacent] = stamp;
+                    if ( pivot == -1 || degrees[adjacent] < degrees[pivot] )
+                    {
+                        pivot = adjacent;
+                    }
+                }
+            }
+            if ( pivot == -1 )
+            {
+                return false;
+            }
+
+            for ( int i = offsets[pivot]; i < offsets[pivot + 1]; i++ )
+            {
+                int candidate = neighbors[i];
+                if ( candidate == node || removed[candidate] || !constraining[candidate]
+                    || marks[candidate] == stamp || degrees[candidate] < degrees[node] )
+                {
+                    continue;
+                }
+
+                int shared = 0;
+                for ( int j = offsets[candidate]; j < offsets[candidate + 1]; j++ )
+                {
+                    if ( marks[neighbors[j]] == stamp )
+                    {
+                        shared++;
+                    }
+                }
+                if ( shared == degrees[node] )
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+    }
+
+}
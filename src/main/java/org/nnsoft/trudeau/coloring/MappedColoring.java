@@ -0,0 +1,153 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import com.google.common.graph.Graph;
+
+/**
+ * A coloring stored by {@link BinaryColorings}, queried straight from the mapped file: the color ids
+ * are unpacked on each query, nothing is copied in a map.
+ *
+ * Nodes are identified by their index: the graph nodes in the graph iteration order, followed by the
+ * nodes colored outside the graph, in insertion order.
+ *
+ * @param <C> the Color type.
+ */
+public final class MappedColoring<C>
+{
+
+    private final ByteBuffer packedColors;
+
+    private final int size;
+
+    private final int bitsPerColor;
+
+    private final List<C> palette;
+
+    /**
+     * This class can be instantiated only inside the package
+     *
+     * @param packedColors the color ids, incremented by one so that 0 is uncolored, packed in longs
+     * @param size the number of nodes
+     * @param bitsPerColor the bits of each packed color id
+     * @param palette the colors, indexed by color id
+     */
+    MappedColoring( ByteBuffer packedColors, int size, int bitsPerColor, List<C> palette )
+    {
+        this.packedColors = packedColors;
+        this.size = size;
+        this.bitsPerColor = bitsPerColor;
+        this.palette = palette;
+    }
+
+    /**
+     * Returns the number of stored nodes.
+     *
+     * @return the number of stored nodes.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the colors used by the stored coloring, indexed by color id.
+     *
+     * @return the colors used by the stored coloring.
+     */
+    public List<C> getPalette()
+    {
+        return palette;
+    }
+
+    /**
+     * Returns the number of required colors for coloring the Graph.
+     *
+     * @return the number of required colors for coloring the Graph.
+     */
+    public int getRequiredColors()
+    {
+        return palette.size();
+    }
+
+    /**
+     * Returns the color of the node with the input index.
+     *
+     * @param nodeIndex the node index
+     * @return the color of the node, null if the node is not colored.
+     */
+    public C getColor( int nodeIndex )
+    {
+        checkElementIndex( nodeIndex, size, "Node index" );
+        final int colorId = getColorId( nodeIndex );
+        return colorId == -1 ? null : palette.get( colorId );
+    }
+
+    /**
+     * Copies the stored coloring in a {@link ColoredNodes} of the input graph, that must be the stored
+     * graph: its nodes are matched by index, in the graph iteration order.
+     *
+     * The nodes colored outside the graph are not copied, since their identities are not stored: their
+     * colors can still be read by index, after the graph nodes, with {@link #getColor(int)}.
+     *
+     * @param <N> the Graph nodes type
+     * @param graph the stored graph
+     * @return the coloring of the input graph.
+     */
+    public <N> ColoredNodes<N, C> toColoredNodes( Graph<N> graph )
+    {
+        graph = checkNotNull( graph, "Impossible to color a null graph" );
+        checkArgument( graph.nodes().size() <= size, "The graph has %s nodes, the coloring only %s",
+                       graph.nodes().size(), size );
+
+        final int[] nodeColors = new int[graph.nodes().size()];
+        for ( int nodeIndex = 0; nodeIndex < nodeColors.length; nodeIndex++ )
+        {
+            nodeColors[nodeIndex] = getColorId( nodeIndex );
+        }
+        return new ColoredNodes<N, C>( IndexedGraph.compile( graph ), palette, nodeColors );
+    }
+
+    /**
+     * Unpacks the color id of the node with the input index, that may span two longs.
+     */
+    private int getColorId( int nodeIndex )
+    {
+        if ( bitsPerColor == 0 )
+        {
+            return -1;
+        }
+
+        final long bitOffset = (long) nodeIndex * bitsPerColor;
+        final int word = (int) ( bitOffset >>> 6 );
+        final int shift = (int) ( bitOffset & 63 );
+        long value = packedColors.getLong( word << 3 ) >>> shift;
+        if ( shift + bitsPerColor > 64 )
+        {
+            value |= packedColors.getLong( ( word + 1 ) << 3 ) << ( 64 - shift );
+        }
+        return (int) ( value & ( ( 1L << bitsPerColor ) - 1 ) ) - 1;
+    }
+
+}
@@ -0,0 +1,228 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import static java.util.Arrays.fill;
+
+/**
+ * Searches the coloring with the fewest colors of an {@link IndexedGraph}.
+ *
+ * DSatur gives the first upper bound and a greedy clique the lower bound; the upper bound is then
+ * tightened one color at a time. Every step first tries to repair the best coloring so far,
+ * recoloring only the nodes of its highest color and their neighbors within a bounded number of
+ * assignments, and falls back to the exact search only when the repair gives up. The exact search
+ * can run at every step, but it is hinted with the best coloring so far, so it first tries to keep
+ * each node in its color class and finds a close coloring with little backtracking; the first exact
+ * search that fails proves the best coloring optimal and ends the search. The clique lower bound is
+ * computed once and kept by all the steps.
+ *
+ * Once the budget expires the search stops, keeping the best coloring found so far.
+ */
+final class MinimumColoringSearch
+{
+
+    private static final int REPAIR_ASSIGNMENTS_PER_NODE = 16;
+
+    private final IndexedGraph<?> graph;
+
+    private final int maxColors;
+
+    private final Budget budget;
+
+    private boolean optimal;
+
+    private boolean interrupted;
+
+    private SearchCounters counters = new SearchCounters();
+
+    /**
+     * Creates a new search over the input graph.
+     *
+     * @param graph the graph to color
+     * @param maxColors the maximum number of colors that can be assigned
+     * @param budget the budget that, once expired, interrupts the search
+     */
+    public MinimumColoringSearch( IndexedGraph<?> graph, int maxColors, Budget budget )
+    {
+        this.graph = graph;
+        this.maxColors = maxColors;
+        this.budget = budget;
+    }
+
+    /**
+     * Sets the counters of the work done by this search.
+     *
+     * @param counters the counters of the run
+     */
+    public void setCounters( SearchCounters counters )
+    {
+        this.counters = counters;
+    }
+
+    /**
+     * Colors the input graph with the minimum number of colors, not greater than the maximum one.
+     *
+     * @return the color index of each node, null if the colors are not enough or
+     *         if the search has been interrupted before finding any coloring.
+     */
+    public int[] solve()
+    {
+        if ( graph.hasSelfLoops() )
+        {
+            return null;
+        }
+
+        int[] best = DSaturColoring.color( graph, Math.min( maxColors, graph.getMaxDegree() + 1 ), counters );
+        if ( best == null )
+        {
+            // the heuristic needs more colors than the maximum, only the exact search can tell
+            best = uncolored( graph.size() );
+            ComponentsSearch search = newSearch( maxColors, best );
+            if ( !search.solve() )
+            {
+                interrupted = search.isInterrupted();
+                return null;
+            }
+        }
+
+        final int lowerBound = GreedyClique.find( graph ).length;
+        int upperBound = countColors( best );
+        while ( upperBound > lowerBound )
+        {
+            if ( budget.isExpired() )
+            {
+                interrupted = true;
+                return best;
+            }
+
+            final int colorsCount = upperBound - 1;
+
+            int[] next = repair( graph, best, colorsCount, counters );
+            if ( next == null )
+            {
+                next = uncolored( graph.size() );
+                ComponentsSearch search = newSearch( colorsCount, next );
+                search.setHint( best );
+                if ( !search.solve() )
+                {
+                    if ( search.isInterrupted() )
+                    {
+                        interrupted = true;
+                        return best;
+                    }
+
+                    // no coloring with fewer colors: the best one is optimal
+                    break;
+                }
+            }
+
+            best = next;
+            upperBound = countColors( best );
+        }
+
+        optimal = true;
+        return best;
+    }
+
+    private ComponentsSearch newSearch( int colorsCount, int[] nodeColors )
+    {
+        final ComponentsSearch search = new ComponentsSearch( graph, colorsCount, nodeColors );
+        search.setBudget( budget );
+        search.setCounters( counters );
+        return search;
+    }
+
+    /**
+     * Tells whether the last {@link #solve()} proved its coloring optimal.
+     *
+     * @return true if the coloring uses the minimum number of colors, false otherwise.
+     */
+    public boolean isOptimal()
+    {
+        return optimal;
+    }
+
+    /**
+     * Tells whether the last {@link #solve()} has been interrupted by the budget expiration.
+     *
+     * @return true if the search has been interrupted, false otherwise.
+     */
+    public boolean isInterrupted()
+    {
+        return interrupted;
+    }
+
+    /**
+     * Tries to recolor with the given number of colors the nodes that use the colors beyond it,
+     * together with their neighbors, leaving the other nodes untouched.
+     *
+     * @return the repaired coloring, null if the repair gave up.
+     */
+    private static int[] repair( IndexedGraph<?> graph, int[] coloring, int colorsCount, SearchCounters counters )
+    {
+        final int[] offsets = graph.getOffsets();
+        final int[] neighbors = graph.getNeighbors();
+
+        final int[] nodeColors = coloring.clone();
+        int uncolored = 0;
+        for ( int node = 0; node < nodeColors.length; node++ )
+        {
+            if ( coloring[node] < colorsCount )
+            {
+                continue;
+            }
+
+            if ( nodeColors[node] != -1 )
+            {
+                nodeColors[node] = -1;
+                uncolored++;
+            }
+            for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+            {
+                int adjacent = neighbors[i];
+                if ( nodeColors[adjacent] != -1 )
+                {
+                    nodeColors[adjacent] = -1;
+                    uncolored++;
+                }
+            }
+        }
+
+        final BacktrackingSearch search = new BacktrackingSearch( graph, colorsCount, nodeColors );
+        search.setAssignmentsLimit( (long) uncolored * REPAIR_ASSIGNMENTS_PER_NODE );
+        search.setCounters( counters );
+        return search.solve() ? nodeColors : null;
+    }
+
+    private static int[] uncolored( int size )
+    {
+        final int[] nodeColors = new int[size];
+        fill( nodeColors, -1 );
+        return nodeColors;
+    }
+
+    private static int countColors( int[] nodeColors )
+    {
+        int colors = 0;
+        for ( int color : nodeColors )
+        {
+            colors = Math.max( colors, color + 1 );
+        }
+        return colors;
+    }
+
+}
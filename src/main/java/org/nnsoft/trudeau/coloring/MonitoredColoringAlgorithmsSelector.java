@@ -0,0 +1,375 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ColoringAlgorithmsSelector} decorator that reports every solve to the {@link SolveMonitor},
+ * whatever its outcome.
+ *
+ * @param <N> the Graph nodes type
+ * @param <C> the Color nodes type
+ */
+final class MonitoredColoringAlgorithmsSelector<N, C>
+    implements ColoringAlgorithmsSelector<N, C>
+{
+
+    private final IndexedGraph<N> graph;
+
+    private final int colorsCount;
+
+    private final ColoringAlgorithmsSelector<N, C> selector;
+
+    /**
+     * Creates a new selector that monitors the solves of the input one.
+     *
+     * @param graph the graph to color
+     * @param colorsCount the number of colors of the palette
+     * @param selector the monitored selector
+     */
+    public MonitoredColoringAlgorithmsSelector( IndexedGraph<N> graph, int colorsCount,
+                                                ColoringAlgorithmsSelector<N, C> selector )
+    {
+        this.graph = graph;
+        this.colorsCount = colorsCount;
+        this.selector = selector;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoringAlgorithmsSelector<N, C> withDeadline( long timeout, TimeUnit unit )
+    {
+        return new MonitoredColoringAlgorithmsSelector<N, C>( graph, colorsCount,
+                                                              selector.withDeadline( timeout, unit ) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoringAlgorithmsSelector<N, C> withCancellation( CancellationToken token )
+    {
+        return new MonitoredColoringAlgorithmsSelector<N, C>( graph, colorsCount,
+                                                              selector.withCancellation( token ) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoringAlgorithmsSelector<N, C> withStatistics( SolverStats stats )
+    {
+        return new MonitoredColoringAlgorithmsSelector<N, C>( graph, colorsCount,
+                                                              selector.withStatistics( stats ) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingGreedyAlgorithm()
+        throws NotEnoughColorsException
+    {
+        return monitor( ColoringAlgorithm.GREEDY, new Solver<N, C>()
+        {
+
+            public ColoredNodes<N, C> solve()
+                throws NotEnoughColorsException
+            {
+                return selector.applyingGreedyAlgorithm();
+            }
+
+        } );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingGreedyAlgorithm( final NodeOrdering ordering )
+        throws NotEnoughColorsException
+    {
+        return monitor( ColoringAlgorithm.GREEDY, new Solver<N, C>()
+        {
+
+            public ColoredNodes<N, C> solve()
+                throws NotEnoughColorsException
+            {
+                return selector.applyingGreedyAlgorithm( ordering );
+            }
+
+        } );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingParallelGreedyAlgorithm( final ForkJoinPool pool, final long seed )
+        throws NotEnoughColorsException
+    {
+        return monitor( ColoringAlgorithm.PARALLEL_GREEDY, new Solver<N, C>()
+        {
+
+            public ColoredNodes<N, C> solve()
+                throws NotEnoughColorsException
+            {
+                return selector.applyingParallelGreedyAlgorithm( pool, seed );
+            }
+
+        } );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingDSaturAlgorithm()
+        throws NotEnoughColorsException
+    {
+        return monitor( ColoringAlgorithm.DSATUR, new Solver<N, C>()
+        {
+
+            public ColoredNodes<N, C> solve()
+                throws NotEnoughColorsException
+            {
+                return selector.applyingDSaturAlgorithm();
+            }
+
+        } );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingRecursiveLargestFirstAlgorithm()
+        throws NotEnoughColorsException
+    {
+        return monitor( ColoringAlgorithm.RECURSIVE_LARGEST_FIRST, new Solver<N, C>()
+        {
+
+            public ColoredNodes<N, C> solve()
+                throws NotEnoughColorsException
+            {
+                return selector.applyingRecursiveLargestFirstAlgorithm();
+            }
+
+        } );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingTabuSearchAlgorithm( final long maxIterations, final long seed )
+        throws NotEnoughColorsException
+    {
+        return monitor( ColoringAlgorithm.TABU_SEARCH, new Solver<N, C>()
+        {
+
+            public ColoredNodes<N, C> solve()
+                throws NotEnoughColorsException
+            {
+                return selector.applyingTabuSearchAlgorithm( maxIterations, seed );
+            }
+
+        } );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingBackTrackingAlgorithm()
+        throws NotEnoughColorsException
+    {
+        return monitor( ColoringAlgorithm.BACKTRACKING, new Solver<N, C>()
+        {
+
+            public ColoredNodes<N, C> solve()
+                throws NotEnoughColorsException
+            {
+                return selector.applyingBackTrackingAlgorithm();
+            }
+
+        } );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingBackTrackingAlgorithm( final ColoredNodes<N, C> partialColoredNodes )
+        throws NotEnoughColorsException
+    {
+        return monitor( ColoringAlgorithm.BACKTRACKING, new Solver<N, C>()
+        {
+
+            public ColoredNodes<N, C> solve()
+                throws NotEnoughColorsException
+            {
+                return selector.applyingBackTrackingAlgorithm( partialColoredNodes );
+            }
+
+        } );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingBackJumpingAlgorithm()
+        throws NotEnoughColorsException
+    {
+        return monitor( ColoringAlgorithm.BACKJUMPING, new Solver<N, C>()
+        {
+
+            public ColoredNodes<N, C> solve()
+                throws NotEnoughColorsException
+            {
+                return selector.applyingBackJumpingAlgorithm();
+            }
+
+        } );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingBackJumpingAlgorithm( final ColoredNodes<N, C> partialColoredNodes )
+        throws NotEnoughColorsException
+    {
+        return monitor( ColoringAlgorithm.BACKJUMPING, new Solver<N, C>()
+        {
+
+            public ColoredNodes<N, C> solve()
+                throws NotEnoughColorsException
+            {
+                return selector.applyingBackJumpingAlgorithm( partialColoredNodes );
+            }
+
+        } );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingParallelBackTrackingAlgorithm( final ForkJoinPool pool )
+        throws NotEnoughColorsException
+    {
+        return monitor( ColoringAlgorithm.PARALLEL_BACKTRACKING, new Solver<N, C>()
+        {
+
+            public ColoredNodes<N, C> solve()
+                throws NotEnoughColorsException
+            {
+                return selector.applyingParallelBackTrackingAlgorithm( pool );
+            }
+
+        } );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingParallelBackTrackingAlgorithm( final ForkJoinPool pool,
+                                                                     final ColoredNodes<N, C> partialColoredNodes )
+        throws NotEnoughColorsException
+    {
+        return monitor( ColoringAlgorithm.PARALLEL_BACKTRACKING, new Solver<N, C>()
+        {
+
+            public ColoredNodes<N, C> solve()
+                throws NotEnoughColorsException
+            {
+                return selector.applyingParallelBackTrackingAlgorithm( pool, partialColoredNodes );
+            }
+
+        } );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingMinimumColoring()
+        throws NotEnoughColorsException
+    {
+        return monitor( ColoringAlgorithm.MINIMUM_COLORING, new Solver<N, C>()
+        {
+
+            public ColoredNodes<N, C> solve()
+                throws NotEnoughColorsException
+            {
+                return selector.applyingMinimumColoring();
+            }
+
+        } );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ColoredNodes<N, C> applyingBranchAndBoundAlgorithm()
+        throws NotEnoughColorsException
+    {
+        return monitor( ColoringAlgorithm.BRANCH_AND_BOUND, new Solver<N, C>()
+        {
+
+            public ColoredNodes<N, C> solve()
+                throws NotEnoughColorsException
+            {
+                return selector.applyingBranchAndBoundAlgorithm();
+            }
+
+        } );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public IncrementalColoring<N, C> maintaining( ColoredNodes<N, C> coloredNodes )
+        throws NotEnoughColorsException
+    {
+        return selector.maintaining( coloredNodes );
+    }
+
+    /**
+     * Runs the input solver, reporting its solve to the {@link SolveMonitor} whatever the outcome.
+     */
+    private ColoredNodes<N, C> monitor( ColoringAlgorithm algorithm, Solver<N, C> solver )
+        throws NotEnoughColorsException
+    {
+        final SolveMonitor.Solve solve = SolveMonitor.begin( algorithm, graph, colorsCount );
+        try
+        {
+            return solve.end( solver.solve() );
+        }
+        catch ( NotEnoughColorsException e )
+        {
+            throw solve.end( e );
+        }
+        catch ( RuntimeException e )
+        {
+            throw solve.end( e );
+        }
+    }
+
+    /**
+     * A coloring algorithm applied by the monitored selector.
+     */
+    private interface Solver<N, C>
+    {
+
+        ColoredNodes<N, C> solve()
+            throws NotEnoughColorsException;
+
+    }
+
+}
@@ -0,0 +1,114 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+import static java.lang.Integer.highestOneBit;
+
+/**
+ * Tracks, for each node of an {@link IndexedGraph}, the set of distinct colors used by its neighbors.
+ *
+ * Each node owns an open-addressing hash table, sized on its degree, in a shared {@code int[]}:
+ * a node can not see more distinct colors than its neighbors, so the tables never fill up and the
+ * whole structure takes {@code O(E)} memory regardless the palette size.
+ */
+final class NeighborColors
+{
+
+    private static final int EMPTY = 0;
+
+    private final int[] offsets;
+
+    private final int[] table;
+
+    /**
+     * Creates an empty set of colors for each node of the input graph.
+     *
+     * @param graph the graph
+     */
+    public NeighborColors( IndexedGraph<?> graph )
+    {
+        offsets = new int[graph.size() + 1];
+        for ( int node = 0; node < graph.size(); node++ )
+        {
+            int degree = graph.degree( node );
+            int capacity = degree == 0 ? 0 : highestOneBit( 2 * degree - 1 ) << 1;
+            offsets[node + 1] = offsets[node] + capacity;
+        }
+        table = new int[offsets[graph.size()]];
+    }
+
+    /**
+     * Adds the color to the set of the input node.
+     *
+     * @param node the node index
+     * @param color the color index
+     * @return true if the color was not already in the set of the input node, false otherwise.
+     */
+    public boolean add( int node, int color )
+    {
+        final int start = offsets[node];
+        final int mask = offsets[node + 1] - start - 1;
+        final int key = color + 1;
+
+        int slot = hash( color ) & mask;
+        while ( table[start + slot] != EMPTY )
+        {
+            if ( table[start + slot] == key )
+            {
+                return false;
+            }
+            slot = ( slot + 1 ) & mask;
+        }
+        table[start + slot] = key;
+        return true;
+    }
+
+    /**
+     * Tests if the color is in the set of the input node.
+     *
+     * @param node the node index
+     * @param color the color index
+     * @return true if a neighbor of the input node uses the input color, false otherwise.
+     */
+    public boolean contains( int node, int color )
+    {
+        final int start = offsets[node];
+        final int mask = offsets[node + 1] - start - 1;
+        if ( mask < 0 )
+        {
+            return false;
+        }
+        final int key = color + 1;
+
+        int slot = hash( color ) & mask;
+        while ( table[start + slot] != EMPTY )
+        {
+            if ( table[start + slot] == key )
+            {
+                return true;
+            }
+            slot = ( slot + 1 ) & mask;
+        }
+        return false;
+    }
+
+    private static int hash( int color )
+    {
+        int hash = color * 0x9E3779B9;
+        return hash ^ ( hash >>> 16 );
+    }
+
+}
@@ -0,0 +1,137 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+/**
+ * The order in which the greedy algorithm visits the graph nodes.
+ */
+public enum NodeOrdering
+{
+
+    /**
+     * Nodes sorted by decreasing degree (Welsh-Powell).
+     */
+    LARGEST_FIRST
+    {
+
+        @Override
+        int[] order( IndexedGraph<?> graph )
+        {
+            final UncoloredOrderedNodes queue = byDegree( graph );
+            final int[] order = new int[graph.size()];
+            for ( int position = 0; position < order.length; position++ )
+            {
+                order[position] = queue.pollMax();
+            }
+            return order;
+        }
+
+    },
+
+    /**
+     * Nodes sorted by degeneracy (Matula-Beck): the node with the lowest degree in the remaining
+     * graph is removed and goes last, until the graph is empty. It never requires more colors than
+     * the graph degeneracy plus one.
+     */
+    SMALLEST_LAST
+    {
+
+        @Override
+        int[] order( IndexedGraph<?> graph )
+        {
+            final int[] offsets = graph.getOffsets();
+            final int[] neighbors = graph.getNeighbors();
+
+            final UncoloredOrderedNodes queue = byDegree( graph );
+            final int[] order = new int[graph.size()];
+            for ( int position = order.length - 1; position >= 0; position-- )
+            {
+                int node = queue.pollMin();
+                order[position] = node;
+                for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+                {
+                    if ( queue.contains( neighbors[i] ) )
+                    {
+                        queue.decrementKey( neighbors[i] );
+                    }
+                }
+            }
+            return order;
+        }
+
+    },
+
+    /**
+     * The next node is the one with the highest number of already ordered neighbors, starting
+     * from the node with the highest degree.
+     */
+    INCIDENCE_DEGREE
+    {
+
+        @Override
+        int[] order( IndexedGraph<?> graph )
+        {
+            final int[] offsets = graph.getOffsets();
+            final int[] neighbors = graph.getNeighbors();
+
+            // nodes are added by increasing degree, so the highest degree ones lead each bucket.
+            final int[] largestFirst = LARGEST_FIRST.order( graph );
+            final UncoloredOrderedNodes queue = new UncoloredOrderedNodes( graph.size(), graph.getMaxDegree() );
+            for ( int position = largestFirst.length - 1; position >= 0; position-- )
+            {
+                queue.add( largestFirst[position], 0 );
+            }
+
+            final int[] order = new int[graph.size()];
+            for ( int position = 0; position < order.length; position++ )
+            {
+                int node = queue.pollMax();
+                order[position] = node;
+                for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+                {
+                    if ( queue.contains( neighbors[i] ) )
+                    {
+                        queue.incrementKey( neighbors[i] );
+                    }
+                }
+            }
+            return order;
+        }
+
+    };
+
+    /**
+     * Sorts the nodes of the input graph.
+     *
+     * @param graph the graph
+     * @return the nodes indexes, sorted.
+     */
+    abstract int[] order( IndexedGraph<?> graph );
+
+    /**
+     * Queues all nodes by degree, the lowest indexes leading each bucket.
+     */
+    private static UncoloredOrderedNodes byDegree( IndexedGraph<?> graph )
+    {
+        final UncoloredOrderedNodes queue = new UncoloredOrderedNodes( graph.size(), graph.getMaxDegree() );
+        for ( int node = graph.size() - 1; node >= 0; node-- )
+        {
+            queue.add( node, graph.degree( node ) );
+        }
+        return queue;
+    }
+
+}
@@ -18,6 +18,10 @@ package org.nnsoft.trudeau.coloring;
 
 import static java.lang.String.format;
 
+import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableSet;
+
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
@@ -30,6 +34,8 @@ public class NotEnoughColorsException
 
     private static final long serialVersionUID = -8782950517745777605L;
 
+    private final Set<?> clique;
+
     /**
      * Creates new instance of {@link NotEnoughColorsException}. 
      * @param colors the set of color.
@@ -37,6 +43,28 @@ public class NotEnoughColorsException
     public NotEnoughColorsException( Set<?> colors )
     {
         super( format( "Input color set %s has not enough colors to color the given graph", colors ) );
+        this.clique = emptySet();
+    }
+
+    /**
+     * Creates new instance of {@link NotEnoughColorsException}, proven by a clique with more nodes than colors.
+     * @param colors the set of color.
+     * @param clique the nodes, pairwise adjacent, that need more colors than the available ones.
+     */
+    public NotEnoughColorsException( Set<?> colors, Set<?> clique )
+    {
+        super( format( "Input color set %s has not enough colors to color the given graph, that contains the %s nodes clique %s",
+                       colors, clique.size(), clique ) );
+        this.clique = unmodifiableSet( new LinkedHashSet<Object>( clique ) );
+    }
+
+    /**
+     * Returns the clique that proves the colors are not enough, if any.
+     * @return the nodes of the witness clique, empty if the colors have been proven not enough otherwise.
+     */
+    public Set<?> getClique()
+    {
+        return clique;
     }
 
 }
@@ -0,0 +1,265 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+import static java.util.Arrays.copyOf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Parallel version of the {@link BacktrackingSearch}.
+ *
+ * The top levels of the search tree are expanded into precolored prefixes, one for each candidate
+ * color of the most constrained node; every prefix deep enough is a subproblem solved by its own
+ * {@link BacktrackingSearch}, and subproblems are balanced by the {@link java.util.concurrent.ForkJoinPool}
+ * work stealing. As in the sequential search, only one of the unused colors is tried at each split.
+ * The first solution found stops all the other workers, as well as the budget expiration.
+ */
+final class ParallelBacktrackingSearch
+    extends RecursiveAction
+{
+
+    private static final long serialVersionUID = 4203471327312948154L;
+
+    private static final int TASKS_PER_WORKER = 4;
+
+    private final IndexedGraph<?> graph;
+
+    private final int colorsCount;
+
+    private final int[] nodeColors;
+
+    private final int depth;
+
+    private final Budget budget;
+
+    private final AtomicBoolean stop;
+
+    private final AtomicBoolean interrupted;
+
+    private final AtomicReference<int[]> solution;
+
+    private final SearchCounters counters;
+
+    /**
+     * Creates the root task of a parallel search over the input graph.
+     *
+     * @param graph the graph to color
+     * @param colorsCount the number of colors that can be assigned
+     * @param nodeColors the color index of each node, -1 for the nodes to be colored
+     * @param parallelism the number of workers that will run the search
+     * @param budget the budget that, once expired, interrupts all the workers
+     * @param counters the counters of the run, where every subproblem adds its own once solved
+     */
+    public ParallelBacktrackingSearch( IndexedGraph<?> graph, int colorsCount, int[] nodeColors, int parallelism,
+                                       Budget budget, SearchCounters counters )
+    {
+        this( graph, colorsCount, nodeColors, splitDepth( colorsCount, parallelism ), budget,
+              new AtomicBoolean(), new AtomicBoolean(), new AtomicReference<int[]>(), counters );
+    }
+
+    private ParallelBacktrackingSearch( IndexedGraph<?> graph, int colorsCount, int[] nodeColors, int depth,
+                                        Budget budget, AtomicBoolean stop, AtomicBoolean interrupted,
+                                        AtomicReference<int[]> solution, SearchCounters counters )
+    {
+        this.graph = graph;
+        this.colorsCount = colorsCount;
+        this.nodeColors = nodeColors;
+        this.depth = depth;
+        this.budget = budget;
+        this.stop = stop;
+        this.interrupted = interrupted;
+        this.solution = solution;
+        this.counters = counters;
+    }
+
+    /**
+     * Returns the number of tree levels to be expanded so that every worker gets some subproblems.
+     */
+    private static int splitDepth( int colorsCount, int parallelism )
+    {
+        if ( parallelism <= 1 )
+        {
+            return 0;
+        }
+
+        int depth = 0;
+        long tasks = 1;
+        while ( colorsCount > 1 && tasks < (long) parallelism * TASKS_PER_WORKER )
+        {
+            tasks *= colorsCount;
+            depth++;
+        }
+        return depth;
+    }
+
+    /**
+     * Stops all the workers of this search, that will end with no solution.
+     */
+    public void cancel()
+    {
+        stop.set( true );
+    }
+
+    /**
+     * Returns the solution found by the search, once the root task completed.
+     *
+     * @return the color index of each node, null if there is no valid coloring.
+     */
+    public int[] getSolution()
+    {
+        return solution.get();
+    }
+
+    /**
+     * Tells whether the search, once the root task completed, found no solution because stopped by
+     * {@link #cancel()} or by the budget, rather than because there is no coloring.
+     *
+     * @return true if the search has been interrupted, false otherwise.
+     */
+    public boolean isInterrupted()
+    {
+        return solution.get() == null && interrupted.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void compute()
+    {
+        if ( stop.get() || budget.isExpired() )
+        {
+            interrupted.set( true );
+            return;
+        }
+
+        final int node = depth == 0 ? -1 : selectNode();
+        if ( node == -1 )
+        {
+            // the subproblem counts on its own, no worker shares its counters
+            SearchCounters subproblemCounters = new SearchCounters();
+            BacktrackingSearch search = new BacktrackingSearch( graph, colorsCount, nodeColors );
+            search.setStop( stop );
+            search.setBudget( budget );
+            search.setCounters( subproblemCounters );
+            boolean solved = search.solve();
+            counters.add( subproblemCounters );
+            if ( !solved && search.isInterrupted() )
+            {
+                interrupted.set( true );
+            }
+            if ( solved && solution.compareAndSet( null, nodeColors ) )
+            {
+                stop.set( true );
+            }
+            return;
+        }
+
+        final boolean[] forbidden = new boolean[colorsCount];
+        final int[] offsets = graph.getOffsets();
+        final int[] neighbors = graph.getNeighbors();
+        for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+        {
+            if ( neighbors[i] == node )
+            {
+                // a self loop can not be colored
+                return;
+            }
+            int adjacentColor = nodeColors[neighbors[i]];
+            if ( adjacentColor != -1 && adjacentColor < colorsCount )
+            {
+                forbidden[adjacentColor] = true;
+            }
+        }
+
+        // unused colors are interchangeable: only the lowest one is tried
+        final boolean[] used = new boolean[colorsCount];
+        for ( int nodeColor : nodeColors )
+        {
+            if ( nodeColor != -1 && nodeColor < colorsCount )
+            {
+                used[nodeColor] = true;
+            }
+        }
+
+        final List<ParallelBacktrackingSearch> subproblems = new ArrayList<ParallelBacktrackingSearch>();
+        boolean freshTried = false;
+        for ( int color = 0; color < colorsCount; color++ )
+        {
+            if ( !used[color] )
+            {
+                if ( freshTried )
+                {
+                    continue;
+                }
+                freshTried = true;
+            }
+
+            if ( !forbidden[color] )
+            {
+                int[] prefix = copyOf( nodeColors, nodeColors.length );
+                prefix[node] = color;
+                subproblems.add( new ParallelBacktrackingSearch( graph, colorsCount, prefix, depth - 1, budget, stop,
+                                                                 interrupted, solution, counters ) );
+            }
+        }
+        invokeAll( subproblems );
+    }
+
+    /**
+     * Selects the uncolored node with the highest number of colored neighbors, ties broken by degree.
+     *
+     * @return the selected node, -1 if all nodes are colored.
+     */
+    private int selectNode()
+    {
+        final int[] offsets = graph.getOffsets();
+        final int[] neighbors = graph.getNeighbors();
+
+        int selected = -1;
+        int selectedColoredNeighbors = -1;
+        for ( int node = 0; node < nodeColors.length; node++ )
+        {
+            if ( nodeColors[node] != -1 )
+            {
+                continue;
+            }
+
+            int coloredNeighbors = 0;
+            for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+            {
+                if ( nodeColors[neighbors[i]] != -1 )
+                {
+                    coloredNeighbors++;
+                }
+            }
+
+            if ( coloredNeighbors > selectedColoredNeighbors
+                || ( coloredNeighbors == selectedColoredNeighbors && graph.degree( node ) > graph.degree( selected ) ) )
+            {
+                selected = node;
+                selectedColoredNeighbors = coloredNeighbors;
+            }
+        }
+        return selected;
+    }
+
+}
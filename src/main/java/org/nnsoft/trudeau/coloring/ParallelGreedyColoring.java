@@ -0,0 +1,333 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Arrays.copyOf;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Jones-Plassmann parallel greedy coloring over an {@link IndexedGraph}.
+ *
+ * Every node gets a random priority; a node is colored, with the lowest color not used by its
+ * neighbors, as soon as all its neighbors with higher priority are colored, so all the ready nodes
+ * form an independent set that is colored concurrently. Since a node color depends only on the
+ * colors of its higher priority neighbors, the result is the first-fit coloring in priority order:
+ * it depends on the seed only, never on the parallelism or the threads scheduling.
+ */
+final class ParallelGreedyColoring
+{
+
+    private static final int MIN_GRAIN = 256;
+
+    private static final int TASKS_PER_WORKER = 4;
+
+    private final int[] offsets;
+
+    private final int[] neighbors;
+
+    private final int colorsCount;
+
+    private final ForkJoinPool pool;
+
+    private final int[] ranks;
+
+    private final int[] nodeColors;
+
+    private final AtomicIntegerArray pendingNeighbors;
+
+    private final AtomicBoolean notEnoughColors = new AtomicBoolean();
+
+    private final SearchCounters counters;
+
+    private int[] frontier;
+
+    private int frontierSize;
+
+    private int[] nextFrontier;
+
+    private final AtomicInteger nextFrontierSize = new AtomicInteger();
+
+    private ParallelGreedyColoring( IndexedGraph<?> graph, int colorsCount, ForkJoinPool pool, long seed,
+                                    SearchCounters counters )
+    {
+        this.offsets = graph.getOffsets();
+        this.neighbors = graph.getNeighbors();
+        this.colorsCount = colorsCount;
+        this.pool = pool;
+        this.counters = counters;
+
+        final int size = graph.size();
+        ranks = new int[size];
+        nodeColors = new int[size];
+        pendingNeighbors = new AtomicIntegerArray( size );
+        frontier = new int[size];
+        nextFrontier = new int[size];
+
+        // random permutation of the priorities, the lowest rank is colored first
+        for ( int node = 0; node < size; node++ )
+        {
+            ranks[node] = node;
+        }
+        final Random random = new Random( seed );
+        for ( int node = size - 1; node > 0; node-- )
+        {
+            int other = random.nextInt( node + 1 );
+            int rank = ranks[node];
+            ranks[node] = ranks[other];
+            ranks[other] = rank;
+        }
+    }
+
+    /**
+     * Colors the input graph using at most the given number of colors.
+     *
+     * @param graph the graph to color
+     * @param colorsCount the number of available colors
+     * @param pool the pool where coloring the independent sets
+     * @param seed the seed of the random priorities
+     * @return the color index of each node, null if the colors are not enough.
+     */
+    public static int[] color( IndexedGraph<?> graph, int colorsCount, ForkJoinPool pool, long seed )
+    {
+        return color( graph, colorsCount, pool, seed, new SearchCounters() );
+    }
+
+    /**
+     * Colors the input graph using at most the given number of colors, counting the work done.
+     *
+     * @param graph the graph to color
+     * @param colorsCount the number of available colors
+     * @param pool the pool where coloring the independent sets
+     * @param seed the seed of the random priorities
+     * @param counters the counters of the run, where every task adds its own once completed
+     * @return the color index of each node, null if the colors are not enough.
+     */
+    public static int[] color( IndexedGraph<?> graph, int colorsCount, ForkJoinPool pool, long seed,
+                               SearchCounters counters )
+    {
+        return new ParallelGreedyColoring( graph, colorsCount, pool, seed, counters ).color();
+    }
+
+    private int[] color()
+    {
+        final int size = nodeColors.length;
+        pool.invoke( new CountingTask( 0, size, grain( size ) ) );
+
+        for ( int node = 0; node < size; node++ )
+        {
+            if ( pendingNeighbors.get( node ) == 0 )
+            {
+                frontier[frontierSize++] = node;
+            }
+        }
+
+        while ( frontierSize > 0 )
+        {
+            nextFrontierSize.set( 0 );
+            pool.invoke( new ColoringTask( 0, frontierSize, grain( frontierSize ) ) );
+            if ( notEnoughColors.get() )
+            {
+                return null;
+            }
+
+            int[] swap = frontier;
+            frontier = nextFrontier;
+            nextFrontier = swap;
+            frontierSize = nextFrontierSize.get();
+        }
+
+        return nodeColors;
+    }
+
+    private int grain( int size )
+    {
+        return max( MIN_GRAIN, size / ( pool.getParallelism() * TASKS_PER_WORKER ) );
+    }
+
+    private boolean precedes( int node, int other )
+    {
+        return ranks[node] < ranks[other];
+    }
+
+    /**
+     * Counts, for each node, the neighbors with higher priority.
+     */
+    private final class CountingTask
+        extends RecursiveAction
+    {
+
+        private static final long serialVersionUID = -2880745120512954071L;
+
+        private final int from;
+
+        private final int to;
+
+        private final int grain;
+
+        CountingTask( int from, int to, int grain )
+        {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if ( to - from > grain )
+            {
+                int middle = ( from + to ) >>> 1;
+                invokeAll( new CountingTask( from, middle, grain ), new CountingTask( middle, to, grain ) );
+                return;
+            }
+
+            for ( int node = from; node < to; node++ )
+            {
+                int pending = 0;
+                for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+                {
+                    if ( precedes( neighbors[i], node ) )
+                    {
+                        pending++;
+                    }
+                }
+                pendingNeighbors.set( node, pending );
+            }
+        }
+
+    }
+
+    /**
+     * Colors a range of the frontier and collects the nodes that become ready.
+     */
+    private final class ColoringTask
+        extends RecursiveAction
+    {
+
+        private static final long serialVersionUID = 5718829307367361425L;
+
+        private final int from;
+
+        private final int to;
+
+        private final int grain;
+
+        ColoringTask( int from, int to, int grain )
+        {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if ( to - from > grain )
+            {
+                int middle = ( from + to ) >>> 1;
+                invokeAll( new ColoringTask( from, middle, grain ), new ColoringTask( middle, to, grain ) );
+                return;
+            }
+
+            // a node degree bounds its first-fit color, so the forbidden colors array is sized on the degrees.
+            int maxDegree = 0;
+            for ( int position = from; position < to; position++ )
+            {
+                int node = frontier[position];
+                maxDegree = max( maxDegree, offsets[node + 1] - offsets[node] );
+            }
+            final int[] forbidden = new int[min( colorsCount, maxDegree + 1 )];
+
+            int[] ready = new int[16];
+            int readyCount = 0;
+
+            // counted apart by each task, added once the task completes
+            long visitedNodes = 0;
+            long colorAttempts = 0;
+            long conflictChecks = 0;
+            try
+            {
+                for ( int position = from; position < to; position++ )
+                {
+                    if ( notEnoughColors.get() )
+                    {
+                        return;
+                    }
+
+                    int node = frontier[position];
+                    // forbidden[color] == stamp means that 'color' is used by a neighbor of 'node'
+                    int stamp = position + 1;
+                    for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+                    {
+                        int adjacent = neighbors[i];
+                        if ( precedes( adjacent, node ) && nodeColors[adjacent] < forbidden.length )
+                        {
+                            forbidden[nodeColors[adjacent]] = stamp;
+                        }
+                    }
+
+                    int color = 0;
+                    while ( color < forbidden.length && forbidden[color] == stamp )
+                    {
+                        color++;
+                    }
+                    visitedNodes++;
+                    colorAttempts += color + 1;
+                    conflictChecks += offsets[node + 1] - offsets[node];
+                    if ( color == colorsCount )
+                    {
+                        notEnoughColors.set( true );
+                        return;
+                    }
+                    nodeColors[node] = color;
+
+                    for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+                    {
+                        int adjacent = neighbors[i];
+                        if ( precedes( node, adjacent ) && pendingNeighbors.decrementAndGet( adjacent ) == 0 )
+                        {
+                            if ( readyCount == ready.length )
+                            {
+                                ready = copyOf( ready, readyCount << 1 );
+                            }
+                            ready[readyCount++] = adjacent;
+                        }
+                    }
+                }
+            }
+            finally
+            {
+                SearchCounters taskCounters = new SearchCounters();
+                taskCounters.visitedNodes = visitedNodes;
+                taskCounters.colorAttempts = colorAttempts;
+                taskCounters.conflictChecks = conflictChecks;
+                counters.add( taskCounters );
+            }
+
+            System.arraycopy( ready, 0, nextFrontier, nextFrontierSize.getAndAdd( readyCount ), readyCount );
+        }
+
+    }
+
+}
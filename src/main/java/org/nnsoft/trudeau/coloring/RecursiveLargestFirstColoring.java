@@ -0,0 +1,196 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import static java.util.Arrays.fill;
+
+/**
+ * <a href="https://doi.org/10.6028/jres.084.024">Recursive Largest First</a> coloring over an
+ * {@link IndexedGraph}: colors are built one at a time, as maximal independent sets of the
+ * uncolored nodes.
+ *
+ * Each color class starts from the uncolored node with the highest uncolored degree; the next
+ * node is always the candidate with the most neighbors excluded from the class, ties broken by
+ * the fewest neighbors still candidate. Both counters are updated incrementally while the class
+ * grows, so each class costs {@code O(V + E)} plus the {@code O(V)} scan of each pick,
+ * and the whole coloring {@code O(V * E)}.
+ */
+final class RecursiveLargestFirstColoring
+{
+
+    // node states within the current color class.
+
+    private static final int CANDIDATE = 0;
+
+    private static final int EXCLUDED = 1;
+
+    private static final int COLORED = 2;
+
+    private RecursiveLargestFirstColoring()
+    {
+        // do nothing
+    }
+
+    /**
+     * Colors the input graph using at most the given number of colors.
+     *
+     * @param graph the graph to color
+     * @param colorsCount the number of available colors
+     * @return the color index of each node, null if the colors are not enough.
+     */
+    public static int[] color( IndexedGraph<?> graph, int colorsCount )
+    {
+        return color( graph, colorsCount, new SearchCounters() );
+    }
+
+    /**
+     * Colors the input graph using at most the given number of colors, counting the work done.
+     *
+     * @param graph the graph to color
+     * @param colorsCount the number of available colors
+     * @param counters the counters of the run
+     * @return the color index of each node, null if the colors are not enough.
+     */
+    public static int[] color( IndexedGraph<?> graph, int colorsCount, SearchCounters counters )
+    {
+        final int size = graph.size();
+        final int[] offsets = graph.getOffsets();
+        final int[] neighbors = graph.getNeighbors();
+
+        final int[] nodeColors = new int[size];
+        fill( nodeColors, -1 );
+
+        final int[] states = new int[size];
+
+        // degree among the uncolored nodes
+        final int[] uncoloredDegrees = new int[size];
+        // neighbors excluded from the current class
+        final int[] excludedNeighbors = new int[size];
+        // neighbors still candidate for the current class
+        final int[] candidateNeighbors = new int[size];
+
+        // the uncolored nodes, compacted after each class
+        final int[] uncolored = new int[size];
+        int uncoloredCount = size;
+        for ( int node = 0; node < size; node++ )
+        {
+            uncolored[node] = node;
+            uncoloredDegrees[node] = graph.degree( node );
+        }
+
+        // every class tries all the uncolored nodes
+        long conflictChecks = 0;
+        int color = 0;
+        while ( uncoloredCount > 0 )
+        {
+            if ( color == colorsCount )
+            {
+                counters.conflictChecks += conflictChecks;
+                return null;
+            }
+            counters.colorAttempts += uncoloredCount;
+
+            int first = -1;
+            for ( int i = 0; i < uncoloredCount; i++ )
+            {
+                int node = uncolored[i];
+                states[node] = CANDIDATE;
+                excludedNeighbors[node] = 0;
+                candidateNeighbors[node] = uncoloredDegrees[node];
+                if ( first == -1 || uncoloredDegrees[node] > uncoloredDegrees[first] )
+                {
+                    first = node;
+                }
+            }
+
+            int candidates = uncoloredCount;
+            int node = first;
+            while ( node != -1 )
+            {
+                nodeColors[node] = color;
+                states[node] = COLORED;
+                candidates--;
+                counters.visitedNodes++;
+                conflictChecks += offsets[node + 1] - offsets[node];
+
+                // the candidate neighbors are excluded, their own candidate neighbors updated
+                for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+                {
+                    int excluded = neighbors[i];
+                    if ( states[excluded] != CANDIDATE )
+                    {
+                        continue;
+                    }
+
+                    states[excluded] = EXCLUDED;
+                    candidates--;
+                    conflictChecks += offsets[excluded + 1] - offsets[excluded];
+                    for ( int j = offsets[excluded]; j < offsets[excluded + 1]; j++ )
+                    {
+                        int adjacent = neighbors[j];
+                        if ( states[adjacent] == CANDIDATE )
+                        {
+                            excludedNeighbors[adjacent]++;
+                            candidateNeighbors[adjacent]--;
+                        }
+                    }
+                }
+
+                node = -1;
+                if ( candidates > 0 )
+                {
+                    for ( int i = 0; i < uncoloredCount; i++ )
+                    {
+                        int candidate = uncolored[i];
+                        if ( states[candidate] == CANDIDATE
+                            && ( node == -1
+                                || excludedNeighbors[candidate] > excludedNeighbors[node]
+                                || ( excludedNeighbors[candidate] == excludedNeighbors[node]
+                                    && candidateNeighbors[candidate] < candidateNeighbors[node] ) ) )
+                        {
+                            node = candidate;
+                        }
+                    }
+                }
+            }
+
+            // the class is complete: its nodes leave the uncolored subgraph
+            int remaining = 0;
+            for ( int i = 0; i < uncoloredCount; i++ )
+            {
+                int uncoloredNode = uncolored[i];
+                if ( nodeColors[uncoloredNode] == -1 )
+                {
+                    uncolored[remaining++] = uncoloredNode;
+                }
+                else
+                {
+                    for ( int j = offsets[uncoloredNode]; j < offsets[uncoloredNode + 1]; j++ )
+                    {
+                        uncoloredDegrees[neighbors[j]]--;
+                    }
+                }
+            }
+            uncoloredCount = remaining;
+            color++;
+        }
+
+        counters.conflictChecks += conflictChecks;
+        return nodeColors;
+    }
+
+}
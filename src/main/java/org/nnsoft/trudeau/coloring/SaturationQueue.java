@@ -0,0 +1,180 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+/**
+ * Indexed binary max-heap of uncolored nodes, prioritized by saturation degree (the number of
+ * distinct colors used by the neighbors) and then by degree in the uncolored subgraph.
+ *
+ * Each node keeps its own position in the heap, so priority updates cost {@code O(log n)}
+ * without searching the node.
+ */
+final class SaturationQueue
+{
+
+    private final int[] heap;
+
+    private final int[] positions;
+
+    private final int[] saturation;
+
+    private final int[] degrees;
+
+    private int size;
+
+    /**
+     * Creates a queue that contains all nodes of the input graph, with no saturation.
+     *
+     * @param graph the graph
+     */
+    public SaturationQueue( IndexedGraph<?> graph )
+    {
+        size = graph.size();
+        heap = new int[size];
+        positions = new int[size];
+        saturation = new int[size];
+        degrees = new int[size];
+
+        for ( int node = 0; node < size; node++ )
+        {
+            heap[node] = node;
+            positions[node] = node;
+            degrees[node] = graph.degree( node );
+        }
+        for ( int position = size / 2 - 1; position >= 0; position-- )
+        {
+            siftDown( position );
+        }
+    }
+
+    /**
+     * Tests if there are still nodes in the queue.
+     *
+     * @return true if the queue is empty, false otherwise.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Removes the node with the highest priority.
+     *
+     * @return the node with the highest priority.
+     */
+    public int poll()
+    {
+        final int node = heap[0];
+        positions[node] = -1;
+        size--;
+        if ( size > 0 )
+        {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            siftDown( 0 );
+        }
+        return node;
+    }
+
+    /**
+     * Tests if the input node is still in the queue.
+     *
+     * @param node the node index
+     * @return true if the input node is still in the queue, false otherwise.
+     */
+    public boolean contains( int node )
+    {
+        return positions[node] != -1;
+    }
+
+    /**
+     * Increases by one the saturation degree of the input queued node.
+     *
+     * @param node the node index
+     */
+    public void increaseSaturation( int node )
+    {
+        saturation[node]++;
+        siftUp( positions[node] );
+    }
+
+    /**
+     * Decreases by one the uncolored degree of the input queued node.
+     *
+     * @param node the node index
+     */
+    public void decreaseDegree( int node )
+    {
+        degrees[node]--;
+        siftDown( positions[node] );
+    }
+
+    private boolean precedes( int node, int other )
+    {
+        if ( saturation[node] != saturation[other] )
+        {
+            return saturation[node] > saturation[other];
+        }
+        if ( degrees[node] != degrees[other] )
+        {
+            return degrees[node] > degrees[other];
+        }
+        return node < other;
+    }
+
+    private void siftUp( int position )
+    {
+        final int node = heap[position];
+        while ( position > 0 )
+        {
+            int parent = ( position - 1 ) >>> 1;
+            if ( !precedes( node, heap[parent] ) )
+            {
+                break;
+            }
+            move( heap[parent], position );
+            position = parent;
+        }
+        move( node, position );
+    }
+
+    private void siftDown( int position )
+    {
+        final int node = heap[position];
+        int child;
+        while ( ( child = 2 * position + 1 ) < size )
+        {
+            if ( child + 1 < size && precedes( heap[child + 1], heap[child] ) )
+            {
+                child++;
+            }
+            if ( !precedes( heap[child], node ) )
+            {
+                break;
+            }
+            move( heap[child], position );
+            position = child;
+        }
+        move( node, position );
+    }
+
+    private void move( int node, int position )
+    {
+        heap[position] = node;
+        positions[node] = position;
+    }
+
+}
@@ -0,0 +1,61 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+/**
+ * The counters of a coloring run, updated with plain increments by the single thread that owns them
+ * and added to the {@link SolverStats} once the run ends: parallel runs give every worker its own
+ * counters, merged when the worker completes.
+ */
+final class SearchCounters
+{
+
+    // nodes selected to be colored.
+
+    long visitedNodes;
+
+    // colors tried on the selected nodes.
+
+    long colorAttempts;
+
+    // neighbors inspected for a color conflict.
+
+    long conflictChecks;
+
+    // assignments undone after a dead end.
+
+    long backtracks;
+
+    // search tree nodes of the exact algorithms.
+
+    long exploredNodes;
+
+    /**
+     * Adds the input counters to these ones; safe to call from concurrent workers.
+     *
+     * @param counters the counters to be added
+     */
+    synchronized void add( SearchCounters counters )
+    {
+        visitedNodes += counters.visitedNodes;
+        colorAttempts += counters.colorAttempts;
+        conflictChecks += counters.conflictChecks;
+        backtracks += counters.backtracks;
+        exploredNodes += counters.exploredNodes;
+    }
+
+}
@@ -0,0 +1,64 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+/**
+ * The ways an exact search can backtrack out of a dead end.
+ */
+enum SearchStrategy
+{
+
+    /**
+     * Back to the latest assigned node, see {@link BacktrackingSearch}.
+     */
+    CHRONOLOGICAL
+    {
+
+        @Override
+        ExactSearch create( IndexedGraph<?> graph, int colorsCount, int[] nodeColors )
+        {
+            return new BacktrackingSearch( graph, colorsCount, nodeColors );
+        }
+
+    },
+
+    /**
+     * Straight back to the latest node that caused the dead end, see {@link BackjumpingSearch}.
+     */
+    BACKJUMPING
+    {
+
+        @Override
+        ExactSearch create( IndexedGraph<?> graph, int colorsCount, int[] nodeColors )
+        {
+            return new BackjumpingSearch( graph, colorsCount, nodeColors );
+        }
+
+    };
+
+    /**
+     * Creates a search over the input graph.
+     *
+     * @param graph the graph to color
+     * @param colorsCount the number of colors that can be assigned
+     * @param nodeColors the color index of each node, -1 for the nodes to be colored;
+     *        it contains the solution once the search succeeds.
+     * @return the search over the input graph
+     */
+    abstract ExactSearch create( IndexedGraph<?> graph, int colorsCount, int[] nodeColors );
+
+}
@@ -0,0 +1,109 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The Java Flight Recorder event of a solve, recorded by {@code jcmd <pid> JFR.start} or by
+ * {@code -XX:StartFlightRecording} like the JDK ones, and disabled with them.
+ *
+ * This is the only class that links the {@code jdk.jfr} module: the {@link SolveMonitor} uses it
+ * only once the module is found, and passes the events around as plain objects, so the library
+ * keeps working on runtimes without it.
+ */
+@Name( SolveEvent.NAME )
+@Label( "Graph Coloring" )
+@Category( { "Trudeau", "Coloring" } )
+@Description( "A graph coloring solve" )
+@StackTrace( false )
+final class SolveEvent
+    extends Event
+{
+
+    static final String NAME = "org.nnsoft.trudeau.coloring.Solve";
+
+    @Label( "Algorithm" )
+    String algorithm;
+
+    @Label( "Nodes" )
+    int nodes;
+
+    @Label( "Edges" )
+    long edges;
+
+    @Label( "Colors" )
+    @Description( "The number of colors of the palette" )
+    int colors;
+
+    @Label( "Required Colors" )
+    @Description( "The number of colors used by the coloring, 0 if not colored" )
+    int requiredColors;
+
+    @Label( "Outcome" )
+    String outcome;
+
+    /**
+     * Starts the event of a solve, if recorded.
+     *
+     * @return the started event, null if not recorded.
+     */
+    static Object start()
+    {
+        final SolveEvent event = new SolveEvent();
+        if ( !event.isEnabled() )
+        {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the event of a solve, committing it if it lasted beyond the recording threshold.
+     *
+     * @param started the event returned by {@link #start()}
+     * @param algorithm the solve algorithm
+     * @param nodes the number of graph nodes
+     * @param edges the number of graph edges
+     * @param colors the number of colors of the palette
+     * @param requiredColors the number of colors used by the coloring, 0 if not colored
+     * @param outcome how the solve ended
+     */
+    static void end( Object started, ColoringAlgorithm algorithm, int nodes, long edges, int colors,
+                     int requiredColors, SolveOutcome outcome )
+    {
+        final SolveEvent event = (SolveEvent) started;
+        event.end();
+        if ( event.shouldCommit() )
+        {
+            event.algorithm = algorithm.name();
+            event.nodes = nodes;
+            event.edges = edges;
+            event.colors = colors;
+            event.requiredColors = requiredColors;
+            event.outcome = outcome.name();
+            event.commit();
+        }
+    }
+
+}
@@ -0,0 +1,216 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CancellationException;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Publishes every solve as a Java Flight Recorder event and adds it to the {@link SolverMXBean}
+ * of its algorithm, registered in the platform MBean server once the first graph is colored.
+ *
+ * Monitoring is on unless the {@value #ENABLED_PROPERTY} system property is {@code false}; the events
+ * are committed only while a recording enables them, and only on runtimes that ship the flight recorder.
+ */
+final class SolveMonitor
+{
+
+    /**
+     * The system property that, set to {@code false}, disables the monitoring.
+     */
+    static final String ENABLED_PROPERTY = "org.nnsoft.trudeau.coloring.monitoring";
+
+    private static final String OBJECT_NAME = "org.nnsoft.trudeau.coloring:type=Solver,algorithm=%s";
+
+    private static final boolean ENABLED = !"false".equalsIgnoreCase( System.getProperty( ENABLED_PROPERTY ) );
+
+    private static final boolean FLIGHT_RECORDER = isFlightRecorderAvailable();
+
+    private static final DefaultSolverMXBean[] MBEANS = createMXBeans();
+
+    private SolveMonitor()
+    {
+        // do nothing
+    }
+
+    /**
+     * Tells whether the solves are monitored.
+     *
+     * @return true if the solves are monitored, false otherwise.
+     */
+    static boolean isEnabled()
+    {
+        return ENABLED;
+    }
+
+    /**
+     * Returns the aggregates of the input algorithm.
+     *
+     * @param algorithm the monitored algorithm
+     * @return the aggregates of the input algorithm.
+     */
+    static SolverMXBean getMXBean( ColoringAlgorithm algorithm )
+    {
+        return MBEANS[algorithm.ordinal()];
+    }
+
+    /**
+     * Starts monitoring a solve.
+     *
+     * @param algorithm the solve algorithm
+     * @param graph the graph to color
+     * @param colorsCount the number of colors of the palette
+     * @return the started solve, to be ended once the algorithm returns or throws.
+     */
+    static Solve begin( ColoringAlgorithm algorithm, IndexedGraph<?> graph, int colorsCount )
+    {
+        return new Solve( algorithm, graph, colorsCount );
+    }
+
+    private static boolean isFlightRecorderAvailable()
+    {
+        try
+        {
+            Class.forName( "jdk.jfr.Event" );
+            return true;
+        }
+        catch ( ClassNotFoundException e )
+        {
+            return false;
+        }
+        catch ( LinkageError e )
+        {
+            return false;
+        }
+    }
+
+    private static DefaultSolverMXBean[] createMXBeans()
+    {
+        final ColoringAlgorithm[] algorithms = ColoringAlgorithm.values();
+        final DefaultSolverMXBean[] mbeans = new DefaultSolverMXBean[algorithms.length];
+        for ( ColoringAlgorithm algorithm : algorithms )
+        {
+            mbeans[algorithm.ordinal()] = new DefaultSolverMXBean( algorithm );
+        }
+        if ( !ENABLED )
+        {
+            return mbeans;
+        }
+
+        // a failed registration, such as the same library loaded twice, leaves the aggregates unpublished
+        try
+        {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            for ( DefaultSolverMXBean mbean : mbeans )
+            {
+                ObjectName name = new ObjectName( String.format( OBJECT_NAME, mbean.getAlgorithm() ) );
+                if ( !server.isRegistered( name ) )
+                {
+                    server.registerMBean( mbean, name );
+                }
+            }
+        }
+        catch ( JMException e )
+        {
+            // not published
+        }
+        catch ( SecurityException e )
+        {
+            // not published
+        }
+        return mbeans;
+    }
+
+    /**
+     * A monitored solve, ended by the first call to one of the {@code end} methods.
+     */
+    static final class Solve
+    {
+
+        private final ColoringAlgorithm algorithm;
+
+        private final int nodes;
+
+        private final long edges;
+
+        private final int colorsCount;
+
+        private final long start = System.nanoTime();
+
+        private final Object event;
+
+        private Solve( ColoringAlgorithm algorithm, IndexedGraph<?> graph, int colorsCount )
+        {
+            this.algorithm = algorithm;
+            this.nodes = graph.size();
+            this.edges = graph.getNeighbors().length / 2;
+            this.colorsCount = colorsCount;
+            this.event = FLIGHT_RECORDER ? SolveEvent.start() : null;
+        }
+
+        /**
+         * Ends the solve that colored the graph.
+         *
+         * @param coloredNodes the coloring found
+         * @return the input coloring
+         */
+        <N, C> ColoredNodes<N, C> end( ColoredNodes<N, C> coloredNodes )
+        {
+            end( SolveOutcome.COLORED, coloredNodes.getRequiredColors() );
+            return coloredNodes;
+        }
+
+        /**
+         * Ends the solve that found the colors are not enough.
+         *
+         * @param e the exception thrown by the algorithm
+         * @return the input exception, to be rethrown
+         */
+        NotEnoughColorsException end( NotEnoughColorsException e )
+        {
+            end( SolveOutcome.NOT_ENOUGH_COLORS, 0 );
+            return e;
+        }
+
+        /**
+         * Ends the solve that has been interrupted or that failed.
+         *
+         * @param e the exception thrown by the algorithm
+         * @return the input exception, to be rethrown
+         */
+        RuntimeException end( RuntimeException e )
+        {
+            end( e instanceof CancellationException ? SolveOutcome.INTERRUPTED : SolveOutcome.FAILED, 0 );
+            return e;
+        }
+
+        private void end( SolveOutcome outcome, int requiredColors )
+        {
+            MBEANS[algorithm.ordinal()].record( outcome, System.nanoTime() - start );
+            if ( event != null )
+            {
+                SolveEvent.end( event, algorithm, nodes, edges, colorsCount, requiredColors, outcome );
+            }
+        }
+
+    }
+
+}
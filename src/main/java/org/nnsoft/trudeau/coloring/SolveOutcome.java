@@ -0,0 +1,45 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+/**
+ * How a monitored solve ended.
+ */
+enum SolveOutcome
+{
+
+    /**
+     * The graph has been colored.
+     */
+    COLORED,
+
+    /**
+     * The colors are not enough, a {@link NotEnoughColorsException} has been thrown.
+     */
+    NOT_ENOUGH_COLORS,
+
+    /**
+     * The budget expired before any coloring has been found.
+     */
+    INTERRUPTED,
+
+    /**
+     * Any other exception has been thrown.
+     */
+    FAILED
+
+}
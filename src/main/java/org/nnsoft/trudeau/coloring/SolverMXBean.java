@@ -0,0 +1,135 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+/**
+ * The aggregates of the solves run by one algorithm, in the platform MBean server under the name
+ * {@code org.nnsoft.trudeau.coloring:type=Solver,algorithm=<ALGORITHM>}, so that they can be read
+ * from local JDK tools such as {@code jconsole} and {@code jmc}.
+ *
+ * Latencies are collected in a histogram with power of two buckets of microseconds: bucket {@code i}
+ * holds the solves shorter than {@code 2^i} microseconds and not shorter than {@code 2^(i-1)}, so
+ * percentiles are reported as the upper bound of their bucket.
+ */
+public interface SolverMXBean
+{
+
+    /**
+     * Returns the monitored algorithm.
+     *
+     * @return the monitored algorithm.
+     */
+    String getAlgorithm();
+
+    /**
+     * Returns the number of solves, whatever their outcome.
+     *
+     * @return the number of solves.
+     */
+    long getSolves();
+
+    /**
+     * Returns the number of solves that colored the graph.
+     *
+     * @return the number of solves that colored the graph.
+     */
+    long getColored();
+
+    /**
+     * Returns the number of solves that threw a {@link NotEnoughColorsException}.
+     *
+     * @return the number of solves with not enough colors.
+     */
+    long getNotEnoughColors();
+
+    /**
+     * Returns the number of solves interrupted before finding any coloring.
+     *
+     * @return the number of interrupted solves.
+     */
+    long getInterrupted();
+
+    /**
+     * Returns the number of solves that threw any other exception.
+     *
+     * @return the number of failed solves.
+     */
+    long getFailed();
+
+    /**
+     * Returns the fraction of the solves that threw a {@link NotEnoughColorsException}.
+     *
+     * @return the not enough colors rate, 0 if there are no solves.
+     */
+    double getNotEnoughColorsRate();
+
+    /**
+     * Returns the mean solve latency.
+     *
+     * @return the mean latency in milliseconds, 0 if there are no solves.
+     */
+    double getMeanLatencyMillis();
+
+    /**
+     * Returns the maximum solve latency.
+     *
+     * @return the maximum latency in milliseconds.
+     */
+    double getMaxLatencyMillis();
+
+    /**
+     * Returns the median solve latency.
+     *
+     * @return the upper bound of the median latency bucket, in milliseconds.
+     */
+    double getMedianLatencyMillis();
+
+    /**
+     * Returns the 99th percentile of the solve latency.
+     *
+     * @return the upper bound of the 99th percentile latency bucket, in milliseconds.
+     */
+    double get99thPercentileLatencyMillis();
+
+    /**
+     * Returns the number of solves in each latency bucket.
+     *
+     * @return the number of solves in each latency bucket.
+     */
+    long[] getLatencyHistogram();
+
+    /**
+     * Returns the upper bound of each latency bucket.
+     *
+     * @return the upper bound of each latency bucket, in microseconds.
+     */
+    long[] getLatencyBucketBoundsMicros();
+
+    /**
+     * Returns a percentile of the solve latency.
+     *
+     * @param percentile the percentile, in {@code (0, 100]}
+     * @return the upper bound of the percentile latency bucket, in milliseconds.
+     */
+    double getLatencyPercentileMillis( double percentile );
+
+    /**
+     * Clears all the aggregates.
+     */
+    void reset();
+
+}
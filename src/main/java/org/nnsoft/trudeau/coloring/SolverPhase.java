@@ -0,0 +1,45 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+/**
+ * The phases of a coloring run timed by the {@link SolverStats}.
+ */
+public enum SolverPhase
+{
+
+    /**
+     * The search of a clique larger than the palette, that proves the colors are not enough.
+     */
+    BOUNDING,
+
+    /**
+     * The heuristic colorings, either requested or run ahead of the exact searches.
+     */
+    HEURISTIC,
+
+    /**
+     * The peeling of the nodes that can always be colored last, before the exact searches.
+     */
+    REDUCTION,
+
+    /**
+     * The exact and local searches.
+     */
+    SEARCH
+
+}
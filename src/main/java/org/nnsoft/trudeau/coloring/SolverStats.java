@@ -0,0 +1,183 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects what the solvers did while coloring a graph.
+ *
+ * A statistics instance is passed to the selector and updated by each coloring run through it;
+ * counters are cumulative until {@link #reset()}. The algorithms count on their own, with plain
+ * increments, and publish here once per phase, so statistics can stay enabled on production
+ * workloads and be shared by concurrent runs.
+ */
+public final class SolverStats
+{
+
+    private final SearchCounters counters = new SearchCounters();
+
+    private final long[] phaseTimes = new long[SolverPhase.values().length];
+
+    private long runs;
+
+    /**
+     * Returns the number of coloring runs.
+     *
+     * @return the number of coloring runs.
+     */
+    public synchronized long getRuns()
+    {
+        return runs;
+    }
+
+    /**
+     * Returns the number of nodes selected to be colored, once per selection.
+     *
+     * @return the number of nodes visited.
+     */
+    public synchronized long getVisitedNodes()
+    {
+        return counters.visitedNodes;
+    }
+
+    /**
+     * Returns the number of colors tried on the visited nodes.
+     *
+     * @return the number of color attempts.
+     */
+    public synchronized long getColorAttempts()
+    {
+        return counters.colorAttempts;
+    }
+
+    /**
+     * Returns the number of neighbors inspected for a color conflict.
+     *
+     * @return the number of conflict checks.
+     */
+    public synchronized long getConflictChecks()
+    {
+        return counters.conflictChecks;
+    }
+
+    /**
+     * Returns the number of assignments undone by the exact algorithms after a dead end.
+     *
+     * @return the number of backtracks.
+     */
+    public synchronized long getBacktracks()
+    {
+        return counters.backtracks;
+    }
+
+    /**
+     * Returns the number of search tree nodes explored by the exact algorithms.
+     *
+     * @return the number of search tree nodes explored.
+     */
+    public synchronized long getExploredNodes()
+    {
+        return counters.exploredNodes;
+    }
+
+    /**
+     * Returns the time spent in the input phase.
+     *
+     * @param phase the solver phase
+     * @param unit the time unit of the result
+     * @return the time spent in the input phase.
+     */
+    public synchronized long getPhaseTime( SolverPhase phase, TimeUnit unit )
+    {
+        phase = checkNotNull( phase, "Phase must be not null" );
+        unit = checkNotNull( unit, "Unit must be not null" );
+        return unit.convert( phaseTimes[phase.ordinal()], TimeUnit.NANOSECONDS );
+    }
+
+    /**
+     * Returns the time spent in all the phases.
+     *
+     * @param unit the time unit of the result
+     * @return the time spent in all the phases.
+     */
+    public synchronized long getTotalTime( TimeUnit unit )
+    {
+        unit = checkNotNull( unit, "Unit must be not null" );
+        long total = 0;
+        for ( long phaseTime : phaseTimes )
+        {
+            total += phaseTime;
+        }
+        return unit.convert( total, TimeUnit.NANOSECONDS );
+    }
+
+    /**
+     * Clears all the counters.
+     */
+    public synchronized void reset()
+    {
+        counters.visitedNodes = 0;
+        counters.colorAttempts = 0;
+        counters.conflictChecks = 0;
+        counters.backtracks = 0;
+        counters.exploredNodes = 0;
+        for ( int i = 0; i < phaseTimes.length; i++ )
+        {
+            phaseTimes[i] = 0;
+        }
+        runs = 0;
+    }
+
+    synchronized void addRun()
+    {
+        runs++;
+    }
+
+    synchronized void addCounters( SearchCounters runCounters )
+    {
+        counters.add( runCounters );
+    }
+
+    synchronized void addPhaseTime( SolverPhase phase, long nanos )
+    {
+        phaseTimes[phase.ordinal()] += nanos;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized String toString()
+    {
+        StringBuilder builder = new StringBuilder( "SolverStats [runs=" ).append( runs )
+            .append( ", visitedNodes=" ).append( counters.visitedNodes )
+            .append( ", colorAttempts=" ).append( counters.colorAttempts )
+            .append( ", conflictChecks=" ).append( counters.conflictChecks )
+            .append( ", backtracks=" ).append( counters.backtracks )
+            .append( ", exploredNodes=" ).append( counters.exploredNodes );
+        for ( SolverPhase phase : SolverPhase.values() )
+        {
+            builder.append( ", " ).append( phase.name().toLowerCase() ).append( "Nanos=" )
+                .append( phaseTimes[phase.ordinal()] );
+        }
+        return builder.append( ']' ).toString();
+    }
+
+}
@@ -0,0 +1,438 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Arrays.fill;
+
+/**
+ * <a href="https://doi.org/10.1007/BF02239976">Tabucol</a> local search over an {@link IndexedGraph}.
+ *
+ * Starting from the DSatur coloring, the search drops one color at a time: the nodes of the dropped
+ * color move to the color where they have the fewest neighbors, then the search minimizes the
+ * conflicting edges, moving at every iteration a conflicting node to the color that reduces the
+ * conflicts the most. A node can not return to the color it left for a tenure that grows with
+ * the number of conflicting nodes, unless the move improves the best conflicts count of the phase.
+ *
+ * The number of neighbors of each node having each color is kept in a flat matrix,
+ * so evaluating a move costs {@code O(1)} and applying it costs the degree of the moved node. That
+ * matrix and the tabu one take {@code O(V k)} memory, for V nodes and the k colors of the DSatur
+ * coloring, so the graphs needing more than {@link #MAX_CELLS} cells are rejected.
+ */
+final class TabuSearch
+{
+
+    private static final int BUDGET_CHECK_INTERVAL = 1024;
+
+    // the largest array the virtual machines can allocate.
+
+    static final int MAX_CELLS = Integer.MAX_VALUE - 8;
+
+    private static final int RANDOM_TENURE = 10;
+
+    // the tenure grows by 6 iterations every 10 conflicting nodes.
+
+    private static final int TENURE_NUMERATOR = 6;
+
+    private static final int TENURE_DENOMINATOR = 10;
+
+    private final IndexedGraph<?> graph;
+
+    private final int[] offsets;
+
+    private final int[] neighbors;
+
+    private final int maxColors;
+
+    private final Budget budget;
+
+    private long iterationsLeft;
+
+    private long random;
+
+    private int stride;
+
+    private int[] nodeColors;
+
+    // gamma[node * stride + color] is the number of neighbors of 'node' colored with 'color'.
+
+    private int[] gamma;
+
+    // tabu[node * stride + color] is the iteration until which 'node' can not take 'color'.
+
+    private int[] tabu;
+
+    // the nodes with at least a neighbor of the same color, with their position in the array.
+
+    private int[] conflicting;
+
+    private int[] conflictingPositions;
+
+    private int conflictingCount;
+
+    private int conflicts;
+
+    private boolean optimal;
+
+    private SearchCounters counters = new SearchCounters();
+
+    /**
+     * Creates a new search over the input graph.
+     *
+     * @param graph the graph to color, with no self loops
+     * @param maxColors the maximum number of colors that can be assigned
+     * @param maxIterations the maximum number of moves, over all the search
+     * @param seed the seed of the random tie breaks
+     * @param budget the budget that, once expired, interrupts the search
+     */
+    public TabuSearch( IndexedGraph<?> graph, int maxColors, long maxIterations, long seed, Budget budget )
+    {
+        this.graph = graph;
+        this.offsets = graph.getOffsets();
+        this.neighbors = graph.getNeighbors();
+        this.maxColors = maxColors;
+        this.iterationsLeft = maxIterations;
+        // xorshift requires a non zero state
+        this.random = seed == 0 ? 0x9E3779B97F4A7C15L : seed;
+        this.budget = budget;
+    }
+
+    /**
+     * Sets the counters of the work done by this search.
+     *
+     * @param counters the counters of the run
+     */
+    public void setCounters( SearchCounters counters )
+    {
+        this.counters = counters;
+    }
+
+    /**
+     * Colors the graph with as few colors as the search can find within its iterations and budget.
+     *
+     * @return the color index of each node, null if no coloring has been found within the maximum colors.
+     */
+    public int[] solve()
+    {
+        final int size = graph.size();
+
+        int[] best = DSaturColoring.color( graph, Math.min( maxColors, graph.getMaxDegree() + 1 ), counters );
+        int colorsCount;
+        if ( best != null )
+        {
+            colorsCount = countColors( best ) - 1;
+        }
+        else
+        {
+            // the heuristic needs more colors than the maximum: the search starts from the maximum
+            best = DSaturColoring.color( graph, graph.getMaxDegree() + 1, counters );
+            colorsCount = maxColors;
+        }
+
+        stride = Math.max( 1, Math.min( countColors( best ), maxColors ) );
+        nodeColors = new int[size];
+        final int cells = cells( size, stride );
+        gamma = new int[cells];
+        tabu = new int[cells];
+        conflicting = new int[size];
+        conflictingPositions = new int[size];
+
+        final int lowerBound = GreedyClique.find( graph ).length;
+        boolean feasible = countColors( best ) <= maxColors;
+        while ( colorsCount >= lowerBound && colorsCount > 0 )
+        {
+            load( best, colorsCount );
+            if ( !search( colorsCount ) )
+            {
+                break;
+            }
+
+            feasible = true;
+            best = nodeColors.clone();
+            colorsCount = countColors( best ) - 1;
+        }
+
+        if ( !feasible )
+        {
+            return null;
+        }
+        optimal = countColors( best ) <= lowerBound;
+        return best;
+    }
+
+    /**
+     * Returns the number of cells of the matrices keyed by node and color.
+     *
+     * @param size the number of nodes
+     * @param stride the number of colors
+     * @return the number of cells
+     * @throws IllegalArgumentException if the matrices exceed {@link #MAX_CELLS} cells
+     */
+    static int cells( int size, int stride )
+    {
+        final long cells = (long) size * stride;
+        checkArgument( cells <= MAX_CELLS,
+                       "The tabu search of %s nodes with %s colors needs %s cells, more than an array can hold",
+                       size, stride, cells );
+        return (int) cells;
+    }
+
+    /**
+     * Tells whether the last {@link #solve()} reached the clique lower bound.
+     *
+     * @return true if the coloring uses the minimum number of colors, false otherwise.
+     */
+    public boolean isOptimal()
+    {
+        return optimal;
+    }
+
+    /**
+     * Starts a phase from the input coloring, moving the nodes colored beyond the given number of colors.
+     */
+    private void load( int[] coloring, int colorsCount )
+    {
+        final int size = nodeColors.length;
+        for ( int node = 0; node < size; node++ )
+        {
+            nodeColors[node] = coloring[node] < colorsCount ? coloring[node] : -1;
+        }
+
+        fill( gamma, 0 );
+        fill( tabu, 0 );
+        for ( int node = 0; node < size; node++ )
+        {
+            int color = nodeColors[node];
+            if ( color != -1 )
+            {
+                for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+                {
+                    gamma[neighbors[i] * stride + color]++;
+                }
+            }
+        }
+
+        // dropped nodes take the color where they have the fewest neighbors
+        for ( int node = 0; node < size; node++ )
+        {
+            if ( nodeColors[node] != -1 )
+            {
+                continue;
+            }
+
+            final int base = node * stride;
+            int color = 0;
+            for ( int candidate = 1; candidate < colorsCount; candidate++ )
+            {
+                if ( gamma[base + candidate] < gamma[base + color] )
+                {
+                    color = candidate;
+                }
+            }
+
+            nodeColors[node] = color;
+            for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+            {
+                gamma[neighbors[i] * stride + color]++;
+            }
+        }
+
+        conflicts = 0;
+        conflictingCount = 0;
+        fill( conflictingPositions, -1 );
+        for ( int node = 0; node < size; node++ )
+        {
+            int nodeConflicts = gamma[node * stride + nodeColors[node]];
+            if ( nodeConflicts > 0 )
+            {
+                conflicts += nodeConflicts;
+                addConflicting( node );
+            }
+        }
+        // every conflicting edge has been counted by both its nodes
+        conflicts >>= 1;
+    }
+
+    /**
+     * Moves the conflicting nodes until there are no more conflicts.
+     *
+     * @return true if the phase ends with a valid coloring, false if it ran out of iterations or budget.
+     */
+    private boolean search( int colorsCount )
+    {
+        if ( colorsCount == 1 )
+        {
+            // no move is possible
+            return conflicts == 0;
+        }
+
+        // iterations are counted per phase, so the tabu matrix can store them as ints
+        final int maxIterations = (int) Math.min( iterationsLeft, Integer.MAX_VALUE - RANDOM_TENURE - graph.size() );
+        int bestConflicts = conflicts;
+        int iteration = 0;
+        while ( conflicts > 0 )
+        {
+            if ( iteration == maxIterations
+                || ( iteration % BUDGET_CHECK_INTERVAL == 0 && budget.isExpired() ) )
+            {
+                iterationsLeft -= iteration;
+                return false;
+            }
+            iteration++;
+
+            // every conflicting node tries every other color
+            counters.visitedNodes += conflictingCount;
+            counters.colorAttempts += (long) conflictingCount * ( colorsCount - 1 );
+
+            int moveNode = -1;
+            int moveColor = -1;
+            int moveDelta = Integer.MAX_VALUE;
+            int ties = 0;
+            for ( int i = 0; i < conflictingCount; i++ )
+            {
+                final int node = conflicting[i];
+                final int base = node * stride;
+                final int nodeColor = nodeColors[node];
+                final int nodeConflicts = gamma[base + nodeColor];
+                for ( int color = 0; color < colorsCount; color++ )
+                {
+                    if ( color == nodeColor )
+                    {
+                        continue;
+                    }
+
+                    int delta = gamma[base + color] - nodeConflicts;
+                    if ( delta > moveDelta
+                        || ( tabu[base + color] >= iteration && conflicts + delta >= bestConflicts ) )
+                    {
+                        continue;
+                    }
+
+                    if ( delta < moveDelta )
+                    {
+                        moveDelta = delta;
+                        ties = 0;
+                    }
+                    // uniform choice among the equivalent moves
+                    if ( nextInt( ++ties ) == 0 )
+                    {
+                        moveNode = node;
+                        moveColor = color;
+                    }
+                }
+            }
+
+            if ( moveNode == -1 )
+            {
+                // all moves are tabu: take a random one
+                moveNode = conflicting[nextInt( conflictingCount )];
+                moveColor = ( nodeColors[moveNode] + 1 + nextInt( colorsCount - 1 ) ) % colorsCount;
+                moveDelta = gamma[moveNode * stride + moveColor] - gamma[moveNode * stride + nodeColors[moveNode]];
+            }
+
+            final int tenure = nextInt( RANDOM_TENURE ) + TENURE_NUMERATOR * conflictingCount / TENURE_DENOMINATOR;
+            tabu[moveNode * stride + nodeColors[moveNode]] = iteration + tenure;
+            move( moveNode, moveColor );
+
+            conflicts += moveDelta;
+            if ( conflicts < bestConflicts )
+            {
+                bestConflicts = conflicts;
+            }
+        }
+
+        iterationsLeft -= iteration;
+        return true;
+    }
+
+    /**
+     * Moves the node to the input color, updating the neighbors conflicts.
+     */
+    private void move( int node, int color )
+    {
+        final int previousColor = nodeColors[node];
+        nodeColors[node] = color;
+        counters.conflictChecks += offsets[node + 1] - offsets[node];
+
+        for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+        {
+            final int adjacent = neighbors[i];
+            final int base = adjacent * stride;
+            final int adjacentColor = nodeColors[adjacent];
+
+            if ( --gamma[base + previousColor] == 0 && adjacentColor == previousColor )
+            {
+                removeConflicting( adjacent );
+            }
+            if ( gamma[base + color]++ == 0 && adjacentColor == color )
+            {
+                addConflicting( adjacent );
+            }
+        }
+
+        if ( gamma[node * stride + color] == 0 )
+        {
+            removeConflicting( node );
+        }
+        else if ( conflictingPositions[node] == -1 )
+        {
+            addConflicting( node );
+        }
+    }
+
+    private void addConflicting( int node )
+    {
+        conflictingPositions[node] = conflictingCount;
+        conflicting[conflictingCount++] = node;
+    }
+
+    private void removeConflicting( int node )
+    {
+        final int position = conflictingPositions[node];
+        if ( position == -1 )
+        {
+            return;
+        }
+
+        final int last = conflicting[--conflictingCount];
+        conflicting[position] = last;
+        conflictingPositions[last] = position;
+        conflictingPositions[node] = -1;
+    }
+
+    /**
+     * Returns a pseudo random int in {@code [0, bound)}, from a xorshift generator.
+     */
+    private int nextInt( int bound )
+    {
+        random ^= random << 13;
+        random ^= random >>> 7;
+        random ^= random << 17;
+        return (int) ( ( random >>> 1 ) % bound );
+    }
+
+    private static int countColors( int[] nodeColors )
+    {
+        int colors = 0;
+        for ( int color : nodeColors )
+        {
+            colors = Math.max( colors, color + 1 );
+        }
+        return colors;
+    }
+
+}
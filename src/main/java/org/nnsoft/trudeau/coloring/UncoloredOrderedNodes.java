@@ -15,105 +15,236 @@ package org.nnsoft.trudeau.coloring;
  *   See the License for the specific language governing permissions and
  *   limitations under the License.
  */
-
-import java.util.Comparator;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Map;
-import java.util.NoSuchElementException;
-import java.util.Set;
-import java.util.TreeMap;
+import static java.util.Arrays.fill;
 
 /**
- * 
+ * Bucket queue of node indexes ordered by an integer key in {@code [0, maxKey]}, such as the
+ * node degree.
  *
- * @param <N>
+ * Every key has its own doubly linked list of nodes, so adding, removing and moving a node by one
+ * key cost {@code O(1)}; nodes are taken from the head of the lowest or the highest non-empty bucket,
+ * that is the most recently added or moved one.
  */
-final class UncoloredOrderedNodes<N>
-    implements Comparator<Integer>, Iterable<N>
+final class UncoloredOrderedNodes
 {
 
-    private final Map<Integer, Set<N>> orderedNodes = new TreeMap<Integer, Set<N>>( this );
+    private final int[] heads;
+
+    private final int[] next;
+
+    private final int[] previous;
+
+    private final int[] keys;
+
+    private int size;
+
+    // no node has a key lower than minKey or greater than maxKey
 
-    public void addVertexDegree( N n, Integer degree )
+    private int minKey;
+
+    private int maxKey;
+
+    /**
+     * Creates an empty queue.
+     *
+     * @param nodes the number of nodes that can be queued, indexed from 0
+     * @param maxKey the maximum key
+     */
+    public UncoloredOrderedNodes( int nodes, int maxKey )
     {
-        Set<N> nodes = orderedNodes.get( degree );
+        heads = new int[maxKey + 1];
+        next = new int[nodes];
+        previous = new int[nodes];
+        keys = new int[nodes];
+        fill( heads, -1 );
+        fill( keys, -1 );
+        minKey = maxKey;
+        this.maxKey = 0;
+    }
 
-        if ( nodes == null )
-        {
-            nodes = new HashSet<N>();
-        }
+    /**
+     * Adds the node with the input key.
+     *
+     * @param node the node index
+     * @param key the node key
+     */
+    public void add( int node, int key )
+    {
+        keys[node] = key;
+        link( node );
+        size++;
+    }
+
+    /**
+     * Removes the input node.
+     *
+     * @param node the node index
+     */
+    public void remove( int node )
+    {
+        unlink( node );
+        keys[node] = -1;
+        size--;
+    }
+
+    /**
+     * Tests if the input node is in the queue.
+     *
+     * @param node the node index
+     * @return true if the input node is in the queue, false otherwise.
+     */
+    public boolean contains( int node )
+    {
+        return keys[node] != -1;
+    }
+
+    /**
+     * Returns the key of the input queued node.
+     *
+     * @param node the node index
+     * @return the key of the input queued node.
+     */
+    public int getKey( int node )
+    {
+        return keys[node];
+    }
+
+    /**
+     * Increments by one the key of the input queued node.
+     *
+     * @param node the node index
+     */
+    public void incrementKey( int node )
+    {
+        unlink( node );
+        keys[node]++;
+        link( node );
+    }
+
+    /**
+     * Decrements by one the key of the input queued node.
+     *
+     * @param node the node index
+     */
+    public void decrementKey( int node )
+    {
+        unlink( node );
+        keys[node]--;
+        link( node );
+    }
 
-        nodes.add( n );
-        orderedNodes.put( degree, nodes );
+    /**
+     * Tests if there are still nodes in the queue.
+     *
+     * @return true if the queue is empty, false otherwise.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
     }
 
     /**
-     * {@inheritDoc}
+     * Returns, without removing it, a node with the lowest key.
+     *
+     * @return a node with the lowest key, -1 if the queue is empty.
      */
-    public int compare( Integer o1, Integer o2 )
+    public int peekMin()
     {
-        return o2.compareTo( o1 );
+        if ( size == 0 )
+        {
+            return -1;
+        }
+        while ( heads[minKey] == -1 )
+        {
+            minKey++;
+        }
+        return heads[minKey];
     }
 
-    public Iterator<N> iterator()
+    /**
+     * Returns, without removing it, a node with the highest key.
+     *
+     * @return a node with the highest key, -1 if the queue is empty.
+     */
+    public int peekMax()
     {
-        return new Iterator<N>()
+        if ( size == 0 )
         {
+            return -1;
+        }
+        while ( heads[maxKey] == -1 )
+        {
+            maxKey--;
+        }
+        return heads[maxKey];
+    }
 
-            private Iterator<Integer> keys = orderedNodes.keySet().iterator();
-
-            private Iterator<N> pending = null;
-
-            private N next = null;
-
-            public boolean hasNext()
-            {
-                if ( next != null )
-                {
-                    return true;
-                }
-
-                while ( ( pending == null ) || !pending.hasNext() )
-                {
-                    if ( !keys.hasNext() )
-                    {
-                        return false;
-                    }
-                    pending = orderedNodes.get( keys.next() ).iterator();
-                }
-
-                next = pending.next();
-                return true;
-            }
-
-            public N next()
-            {
-                if ( !hasNext() )
-                {
-                    throw new NoSuchElementException();
-                }
-                N returned = next;
-                next = null;
-                return returned;
-            }
-
-            public void remove()
-            {
-                pending.remove();
-            }
-
-        };
+    /**
+     * Removes a node with the lowest key.
+     *
+     * @return a node with the lowest key, -1 if the queue is empty.
+     */
+    public int pollMin()
+    {
+        final int node = peekMin();
+        if ( node != -1 )
+        {
+            remove( node );
+        }
+        return node;
     }
 
     /**
-     * Returns the number of nodes degrees in the graph.
+     * Removes a node with the highest key.
      *
-     * @return the number of nodes degrees in the graph.
+     * @return a node with the highest key, -1 if the queue is empty.
      */
-    public int size()
+    public int pollMax()
+    {
+        final int node = peekMax();
+        if ( node != -1 )
+        {
+            remove( node );
+        }
+        return node;
+    }
+
+    private void link( int node )
     {
-        return orderedNodes.size();
+        final int key = keys[node];
+        final int head = heads[key];
+        next[node] = head;
+        previous[node] = -1;
+        if ( head != -1 )
+        {
+            previous[head] = node;
+        }
+        heads[key] = node;
+
+        if ( key < minKey )
+        {
+            minKey = key;
+        }
+        if ( key > maxKey )
+        {
+            maxKey = key;
+        }
+    }
+
+    private void unlink( int node )
+    {
+        if ( previous[node] != -1 )
+        {
+            next[previous[node]] = next[node];
+        }
+        else
+        {
+            heads[keys[node]] = next[node];
+        }
+        if ( next[node] != -1 )
+        {
+            previous[next[node]] = previous[node];
+        }
     }
 
 }
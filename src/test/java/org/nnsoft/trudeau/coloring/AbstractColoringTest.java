@@ -276,4 +276,63 @@ abstract class AbstractColoringTest
         }
     }
 
+    /**
+     * Creates a graph made of disjoint complete graphs with nNodes each
+     *
+     * @param nGraphs number of complete graphs
+     * @param nNodes number of nodes of each complete graph
+     * @param g graph
+     */
+    protected static void buildDisjointCompleteGraphs( int nGraphs, int nNodes, MutableGraph<String> g )
+    {
+        for ( int k = 0; k < nGraphs; k++ )
+        {
+            for ( int i = 0; i < nNodes; i++ )
+            {
+                g.addNode( format( "%s-%s", k, i ) );
+                for ( int j = 0; j < i; j++ )
+                {
+                    g.putEdge( format( "%s-%s", k, i ), format( "%s-%s", k, j ) );
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the Mycielski graph that needs k colors, with no triangles for k greater than 2
+     *
+     * @param k number of colors
+     * @param g graph
+     */
+    protected static void buildMycielskiGraph( int k, MutableGraph<String> g )
+    {
+        List<String> nodes = new ArrayList<String>();
+        nodes.add( "0" );
+        nodes.add( "1" );
+        g.putEdge( "0", "1" );
+
+        for ( int i = 3; i <= k; i++ )
+        {
+            int size = nodes.size();
+            String root = String.valueOf( 2 * size );
+            for ( int j = 0; j < size; j++ )
+            {
+                String shadow = String.valueOf( size + j );
+                for ( String adjacent : new ArrayList<String>( g.adjacentNodes( nodes.get( j ) ) ) )
+                {
+                    if ( nodes.contains( adjacent ) )
+                    {
+                        g.putEdge( shadow, adjacent );
+                    }
+                }
+                g.putEdge( shadow, root );
+            }
+            for ( int j = 0; j < size; j++ )
+            {
+                nodes.add( String.valueOf( size + j ) );
+            }
+            nodes.add( root );
+        }
+    }
+
 }
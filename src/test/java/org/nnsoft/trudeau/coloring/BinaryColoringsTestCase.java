@@ -0,0 +1,302 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.nnsoft.trudeau.coloring.ColoringSolver.coloring;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.base.Converter;
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+import com.google.common.primitives.Ints;
+
+/**
+ *
+ */
+public class BinaryColoringsTestCase
+    extends AbstractColoringTest
+{
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test( expected = NullPointerException.class )
+    public void testNullColoring()
+        throws IOException
+    {
+        BinaryColorings.write( null, Ints.stringConverter(), new FileOutputStream( folder.newFile() ).getChannel() );
+    }
+
+    @Test
+    public void testCrownGraph()
+        throws IOException, NotEnoughColorsException
+    {
+        MutableGraph<String> g = GraphBuilder.undirected().build();
+        buildCrownGraph( 1001, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 3 ) ).applyingDSaturAlgorithm();
+        MappedColoring<Integer> mapped = writeAndMap( coloredNodes );
+
+        assertEquals( 1001, mapped.size() );
+        assertEquals( 3, mapped.getRequiredColors() );
+        assertStored( g.nodes(), coloredNodes, mapped );
+        checkColoring( g, mapped.toColoredNodes( g ) );
+    }
+
+    @Test
+    public void testColorIdsAcrossWords()
+        throws IOException, NotEnoughColorsException
+    {
+        // 7 bits for each color id, so that many ids span two longs
+        MutableGraph<String> g = GraphBuilder.undirected().build();
+        buildCompleteGraph( 100, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 100 ) ).applyingGreedyAlgorithm();
+        MappedColoring<Integer> mapped = writeAndMap( coloredNodes );
+
+        assertEquals( 100, mapped.getRequiredColors() );
+        assertStored( g.nodes(), coloredNodes, mapped );
+
+        ColoredNodes<String, Integer> loaded = mapped.toColoredNodes( g );
+        assertEquals( 100, loaded.getRequiredColors() );
+        checkColoring( g, loaded );
+    }
+
+    @Test
+    public void testPartialColoring()
+        throws IOException
+    {
+        ColoredNodes<String, String> coloredNodes = new ColoredNodes<String, String>();
+        coloredNodes.addColor( "a", "red" );
+        coloredNodes.addColor( "b", "green" );
+        coloredNodes.addColor( "c", "blue" );
+        coloredNodes.addColor( "d", "green" );
+        coloredNodes.removeColor( "a" );
+        coloredNodes.removeColor( "c" );
+
+        MappedColoring<String> mapped = writeAndMap( coloredNodes, Converter.<String>identity() );
+
+        assertEquals( 4, mapped.size() );
+        assertEquals( 1, mapped.getRequiredColors() );
+        assertEquals( "green", mapped.getPalette().get( 0 ) );
+        assertNull( mapped.getColor( 0 ) );
+        assertEquals( "green", mapped.getColor( 1 ) );
+        assertNull( mapped.getColor( 2 ) );
+        assertEquals( "green", mapped.getColor( 3 ) );
+    }
+
+    @Test
+    public void testEmptyColoring()
+        throws IOException
+    {
+        MappedColoring<String> mapped =
+            writeAndMap( new ColoredNodes<String, String>(), Converter.<String>identity() );
+
+        assertEquals( 0, mapped.size() );
+        assertEquals( 0, mapped.getRequiredColors() );
+    }
+
+    @Test( expected = IndexOutOfBoundsException.class )
+    public void testNodeIndexOutOfRange()
+        throws IOException
+    {
+        ColoredNodes<String, String> coloredNodes = new ColoredNodes<String, String>();
+        coloredNodes.addColor( "a", "red" );
+
+        writeAndMap( coloredNodes, Converter.<String>identity() ).getColor( 1 );
+    }
+
+    @Test
+    public void testCompactSize()
+        throws IOException, NotEnoughColorsException
+    {
+        MutableGraph<String> g = GraphBuilder.undirected().build();
+        buildBipartedGraph( 100, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 2 ) ).applyingDSaturAlgorithm();
+        File file = folder.newFile();
+        write( coloredNodes, Ints.stringConverter(), file );
+
+        // header, two palette entries, 100 ids of 2 bits in 4 longs
+        assertEquals( 16 + 2 * 5 + 6 + 4 * 8, file.length() );
+    }
+
+    @Test
+    public void testNodesOutsideTheGraph()
+        throws IOException, NotEnoughColorsException
+    {
+        MutableGraph<String> g = GraphBuilder.undirected().build();
+        buildCrownGraph( 10, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 3 ) ).applyingDSaturAlgorithm();
+        coloredNodes.addColor( "outside", 2 );
+        MappedColoring<Integer> mapped = writeAndMap( coloredNodes );
+
+        // the node outside the graph keeps its color, stored by index after the graph nodes
+        assertEquals( 11, mapped.size() );
+        assertEquals( Integer.valueOf( 2 ), mapped.getColor( 10 ) );
+
+        // but it has no identity to be copied back
+        ColoredNodes<String, Integer> loaded = mapped.toColoredNodes( g );
+        assertFalse( loaded.containsColoredNode( "outside" ) );
+        assertStored( g.nodes(), loaded, mapped );
+    }
+
+    @Test
+    public void testReadFromStream()
+        throws IOException, NotEnoughColorsException
+    {
+        MutableGraph<String> g = GraphBuilder.undirected().build();
+        buildCompleteGraph( 100, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 100 ) ).applyingGreedyAlgorithm();
+        MappedColoring<Integer> read =
+            BinaryColorings.read( Channels.newChannel( new ByteArrayInputStream( toBytes( coloredNodes ) ) ),
+                                  Ints.stringConverter() );
+
+        assertEquals( 100, read.size() );
+        assertEquals( 100, read.getRequiredColors() );
+        assertStored( g.nodes(), coloredNodes, read );
+        checkColoring( g, read.toColoredNodes( g ) );
+    }
+
+    @Test( expected = IOException.class )
+    public void testTruncatedStream()
+        throws IOException, NotEnoughColorsException
+    {
+        MutableGraph<String> g = GraphBuilder.undirected().build();
+        buildCrownGraph( 1000, g );
+
+        byte[] bytes = toBytes( coloring( g ).withColors( createColorsList( 2 ) ).applyingDSaturAlgorithm() );
+        BinaryColorings.read( Channels.newChannel( new ByteArrayInputStream( Arrays.copyOf( bytes, bytes.length - 8 ) ) ),
+                              Ints.stringConverter() );
+    }
+
+    @Test( expected = IOException.class )
+    public void testNotAColoringFile()
+        throws IOException
+    {
+        File file = folder.newFile();
+        FileOutputStream output = new FileOutputStream( file );
+        try
+        {
+            output.write( "p edge 2 1\ne 1 2\n".getBytes( "US-ASCII" ) );
+        }
+        finally
+        {
+            output.close();
+        }
+        BinaryColorings.map( file, Ints.stringConverter() );
+    }
+
+    @Test( expected = IOException.class )
+    public void testTruncatedFile()
+        throws IOException, NotEnoughColorsException
+    {
+        MutableGraph<String> g = GraphBuilder.undirected().build();
+        buildCrownGraph( 1000, g );
+
+        File file = folder.newFile();
+        write( coloring( g ).withColors( createColorsList( 2 ) ).applyingDSaturAlgorithm(), Ints.stringConverter(),
+               file );
+        FileOutputStream output = new FileOutputStream( file, true );
+        try
+        {
+            output.getChannel().truncate( file.length() - 8 );
+        }
+        finally
+        {
+            output.close();
+        }
+        BinaryColorings.map( file, Ints.stringConverter() );
+    }
+
+    private static <N, C> void assertStored( Iterable<N> nodes, ColoredNodes<N, C> coloredNodes,
+                                             MappedColoring<C> mapped )
+    {
+        List<N> order = new ArrayList<N>();
+        for ( N node : nodes )
+        {
+            order.add( node );
+        }
+        for ( int nodeIndex = 0; nodeIndex < order.size(); nodeIndex++ )
+        {
+            C color = mapped.getColor( nodeIndex );
+            assertEquals( coloredNodes.getColor( order.get( nodeIndex ) ), color );
+            assertTrue( mapped.getPalette().contains( color ) );
+        }
+    }
+
+    private MappedColoring<Integer> writeAndMap( ColoredNodes<?, Integer> coloredNodes )
+        throws IOException
+    {
+        return writeAndMap( coloredNodes, Ints.stringConverter() );
+    }
+
+    private <C> MappedColoring<C> writeAndMap( ColoredNodes<?, C> coloredNodes, Converter<String, C> converter )
+        throws IOException
+    {
+        File file = folder.newFile();
+        write( coloredNodes, converter, file );
+        return BinaryColorings.map( file, converter );
+    }
+
+    private static byte[] toBytes( ColoredNodes<?, Integer> coloredNodes )
+        throws IOException
+    {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BinaryColorings.write( coloredNodes, Ints.stringConverter(), Channels.newChannel( output ) );
+        return output.toByteArray();
+    }
+
+    private static <C> void write( ColoredNodes<?, C> coloredNodes, Converter<String, C> converter, File file )
+        throws IOException
+    {
+        FileOutputStream output = new FileOutputStream( file );
+        try
+        {
+            BinaryColorings.write( coloredNodes, converter, output.getChannel() );
+        }
+        finally
+        {
+            output.close();
+        }
+    }
+
+}
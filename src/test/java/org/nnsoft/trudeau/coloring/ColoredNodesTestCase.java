@@ -0,0 +1,79 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ *
+ */
+public class ColoredNodesTestCase
+{
+
+    @Test( expected = NullPointerException.class )
+    public void testNullNode()
+    {
+        new ColoredNodes<String, Integer>().getColor( null );
+    }
+
+    @Test
+    public void testAddColor()
+    {
+        ColoredNodes<String, Integer> coloredNodes = new ColoredNodes<String, Integer>();
+        coloredNodes.addColor( "1", 0 );
+        coloredNodes.addColor( "2", 1 );
+        coloredNodes.addColor( "3", 0 );
+
+        assertEquals( 2, coloredNodes.getRequiredColors() );
+        assertEquals( new Integer( 0 ), coloredNodes.getColor( "3" ) );
+        assertTrue( coloredNodes.containsColoredNode( "2" ) );
+        assertFalse( coloredNodes.containsColoredNode( "4" ) );
+        assertNull( coloredNodes.getColor( "4" ) );
+    }
+
+    @Test
+    public void testReplaceColor()
+    {
+        ColoredNodes<String, Integer> coloredNodes = new ColoredNodes<String, Integer>();
+        coloredNodes.addColor( "1", 0 );
+        coloredNodes.addColor( "1", 1 );
+
+        assertEquals( 1, coloredNodes.getRequiredColors() );
+        assertEquals( new Integer( 1 ), coloredNodes.getColor( "1" ) );
+    }
+
+    @Test
+    public void testRemoveSharedColor()
+    {
+        ColoredNodes<String, Integer> coloredNodes = new ColoredNodes<String, Integer>();
+        coloredNodes.addColor( "1", 0 );
+        coloredNodes.addColor( "2", 0 );
+        coloredNodes.addColor( "3", 1 );
+
+        coloredNodes.removeColor( "1" );
+        assertEquals( 2, coloredNodes.getRequiredColors() );
+        assertFalse( coloredNodes.containsColoredNode( "1" ) );
+
+        coloredNodes.removeColor( "3" );
+        assertEquals( 1, coloredNodes.getRequiredColors() );
+    }
+
+}
@@ -0,0 +1,234 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import static java.util.Arrays.fill;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.nnsoft.trudeau.coloring.ColoringSolver.coloring;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+
+/**
+ *
+ */
+public class GraphColoringBackJumpingTestCase
+    extends AbstractColoringTest
+{
+
+    private static final int PATH_LENGTH = 16;
+
+    @Test
+    public void testJumpToShallowConflict()
+    {
+        // node 0 and the triangle form a K4, that can not be 3-colored, but the search colors the
+        // path hanging from node 0 before reaching the triangle
+        final int x = PATH_LENGTH;
+        final int y = PATH_LENGTH + 1;
+        final int z = PATH_LENGTH + 2;
+        List<int[]> edges = new ArrayList<int[]>();
+        edges.add( new int[] { 0, x } );
+        edges.add( new int[] { 0, y } );
+        edges.add( new int[] { 0, z } );
+        for ( int node = 0; node + 1 < PATH_LENGTH; node++ )
+        {
+            edges.add( new int[] { node, node + 1 } );
+        }
+        edges.add( new int[] { x, y } );
+        edges.add( new int[] { y, z } );
+        edges.add( new int[] { x, z } );
+        IndexedGraph<Integer> graph = buildGraph( PATH_LENGTH + 3, edges );
+
+        SearchCounters jumping = new SearchCounters();
+        BackjumpingSearch backjumping = new BackjumpingSearch( graph, 3, uncolored( graph.size() ) );
+        backjumping.setCounters( jumping );
+        assertFalse( backjumping.solve() );
+        assertFalse( backjumping.isInterrupted() );
+
+        SearchCounters chronological = new SearchCounters();
+        BacktrackingSearch backtracking = new BacktrackingSearch( graph, 3, uncolored( graph.size() ) );
+        backtracking.setCounters( chronological );
+        assertFalse( backtracking.solve() );
+
+        // the path is colored once: the triangle dead end jumps straight back to node 0
+        assertTrue( jumping.exploredNodes < 2 * PATH_LENGTH );
+        assertTrue( chronological.exploredNodes > 100 * jumping.exploredNodes );
+    }
+
+    @Test
+    public void testNogoodsCacheOverflow()
+    {
+        boolean overflown = false;
+        for ( int seed = 0; seed < 10; seed++ )
+        {
+            for ( double density : new double[] { 0.14, 0.16 } )
+            {
+                IndexedGraph<Integer> graph = buildRandomGraph( 60, density, seed );
+
+                int[] nodeColors = uncolored( graph.size() );
+                BackjumpingSearch backjumping = new BackjumpingSearch( graph, 4, nodeColors );
+                boolean solved = backjumping.solve();
+                assertTrue( backjumping.getCachedNogoods() <= BackjumpingSearch.NOGOODS_CAPACITY );
+
+                // evicted nogoods must not be checked anymore, nor leave the search incomplete
+                assertEquals( new BacktrackingSearch( graph, 4, uncolored( graph.size() ) ).solve(), solved );
+                if ( solved )
+                {
+                    checkColoring( graph, nodeColors );
+                }
+
+                if ( backjumping.getLearnedNogoods() > BackjumpingSearch.NOGOODS_CAPACITY )
+                {
+                    overflown = true;
+                    assertEquals( BackjumpingSearch.NOGOODS_CAPACITY, backjumping.getCachedNogoods() );
+                    assertTrue( backjumping.getNogoodHits() > 0 );
+                }
+            }
+        }
+        assertTrue( overflown );
+    }
+
+    @Test
+    public void testMycielskiGraph()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildMycielskiGraph( 5, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 5 ) ).applyingBackJumpingAlgorithm();
+        assertEquals( 5, coloredNodes.getRequiredColors() );
+        checkColoring( g, coloredNodes );
+    }
+
+    @Test( expected = NotEnoughColorsException.class )
+    public void testMycielskiGraphNotEnoughColors()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        // no triangles, so no clique rejects it in advance
+        buildMycielskiGraph( 5, g );
+
+        coloring( g ).withColors( createColorsList( 4 ) ).applyingBackJumpingAlgorithm();
+    }
+
+    @Test
+    public void testPredefinedColors()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        // two triangles sharing the node 'x'
+        g.putEdge( "a", "b" );
+        g.putEdge( "a", "x" );
+        g.putEdge( "b", "x" );
+        g.putEdge( "c", "d" );
+        g.putEdge( "c", "x" );
+        g.putEdge( "d", "x" );
+
+        Set<Integer> colors = createColorsList( 3 );
+        ColoredNodes<String, Integer> partialColoredNodes = new ColoredNodes<String, Integer>();
+        partialColoredNodes.addColor( "x", colors.iterator().next() );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( colors ).applyingBackJumpingAlgorithm( partialColoredNodes );
+        assertEquals( 3, coloredNodes.getRequiredColors() );
+        assertEquals( colors.iterator().next(), coloredNodes.getColor( "x" ) );
+        checkColoring( g, coloredNodes );
+    }
+
+    /**
+     * Builds the graph over the nodes {@code 0 ... size - 1} keeping the adjacency in the edges order,
+     * so that the search visits the nodes in a known order.
+     */
+    private static IndexedGraph<Integer> buildGraph( int size, List<int[]> edges )
+    {
+        final int[] degrees = new int[size];
+        for ( int[] edge : edges )
+        {
+            degrees[edge[0]]++;
+            degrees[edge[1]]++;
+        }
+        final int[] offsets = new int[size + 1];
+        for ( int node = 0; node < size; node++ )
+        {
+            offsets[node + 1] = offsets[node] + degrees[node];
+        }
+        final int[] neighbors = new int[offsets[size]];
+        final int[] positions = new int[size];
+        System.arraycopy( offsets, 0, positions, 0, size );
+        for ( int[] edge : edges )
+        {
+            neighbors[positions[edge[0]]++] = edge[1];
+            neighbors[positions[edge[1]]++] = edge[0];
+        }
+        return IndexedGraph.numbered( offsets, neighbors );
+    }
+
+    private static IndexedGraph<Integer> buildRandomGraph( int size, double density, long seed )
+    {
+        final Random random = new Random( seed );
+        final List<int[]> edges = new ArrayList<int[]>();
+        for ( int u = 0; u < size; u++ )
+        {
+            for ( int v = u + 1; v < size; v++ )
+            {
+                if ( random.nextDouble() < density )
+                {
+                    edges.add( new int[] { u, v } );
+                }
+            }
+        }
+        return buildGraph( size, edges );
+    }
+
+    private static int[] uncolored( int size )
+    {
+        final int[] nodeColors = new int[size];
+        fill( nodeColors, -1 );
+        return nodeColors;
+    }
+
+    private static void checkColoring( IndexedGraph<Integer> graph, int[] nodeColors )
+    {
+        final int[] offsets = graph.getOffsets();
+        final int[] neighbors = graph.getNeighbors();
+        for ( int node = 0; node < graph.size(); node++ )
+        {
+            assertTrue( nodeColors[node] >= 0 );
+            for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+            {
+                assertTrue( nodeColors[node] != nodeColors[neighbors[i]] );
+            }
+        }
+    }
+
+}
@@ -17,12 +17,15 @@ package org.nnsoft.trudeau.coloring;
  */
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
 import static org.nnsoft.trudeau.coloring.ColoringSolver.coloring;
 import static org.nnsoft.trudeau.connector.GraphConnector.populate;
 
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
+import java.util.Set;
 
 import org.junit.Test;
 import org.nnsoft.trudeau.connector.AbstractMutableGraphConnection;
@@ -201,6 +204,33 @@ public class GraphColoringBackTrackingTestCase
         checkColoring( g, coloredNodes );
     }
 
+    @Test( expected = NotEnoughColorsException.class )
+    public void testOddCrawnGraph()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildCrownGraph( 101, g );
+
+        coloring( g ).withColors( createColorsList( 2 ) ).applyingBackTrackingAlgorithm();
+    }
+
+    @Test
+    public void testLargeCrawnGraph()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildCrownGraph( 100000, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 2 ) ).applyingBackTrackingAlgorithm();
+        assertEquals( 2, coloredNodes.getRequiredColors() );
+        checkColoring( g, coloredNodes );
+    }
+
     @Test
     public void testSudoku()
         throws Exception
@@ -270,4 +300,106 @@ public class GraphColoringBackTrackingTestCase
         System.out.println( sb.toString() );
     }
 
+    @Test
+    public void testDisjointCompleteGraphs()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildDisjointCompleteGraphs( 100, 5, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 5 ) ).applyingBackTrackingAlgorithm();
+        assertEquals( 5, coloredNodes.getRequiredColors() );
+        checkColoring( g, coloredNodes );
+    }
+
+    @Test( expected = NotEnoughColorsException.class )
+    public void testDisjointCompleteGraphsNotEnoughColors()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildDisjointCompleteGraphs( 100, 5, g );
+
+        coloring( g ).withColors( createColorsList( 4 ) ).applyingBackTrackingAlgorithm();
+    }
+
+    @Test
+    public void testComponentsSplitByColoredNodes()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        // two triangles sharing the node 'x'
+        g.putEdge( "a", "b" );
+        g.putEdge( "a", "x" );
+        g.putEdge( "b", "x" );
+        g.putEdge( "c", "d" );
+        g.putEdge( "c", "x" );
+        g.putEdge( "d", "x" );
+
+        Set<Integer> colors = createColorsList( 3 );
+        ColoredNodes<String, Integer> partialColoredNodes = new ColoredNodes<String, Integer>();
+        partialColoredNodes.addColor( "x", colors.iterator().next() );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( colors ).applyingBackTrackingAlgorithm( partialColoredNodes );
+        assertEquals( 3, coloredNodes.getRequiredColors() );
+        assertEquals( colors.iterator().next(), coloredNodes.getColor( "x" ) );
+        checkColoring( g, coloredNodes );
+    }
+
+    @Test
+    public void testCliqueWitness()
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildCompleteGraph( 30, g );
+        g.putEdge( "0", "extra" );
+
+        try
+        {
+            coloring( g ).withColors( createColorsList( 29 ) ).applyingBackTrackingAlgorithm();
+            fail( "NotEnoughColorsException expected" );
+        }
+        catch ( NotEnoughColorsException e )
+        {
+            assertEquals( 30, e.getClique().size() );
+            assertFalse( e.getClique().contains( "extra" ) );
+        }
+    }
+
+    @Test( expected = NotEnoughColorsException.class )
+    public void testMycielskiGraphNotEnoughColors()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        // no triangles, so no clique rejects it in advance
+        buildMycielskiGraph( 5, g );
+
+        coloring( g ).withColors( createColorsList( 4 ) ).applyingBackTrackingAlgorithm();
+    }
+
+    @Test
+    public void testMycielskiGraph()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildMycielskiGraph( 5, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 5 ) ).applyingBackTrackingAlgorithm();
+        assertEquals( 5, coloredNodes.getRequiredColors() );
+        checkColoring( g, coloredNodes );
+    }
+
 }
@@ -0,0 +1,182 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.nnsoft.trudeau.coloring.ColoringSolver.coloring;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+
+/**
+ *
+ */
+public class GraphColoringBranchAndBoundTestCase
+    extends AbstractColoringTest
+{
+
+    @Test( expected = NullPointerException.class )
+    public void testNullGraph()
+        throws NotEnoughColorsException
+    {
+        coloring( null ).withColors( null ).applyingBranchAndBoundAlgorithm();
+    }
+
+    @Test
+    public void testEmptyGraph()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 1 ) ).applyingBranchAndBoundAlgorithm();
+        assertNotNull( coloredNodes );
+        assertEquals( 0, coloredNodes.getRequiredColors() );
+        assertEquals( ColoringStatus.OPTIMAL, coloredNodes.getStatus() );
+    }
+
+    @Test( expected = NotEnoughColorsException.class )
+    public void testNotEnoughtColorGraph()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildMycielskiGraph( 5, g );
+
+        coloring( g ).withColors( createColorsList( 4 ) ).applyingBranchAndBoundAlgorithm();
+    }
+
+    @Test
+    public void testCromaticNumberBiparted()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildBipartedGraph( 100, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 100 ) ).applyingBranchAndBoundAlgorithm();
+        assertEquals( 2, coloredNodes.getRequiredColors() );
+        assertEquals( ColoringStatus.OPTIMAL, coloredNodes.getStatus() );
+        checkColoring( g, coloredNodes );
+    }
+
+    @Test
+    public void testOddCrawnGraph()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildCrownGraph( 101, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 10 ) ).applyingBranchAndBoundAlgorithm();
+        assertEquals( 3, coloredNodes.getRequiredColors() );
+        assertEquals( ColoringStatus.OPTIMAL, coloredNodes.getStatus() );
+        checkColoring( g, coloredNodes );
+    }
+
+    @Test
+    public void testMycielskiGraph()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildMycielskiGraph( 5, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 10 ) ).applyingBranchAndBoundAlgorithm();
+        assertEquals( 5, coloredNodes.getRequiredColors() );
+        assertEquals( ColoringStatus.OPTIMAL, coloredNodes.getStatus() );
+        assertTrue( coloredNodes.getExploredNodes() > 0 );
+        checkColoring( g, coloredNodes );
+    }
+
+    @Test
+    public void testSudoku()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildSudokuGraph( g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 20 ) ).applyingBranchAndBoundAlgorithm();
+        assertEquals( 9, coloredNodes.getRequiredColors() );
+        assertEquals( ColoringStatus.OPTIMAL, coloredNodes.getStatus() );
+        checkColoring( g, coloredNodes );
+    }
+
+    @Test
+    public void testRandomGraph()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        Random random = new Random( 1 );
+        for ( int i = 0; i < 60; i++ )
+        {
+            g.addNode( String.valueOf( i ) );
+            for ( int j = 0; j < i; j++ )
+            {
+                if ( random.nextInt( 2 ) == 0 )
+                {
+                    g.putEdge( String.valueOf( i ), String.valueOf( j ) );
+                }
+            }
+        }
+
+        ColoredNodes<String, Integer> tabu =
+            coloring( g ).withColors( createColorsList( 60 ) ).applyingTabuSearchAlgorithm( 100000, 1 );
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 60 ) ).applyingBranchAndBoundAlgorithm();
+        assertTrue( coloredNodes.getRequiredColors() <= tabu.getRequiredColors() );
+        assertEquals( ColoringStatus.OPTIMAL, coloredNodes.getStatus() );
+        checkColoring( g, coloredNodes );
+    }
+
+    @Test
+    public void testBestSoFar()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildMycielskiGraph( 8, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 20 ) )
+                         .withDeadline( 50, TimeUnit.MILLISECONDS )
+                         .applyingBranchAndBoundAlgorithm();
+        assertEquals( ColoringStatus.FEASIBLE, coloredNodes.getStatus() );
+        checkColoring( g, coloredNodes );
+    }
+
+}
@@ -0,0 +1,191 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+import static org.junit.Assert.assertEquals;
+import static org.nnsoft.trudeau.coloring.ColoringSolver.coloring;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+
+/**
+ *
+ */
+public class GraphColoringDeadlineTestCase
+    extends AbstractColoringTest
+{
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testNegativeTimeout()
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+        coloring( g ).withColors( createColorsList( 1 ) ).withDeadline( -1, TimeUnit.MILLISECONDS );
+    }
+
+    @Test( expected = NullPointerException.class )
+    public void testNullToken()
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+        coloring( g ).withColors( createColorsList( 1 ) ).withCancellation( null );
+    }
+
+    @Test( expected = CancellationException.class )
+    public void testCancelledBackTracking()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildMycielskiGraph( 7, g );
+
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        coloring( g ).withColors( createColorsList( 6 ) ).withCancellation( token ).applyingBackTrackingAlgorithm();
+    }
+
+    @Test( expected = CancellationException.class )
+    public void testCancelledParallelBackTracking()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildMycielskiGraph( 7, g );
+
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        ForkJoinPool pool = new ForkJoinPool( 4 );
+        try
+        {
+            coloring( g ).withColors( createColorsList( 6 ) )
+                         .withCancellation( token )
+                         .applyingParallelBackTrackingAlgorithm( pool );
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    @Test( expected = NotEnoughColorsException.class )
+    public void testProofCompletedAfterCancellation()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        // the search proves there is no 3-coloring before checking the token
+        buildMycielskiGraph( 4, g );
+
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        coloring( g ).withColors( createColorsList( 3 ) ).withCancellation( token ).applyingBackTrackingAlgorithm();
+    }
+
+    @Test( expected = NotEnoughColorsException.class )
+    public void testBackJumpingProofCompletedAfterCancellation()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildMycielskiGraph( 4, g );
+
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        coloring( g ).withColors( createColorsList( 3 ) ).withCancellation( token ).applyingBackJumpingAlgorithm();
+    }
+
+    @Test( expected = CancellationException.class )
+    public void testBackTrackingDeadline()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildMycielskiGraph( 7, g );
+
+        coloring( g ).withColors( createColorsList( 6 ) )
+                     .withDeadline( 50, TimeUnit.MILLISECONDS )
+                     .applyingBackTrackingAlgorithm();
+    }
+
+    @Test
+    public void testBackTrackingHeuristicSeed()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildBipartedGraph( 100, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 2 ) )
+                         .withDeadline( 0, TimeUnit.MILLISECONDS )
+                         .applyingBackTrackingAlgorithm();
+        assertEquals( 2, coloredNodes.getRequiredColors() );
+        assertEquals( ColoringStatus.FEASIBLE, coloredNodes.getStatus() );
+        checkColoring( g, coloredNodes );
+    }
+
+    @Test
+    public void testMinimumColoringBestSoFar()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildMycielskiGraph( 6, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 20 ) )
+                         .withDeadline( 0, TimeUnit.MILLISECONDS )
+                         .applyingMinimumColoring();
+        assertEquals( ColoringStatus.FEASIBLE, coloredNodes.getStatus() );
+        checkColoring( g, coloredNodes );
+    }
+
+    @Test
+    public void testMinimumColoringOptimal()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildMycielskiGraph( 4, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 20 ) )
+                         .withDeadline( 1, TimeUnit.MINUTES )
+                         .applyingMinimumColoring();
+        assertEquals( 4, coloredNodes.getRequiredColors() );
+        assertEquals( ColoringStatus.OPTIMAL, coloredNodes.getStatus() );
+        checkColoring( g, coloredNodes );
+    }
+
+}
@@ -0,0 +1,217 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.nnsoft.trudeau.coloring.ColoringSolver.coloring;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+
+/**
+ *
+ */
+public class GraphColoringDimacsTestCase
+    extends AbstractColoringTest
+{
+
+    private static final int[][] MYCIEL3_EDGES = {
+        { 1, 2 }, { 1, 4 }, { 1, 7 }, { 1, 9 }, { 2, 3 }, { 2, 6 }, { 2, 8 }, { 3, 5 }, { 3, 7 }, { 3, 10 },
+        { 4, 5 }, { 4, 6 }, { 4, 10 }, { 5, 8 }, { 5, 9 }, { 6, 11 }, { 7, 11 }, { 8, 11 }, { 9, 11 }, { 10, 11 }
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test( expected = NullPointerException.class )
+    public void testNullFile()
+        throws IOException
+    {
+        Dimacs.read( null );
+    }
+
+    @Test
+    public void testReadMyciel3()
+        throws IOException
+    {
+        DimacsGraph graph = Dimacs.read( createMyciel3File() );
+
+        MutableGraph<Integer> expected = GraphBuilder.undirected().build();
+        for ( int[] edge : MYCIEL3_EDGES )
+        {
+            expected.putEdge( edge[0], edge[1] );
+        }
+
+        assertEquals( 11, graph.nodes().size() );
+        assertEquals( 20, graph.edges().size() );
+        assertEquals( ImmutableSet.of( 6, 7, 8, 9, 10 ), graph.adjacentNodes( 11 ) );
+        assertTrue( graph.hasEdgeConnecting( 3, 10 ) );
+        assertFalse( graph.hasEdgeConnecting( 3, 11 ) );
+        assertEquals( expected, graph );
+    }
+
+    @Test
+    public void testColorMyciel3()
+        throws IOException, NotEnoughColorsException
+    {
+        DimacsGraph graph = Dimacs.read( createMyciel3File() );
+
+        ColoredNodes<Integer, Integer> coloredNodes =
+            coloring( graph ).withColors( createColorsList( 4 ) ).applyingBackTrackingAlgorithm();
+        assertEquals( 4, coloredNodes.getRequiredColors() );
+        checkColoring( graph, coloredNodes );
+    }
+
+    @Test( expected = NotEnoughColorsException.class )
+    public void testColorMyciel3NotEnoughColors()
+        throws IOException, NotEnoughColorsException
+    {
+        DimacsGraph graph = Dimacs.read( createMyciel3File() );
+
+        coloring( graph ).withColors( createColorsList( 3 ) ).applyingBackTrackingAlgorithm();
+    }
+
+    @Test
+    public void testDuplicatedEdgesAndIsolatedNodes()
+        throws IOException
+    {
+        DimacsGraph graph = Dimacs.read( createFile( "p edge 5 4\ne 1 2\ne 2 1\ne 1 2\ne 3 4\n" ) );
+
+        assertEquals( 5, graph.nodes().size() );
+        assertEquals( 2, graph.edges().size() );
+        assertEquals( ImmutableSet.of( 2 ), graph.adjacentNodes( 1 ) );
+        assertTrue( graph.adjacentNodes( 5 ).isEmpty() );
+    }
+
+    @Test
+    public void testCommentsAndBlanks()
+        throws IOException
+    {
+        DimacsGraph graph =
+            Dimacs.read( createFile( "c a comment\r\n\r\np  col\t3 2\r\nc another comment\r\ne 1\t2\r\n\r\n  e 2 3" ) );
+
+        assertEquals( 3, graph.nodes().size() );
+        assertEquals( 2, graph.edges().size() );
+        assertEquals( ImmutableSet.of( 1, 3 ), graph.adjacentNodes( 2 ) );
+    }
+
+    @Test( expected = IOException.class )
+    public void testEdgeBeforeProblemLine()
+        throws IOException
+    {
+        Dimacs.read( createFile( "e 1 2\np edge 2 1\n" ) );
+    }
+
+    @Test( expected = IOException.class )
+    public void testNodeOutOfRange()
+        throws IOException
+    {
+        Dimacs.read( createFile( "p edge 2 1\ne 1 3\n" ) );
+    }
+
+    @Test( expected = IOException.class )
+    public void testMissingNode()
+        throws IOException
+    {
+        Dimacs.read( createFile( "p edge 2 1\ne 1\ne 1 2\n" ) );
+    }
+
+    @Test( expected = IOException.class )
+    public void testMissingProblemLine()
+        throws IOException
+    {
+        Dimacs.read( createFile( "c no problem line\n" ) );
+    }
+
+    @Test
+    public void testWriteColoring()
+        throws IOException, NotEnoughColorsException
+    {
+        DimacsGraph graph = Dimacs.read( createMyciel3File() );
+        ColoredNodes<Integer, Integer> coloredNodes =
+            coloring( graph ).withColors( createColorsList( 4 ) ).applyingDSaturAlgorithm();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Dimacs.write( graph, coloredNodes, output );
+
+        Map<Integer, Integer> colors = new HashMap<Integer, Integer>();
+        int declaredColors = -1;
+        for ( String line : output.toString( "US-ASCII" ).split( "\n" ) )
+        {
+            String[] fields = line.split( " " );
+            if ( "s".equals( fields[0] ) )
+            {
+                declaredColors = Integer.parseInt( fields[2] );
+            }
+            else if ( "l".equals( fields[0] ) )
+            {
+                colors.put( Integer.valueOf( fields[1] ), Integer.valueOf( fields[2] ) );
+            }
+        }
+
+        assertEquals( coloredNodes.getRequiredColors(), declaredColors );
+        assertEquals( graph.nodes(), colors.keySet() );
+        assertEquals( declaredColors, ImmutableSet.copyOf( colors.values() ).size() );
+        for ( int[] edge : MYCIEL3_EDGES )
+        {
+            assertFalse( colors.get( edge[0] ).equals( colors.get( edge[1] ) ) );
+        }
+    }
+
+    private File createMyciel3File()
+        throws IOException
+    {
+        StringBuilder content = new StringBuilder( "c myciel3.col\np edge 11 20\n" );
+        for ( int[] edge : MYCIEL3_EDGES )
+        {
+            content.append( "e " ).append( edge[0] ).append( ' ' ).append( edge[1] ).append( '\n' );
+        }
+        return createFile( content.toString() );
+    }
+
+    private File createFile( String content )
+        throws IOException
+    {
+        File file = folder.newFile();
+        OutputStream output = new FileOutputStream( file );
+        try
+        {
+            output.write( content.getBytes( "US-ASCII" ) );
+        }
+        finally
+        {
+            output.close();
+        }
+        return file;
+    }
+
+}
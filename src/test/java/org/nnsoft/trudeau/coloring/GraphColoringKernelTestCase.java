@@ -0,0 +1,168 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import static java.util.Arrays.fill;
+import static org.junit.Assert.assertEquals;
+import static org.nnsoft.trudeau.coloring.ColoringSolver.coloring;
+
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+
+/**
+ *
+ */
+public class GraphColoringKernelTestCase
+    extends AbstractColoringTest
+{
+
+    @Test
+    public void testTreesPeeled()
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildCompleteGraph( 6, g );
+        buildTree( "0", 1000, g );
+
+        Kernel kernel = reduce( g, 5 );
+        assertEquals( 6, kernel.getCore().size() );
+        assertEquals( 1000, kernel.getPeeledNodes() );
+    }
+
+    @Test
+    @SuppressWarnings( "unchecked" ) // the core of a Graph<String>
+    public void testCoreIndexesNodes()
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildCompleteGraph( 6, g );
+        buildTree( "0", 10, g );
+
+        IndexedGraph<String> core = (IndexedGraph<String>) reduce( g, 5 ).getCore();
+        for ( int index = 0; index < core.size(); index++ )
+        {
+            assertEquals( index, core.getIndex( core.getNode( index ) ) );
+        }
+        assertEquals( -1, core.getIndex( "t-1" ) );
+    }
+
+    @Test
+    public void testDominatedNodesPeeled()
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        // every node has degree 5, but nodes on the same side are interchangeable
+        buildBipartedGraph( 10, g );
+
+        Kernel kernel = reduce( g, 2 );
+        assertEquals( 0, kernel.getCore().size() );
+        assertEquals( 10, kernel.getPeeledNodes() );
+    }
+
+    @Test
+    public void testUnreducibleGraph()
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        // every node has degree 9 and no node is interchangeable with another
+        buildCompleteGraph( 10, g );
+
+        Kernel kernel = reduce( g, 9 );
+        assertEquals( 10, kernel.getCore().size() );
+        assertEquals( 0, kernel.getPeeledNodes() );
+    }
+
+    @Test
+    public void testTreesRestored()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildMycielskiGraph( 5, g );
+        buildTree( "0", 1000, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 5 ) ).applyingBackTrackingAlgorithm();
+        assertEquals( 5, coloredNodes.getRequiredColors() );
+        checkColoring( g, coloredNodes );
+    }
+
+    @Test( expected = NotEnoughColorsException.class )
+    public void testTreesNotEnoughColors()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildMycielskiGraph( 5, g );
+        buildTree( "0", 1000, g );
+
+        coloring( g ).withColors( createColorsList( 4 ) ).applyingBackJumpingAlgorithm();
+    }
+
+    @Test
+    public void testPredefinedNodesKept()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildCrownGraph( 20, g );
+        buildTree( "0", 100, g );
+
+        Set<Integer> colors = createColorsList( 3 );
+        ColoredNodes<String, Integer> partialColoredNodes = new ColoredNodes<String, Integer>();
+        partialColoredNodes.addColor( "t-2", 2 );
+        partialColoredNodes.addColor( "t-3", 2 );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( colors ).applyingBackJumpingAlgorithm( partialColoredNodes );
+        assertEquals( Integer.valueOf( 2 ), coloredNodes.getColor( "t-2" ) );
+        assertEquals( Integer.valueOf( 2 ), coloredNodes.getColor( "t-3" ) );
+        checkColoring( g, coloredNodes );
+    }
+
+    private static Kernel reduce( MutableGraph<String> g, int colorsCount )
+    {
+        IndexedGraph<String> graph = IndexedGraph.compile( g );
+        int[] nodeColors = new int[graph.size()];
+        fill( nodeColors, -1 );
+        return Kernel.reduce( graph, colorsCount, nodeColors );
+    }
+
+    /**
+     * Hangs a binary tree with the given number of nodes, named t-1 ... t-n, from the input node.
+     */
+    private static void buildTree( String root, int nNodes, MutableGraph<String> g )
+    {
+        g.putEdge( root, "t-1" );
+        for ( int i = 2; i <= nNodes; i++ )
+        {
+            g.putEdge( "t-" + ( i / 2 ), "t-" + i );
+        }
+    }
+
+}
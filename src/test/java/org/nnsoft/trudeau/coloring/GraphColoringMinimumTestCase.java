@@ -0,0 +1,205 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+import static java.util.Arrays.fill;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.nnsoft.trudeau.coloring.ColoringSolver.coloring;
+
+import org.junit.Test;
+
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+
+/**
+ *
+ */
+public class GraphColoringMinimumTestCase
+    extends AbstractColoringTest
+{
+
+    @Test( expected = NullPointerException.class )
+    public void testNullGraph()
+        throws NotEnoughColorsException
+    {
+        coloring( null ).withColors( null ).applyingMinimumColoring();
+    }
+
+    @Test
+    public void testEmptyGraph()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 1 ) ).applyingMinimumColoring();
+        assertNotNull( coloredNodes );
+        assertEquals( 0, coloredNodes.getRequiredColors() );
+    }
+
+    @Test( expected = NotEnoughColorsException.class )
+    public void testNotEnoughtColorGraph()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildCompleteGraph( 5, g );
+
+        coloring( g ).withColors( createColorsList( 4 ) ).applyingMinimumColoring();
+    }
+
+    @Test
+    public void testCromaticNumberComplete()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildCompleteGraph( 50, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 100 ) ).applyingMinimumColoring();
+        assertEquals( 50, coloredNodes.getRequiredColors() );
+        checkColoring( g, coloredNodes );
+    }
+
+    @Test
+    public void testCromaticNumberBiparted()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildBipartedGraph( 100, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 100 ) ).applyingMinimumColoring();
+        assertEquals( 2, coloredNodes.getRequiredColors() );
+        checkColoring( g, coloredNodes );
+    }
+
+    @Test
+    public void testOddCrawnGraph()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildCrownGraph( 101, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 10 ) ).applyingMinimumColoring();
+        assertEquals( 3, coloredNodes.getRequiredColors() );
+        checkColoring( g, coloredNodes );
+    }
+
+    @Test
+    public void testGrotzschGraph()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        // the Mycielskian of the 5-cycle: no triangles, but 4 colors are needed
+        buildCrownGraph( 5, g );
+        for ( int i = 0; i < 5; i++ )
+        {
+            String copy = "u" + i;
+            g.putEdge( copy, String.valueOf( ( i + 1 ) % 5 ) );
+            g.putEdge( copy, String.valueOf( ( i + 4 ) % 5 ) );
+            g.putEdge( copy, "w" );
+        }
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 10 ) ).applyingMinimumColoring();
+        assertEquals( 4, coloredNodes.getRequiredColors() );
+        checkColoring( g, coloredNodes );
+    }
+
+    @Test
+    public void testHintedSearchKeepsColorClasses()
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildMycielskiGraph( 6, g );
+        IndexedGraph<String> graph = IndexedGraph.compile( g );
+
+        int[] hint = DSaturColoring.color( graph, graph.getMaxDegree() + 1 );
+        assertNotNull( hint );
+        int colorsCount = 0;
+        for ( int color : hint )
+        {
+            colorsCount = Math.max( colorsCount, color + 1 );
+        }
+
+        int[] nodeColors = new int[graph.size()];
+        fill( nodeColors, -1 );
+        SearchCounters counters = new SearchCounters();
+        BacktrackingSearch search = new BacktrackingSearch( graph, colorsCount, nodeColors );
+        search.setHint( hint );
+        search.setCounters( counters );
+        assertTrue( search.solve() );
+
+        // the hinted coloring is found straight away, its classes renamed at most
+        assertEquals( 0, counters.backtracks );
+        int[] renamed = new int[colorsCount];
+        fill( renamed, -1 );
+        for ( int node = 0; node < graph.size(); node++ )
+        {
+            if ( renamed[hint[node]] == -1 )
+            {
+                renamed[hint[node]] = nodeColors[node];
+            }
+            assertEquals( renamed[hint[node]], nodeColors[node] );
+        }
+    }
+
+    @Test
+    public void testDisjointCompleteGraphs()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildDisjointCompleteGraphs( 100, 5, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 10 ) ).applyingMinimumColoring();
+        assertEquals( 5, coloredNodes.getRequiredColors() );
+        checkColoring( g, coloredNodes );
+    }
+
+    @Test
+    public void testSudoku()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildSudokuGraph( g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 20 ) ).applyingMinimumColoring();
+        assertEquals( 9, coloredNodes.getRequiredColors() );
+        checkColoring( g, coloredNodes );
+    }
+
+}
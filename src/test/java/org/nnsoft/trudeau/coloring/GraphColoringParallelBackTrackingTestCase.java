@@ -0,0 +1,199 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+import static org.nnsoft.trudeau.coloring.ColoringSolver.coloring;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+
+/**
+ *
+ */
+public class GraphColoringParallelBackTrackingTestCase
+    extends AbstractColoringTest
+{
+
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp()
+    {
+        pool = new ForkJoinPool( 4 );
+    }
+
+    @After
+    public void tearDown()
+    {
+        pool.shutdown();
+    }
+
+    @Test( expected = NullPointerException.class )
+    public void testNullPool()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+        coloring( g ).withColors( createColorsList( 1 ) ).applyingParallelBackTrackingAlgorithm( null );
+    }
+
+    @Test
+    public void testEmptyGraph()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 1 ) ).applyingParallelBackTrackingAlgorithm( pool );
+        assertNotNull( coloredNodes );
+        assertEquals( 0, coloredNodes.getRequiredColors() );
+    }
+
+    @Test( expected = NotEnoughColorsException.class )
+    public void testOddCrawnGraph()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+        buildCrownGraph( 101, g );
+
+        coloring( g ).withColors( createColorsList( 2 ) ).applyingParallelBackTrackingAlgorithm( pool );
+    }
+
+    @Test
+    public void testCromaticNumberBiparted()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g1 =
+            GraphBuilder.undirected().build();
+        buildBipartedGraph( 100, g1 );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g1 ).withColors( createColorsList( 2 ) ).applyingParallelBackTrackingAlgorithm( pool );
+        assertEquals( 2, coloredNodes.getRequiredColors() );
+        checkColoring( g1, coloredNodes );
+    }
+
+    @Test
+    public void testSudokuWithConstraints()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g1 =
+            GraphBuilder.undirected().build();
+        String[][] grid = buildSudokuGraph( g1 );
+
+        ColoredNodes<String, Integer> predefinedColor = new ColoredNodes<String, Integer>();
+        predefinedColor.addColor( grid[0][0], 1 );
+        predefinedColor.addColor( grid[5][5], 8 );
+        predefinedColor.addColor( grid[1][2], 5 );
+
+        ColoredNodes<String, Integer> sudoku =
+            coloring( g1 ).withColors( createColorsList( 9 ) ).applyingParallelBackTrackingAlgorithm( pool, predefinedColor );
+        checkColoring( g1, sudoku );
+        assertEquals( 9, sudoku.getRequiredColors() );
+        assertEquals( new Integer( 1 ), sudoku.getColor( grid[0][0] ) );
+        assertEquals( new Integer( 8 ), sudoku.getColor( grid[5][5] ) );
+        assertEquals( new Integer( 5 ), sudoku.getColor( grid[1][2] ) );
+    }
+
+    @Test
+    public void testDisjointCompleteGraphs()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildDisjointCompleteGraphs( 100, 5, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 5 ) ).applyingParallelBackTrackingAlgorithm( pool );
+        assertEquals( 5, coloredNodes.getRequiredColors() );
+        checkColoring( g, coloredNodes );
+    }
+
+    @Test( expected = NotEnoughColorsException.class )
+    public void testDisjointCompleteGraphsNotEnoughColors()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildDisjointCompleteGraphs( 100, 5, g );
+
+        coloring( g ).withColors( createColorsList( 4 ) ).applyingParallelBackTrackingAlgorithm( pool );
+    }
+
+    @Test
+    public void testCliqueWitness()
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildCompleteGraph( 30, g );
+        g.putEdge( "0", "extra" );
+
+        try
+        {
+            coloring( g ).withColors( createColorsList( 29 ) ).applyingParallelBackTrackingAlgorithm( pool );
+            fail( "NotEnoughColorsException expected" );
+        }
+        catch ( NotEnoughColorsException e )
+        {
+            assertEquals( 30, e.getClique().size() );
+            assertFalse( e.getClique().contains( "extra" ) );
+        }
+    }
+
+    @Test( expected = NotEnoughColorsException.class )
+    public void testMycielskiGraphNotEnoughColors()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        // no triangles, so no clique rejects it in advance
+        buildMycielskiGraph( 5, g );
+
+        coloring( g ).withColors( createColorsList( 4 ) ).applyingParallelBackTrackingAlgorithm( pool );
+    }
+
+    @Test
+    public void testMycielskiGraph()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildMycielskiGraph( 5, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 5 ) ).applyingParallelBackTrackingAlgorithm( pool );
+        assertEquals( 5, coloredNodes.getRequiredColors() );
+        checkColoring( g, coloredNodes );
+    }
+
+}
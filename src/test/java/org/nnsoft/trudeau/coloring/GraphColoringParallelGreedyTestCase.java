@@ -0,0 +1,134 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.nnsoft.trudeau.coloring.ColoringSolver.coloring;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+
+/**
+ *
+ */
+public class GraphColoringParallelGreedyTestCase
+    extends AbstractColoringTest
+{
+
+    private static final long SEED = 42L;
+
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp()
+    {
+        pool = new ForkJoinPool( 4 );
+    }
+
+    @After
+    public void tearDown()
+    {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testEmptyGraph()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 1 ) ).applyingParallelGreedyAlgorithm( pool, SEED );
+        assertNotNull( coloredNodes );
+        assertEquals( 0, coloredNodes.getRequiredColors() );
+    }
+
+    @Test( expected = NotEnoughColorsException.class )
+    public void testNotEnoughtColorGraph()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g1 =
+            GraphBuilder.undirected().build();
+        buildCompleteGraph( 10, g1 );
+
+        coloring( g1 ).withColors( createColorsList( 9 ) ).applyingParallelGreedyAlgorithm( pool, SEED );
+    }
+
+    @Test
+    public void testCromaticNumberComplete()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g1 =
+            GraphBuilder.undirected().build();
+        buildCompleteGraph( 100, g1 );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g1 ).withColors( createColorsList( 100 ) ).applyingParallelGreedyAlgorithm( pool, SEED );
+        assertEquals( 100, coloredNodes.getRequiredColors() );
+        checkColoring( g1, coloredNodes );
+    }
+
+    @Test
+    public void testCromaticNumberBiparted()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g1 =
+            GraphBuilder.undirected().build();
+        buildBipartedGraph( 100, g1 );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g1 ).withColors( createColorsList( 2 ) ).applyingParallelGreedyAlgorithm( pool, SEED );
+        assertEquals( 2, coloredNodes.getRequiredColors() );
+        checkColoring( g1, coloredNodes );
+    }
+
+    @Test
+    public void testSameSeedSameColoring()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g1 =
+            GraphBuilder.undirected().build();
+        buildSudokuGraph( g1 );
+
+        ColoredNodes<String, Integer> expected =
+            coloring( g1 ).withColors( createColorsList( 81 ) ).applyingParallelGreedyAlgorithm( pool, SEED );
+        checkColoring( g1, expected );
+
+        ForkJoinPool singleThreadPool = new ForkJoinPool( 1 );
+        try
+        {
+            ColoredNodes<String, Integer> actual =
+                coloring( g1 ).withColors( createColorsList( 81 ) ).applyingParallelGreedyAlgorithm( singleThreadPool, SEED );
+            for ( String node : g1.nodes() )
+            {
+                assertEquals( expected.getColor( node ), actual.getColor( node ) );
+            }
+        }
+        finally
+        {
+            singleThreadPool.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,184 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.nnsoft.trudeau.coloring.ColoringSolver.coloring;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+
+/**
+ *
+ */
+public class GraphColoringTabuSearchTestCase
+    extends AbstractColoringTest
+{
+
+    @Test( expected = NullPointerException.class )
+    public void testNullGraph()
+        throws NotEnoughColorsException
+    {
+        coloring( null ).withColors( null ).applyingTabuSearchAlgorithm( 1000, 1 );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testNegativeIterations()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+        coloring( g ).withColors( createColorsList( 1 ) ).applyingTabuSearchAlgorithm( -1, 1 );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testTooLargeMatrices()
+    {
+        // 100000 nodes with 30000 colors overflow an int
+        TabuSearch.cells( 100000, 30000 );
+    }
+
+    @Test
+    public void testLargestMatrices()
+    {
+        assertEquals( TabuSearch.MAX_CELLS, TabuSearch.cells( TabuSearch.MAX_CELLS, 1 ) );
+        assertEquals( 1500000000, TabuSearch.cells( 1000000, 1500 ) );
+    }
+
+    @Test
+    public void testEmptyGraph()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 1 ) ).applyingTabuSearchAlgorithm( 1000, 1 );
+        assertNotNull( coloredNodes );
+        assertEquals( 0, coloredNodes.getRequiredColors() );
+    }
+
+    @Test( expected = NotEnoughColorsException.class )
+    public void testNotEnoughtColorGraph()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildCompleteGraph( 5, g );
+
+        coloring( g ).withColors( createColorsList( 4 ) ).applyingTabuSearchAlgorithm( 1000, 1 );
+    }
+
+    @Test
+    public void testCromaticNumberBiparted()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildBipartedGraph( 100, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 100 ) ).applyingTabuSearchAlgorithm( 1000, 1 );
+        assertEquals( 2, coloredNodes.getRequiredColors() );
+        assertEquals( ColoringStatus.OPTIMAL, coloredNodes.getStatus() );
+        checkColoring( g, coloredNodes );
+    }
+
+    @Test
+    public void testOddCrawnGraph()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildCrownGraph( 101, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 10 ) ).applyingTabuSearchAlgorithm( 10000, 1 );
+        assertEquals( 3, coloredNodes.getRequiredColors() );
+        checkColoring( g, coloredNodes );
+    }
+
+    @Test
+    public void testSudoku()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildSudokuGraph( g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 20 ) ).applyingTabuSearchAlgorithm( 100000, 1 );
+        assertEquals( 9, coloredNodes.getRequiredColors() );
+        assertEquals( ColoringStatus.OPTIMAL, coloredNodes.getStatus() );
+        checkColoring( g, coloredNodes );
+    }
+
+    @Test
+    public void testRandomGraph()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        Random random = new Random( 1 );
+        for ( int i = 0; i < 200; i++ )
+        {
+            g.addNode( String.valueOf( i ) );
+            for ( int j = 0; j < i; j++ )
+            {
+                if ( random.nextInt( 2 ) == 0 )
+                {
+                    g.putEdge( String.valueOf( i ), String.valueOf( j ) );
+                }
+            }
+        }
+
+        ColoredNodes<String, Integer> dsatur =
+            coloring( g ).withColors( createColorsList( 200 ) ).applyingDSaturAlgorithm();
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 200 ) ).applyingTabuSearchAlgorithm( 100000, 1 );
+        assertTrue( coloredNodes.getRequiredColors() < dsatur.getRequiredColors() );
+        checkColoring( g, coloredNodes );
+    }
+
+    @Test
+    public void testNoIterations()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+
+        buildSudokuGraph( g );
+
+        ColoredNodes<String, Integer> dsatur =
+            coloring( g ).withColors( createColorsList( 20 ) ).applyingDSaturAlgorithm();
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 20 ) ).applyingTabuSearchAlgorithm( 0, 1 );
+        assertTrue( coloredNodes.getRequiredColors() <= dsatur.getRequiredColors() );
+        checkColoring( g, coloredNodes );
+    }
+
+}
@@ -16,11 +16,18 @@ package org.nnsoft.trudeau.coloring;
  *   limitations under the License.
  */
 
+import static java.util.Collections.disjoint;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.nnsoft.trudeau.coloring.ColoringSolver.coloring;
 import static org.nnsoft.trudeau.connector.GraphConnector.populate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 
 import org.junit.Test;
@@ -148,6 +155,101 @@ public class GraphColoringTestCase extends AbstractColoringTest
         checkColoring( g1, coloredNodes );
     }
 
+    @Test
+    public void testFirstFitMatchesClassByClassGreedy()
+        throws NotEnoughColorsException
+    {
+        for ( long seed = 0; seed < 5; seed++ )
+        {
+            MutableGraph<Integer> g =
+                GraphBuilder.undirected().build();
+            Random random = new Random( seed );
+            for ( int u = 0; u < 200; u++ )
+            {
+                g.addNode( u );
+                for ( int v = 0; v < u; v++ )
+                {
+                    if ( random.nextDouble() < 0.1 )
+                    {
+                        g.putEdge( u, v );
+                    }
+                }
+            }
+
+            ColoredNodes<Integer, Integer> coloredNodes =
+                            coloring( g ).withColors( colors ).applyingGreedyAlgorithm();
+
+            // the reference opens one color at a time, filling it over the same largest first order
+            IndexedGraph<Integer> indexed = IndexedGraph.compile( g );
+            int[] order = NodeOrdering.LARGEST_FIRST.order( indexed );
+            List<Integer> palette = new ArrayList<Integer>( colors );
+            Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+            for ( int color = 0; expected.size() < g.nodes().size(); color++ )
+            {
+                Set<Integer> colorClass = new HashSet<Integer>();
+                for ( int index : order )
+                {
+                    Integer node = indexed.getNode( index );
+                    if ( !expected.containsKey( node ) && disjoint( g.adjacentNodes( node ), colorClass ) )
+                    {
+                        colorClass.add( node );
+                        expected.put( node, palette.get( color ) );
+                    }
+                }
+            }
+
+            Map<Integer, Integer> actual = new HashMap<Integer, Integer>();
+            for ( Integer node : g.nodes() )
+            {
+                actual.put( node, coloredNodes.getColor( node ) );
+            }
+            assertEquals( expected, actual );
+        }
+    }
+
+    @Test
+    public void testCromaticNumberBipartedSmallestLast()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g1 =
+            GraphBuilder.undirected().build();
+        buildBipartedGraph( 100, g1 );
+
+        ColoredNodes<String, Integer> coloredNodes =
+                        coloring( g1 ).withColors( createColorsList( 2 ) ).applyingGreedyAlgorithm( NodeOrdering.SMALLEST_LAST );
+
+        assertEquals( 2, coloredNodes.getRequiredColors() );
+        checkColoring( g1, coloredNodes );
+    }
+
+    @Test
+    public void testCromaticNumberBipartedIncidenceDegree()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g1 =
+            GraphBuilder.undirected().build();
+        buildBipartedGraph( 100, g1 );
+
+        ColoredNodes<String, Integer> coloredNodes =
+                        coloring( g1 ).withColors( createColorsList( 2 ) ).applyingGreedyAlgorithm( NodeOrdering.INCIDENCE_DEGREE );
+
+        assertEquals( 2, coloredNodes.getRequiredColors() );
+        checkColoring( g1, coloredNodes );
+    }
+
+    @Test
+    public void testSudokuSmallestLast()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g1 =
+            GraphBuilder.undirected().build();
+        buildSudokuGraph( g1 );
+
+        ColoredNodes<String, Integer> sudoku =
+                        coloring( g1 ).withColors( colors ).applyingGreedyAlgorithm( NodeOrdering.SMALLEST_LAST );
+        checkColoring( g1, sudoku );
+    }
+
     @Test
     public void testCromaticNumberSparseGraph()
         throws NotEnoughColorsException
@@ -0,0 +1,192 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.nnsoft.trudeau.coloring.ColoringSolver.coloring;
+
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+
+/**
+ *
+ */
+public class IncrementalColoringTestCase
+    extends AbstractColoringTest
+{
+
+    @Test( expected = NullPointerException.class )
+    public void testNullColoredNodes()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+        coloring( g ).withColors( createColorsList( 1 ) ).maintaining( null );
+    }
+
+    @Test
+    public void testAddConflictingEdge()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+        buildCrownGraph( 6, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 3 ) ).applyingDSaturAlgorithm();
+        IncrementalColoring<String, Integer> session =
+            coloring( g ).withColors( createColorsList( 3 ) ).maintaining( coloredNodes );
+
+        // "0" and "2" share the same color in any 2-coloring of the crown
+        Set<String> changed = session.addEdge( "0", "2" );
+        g.putEdge( "0", "2" );
+
+        assertEquals( 1, changed.size() );
+        assertNotEquals( coloredNodes.getColor( "0" ), coloredNodes.getColor( "2" ) );
+        checkColoring( g, session.getColoredNodes() );
+    }
+
+    @Test
+    public void testRecolorBlockers()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+        g.putEdge( "x", "a" );
+        g.putEdge( "x", "b" );
+        g.putEdge( "y", "c" );
+        g.putEdge( "y", "d" );
+
+        ColoredNodes<String, Integer> coloredNodes = new ColoredNodes<String, Integer>();
+        coloredNodes.addColor( "x", 0 );
+        coloredNodes.addColor( "y", 0 );
+        coloredNodes.addColor( "a", 1 );
+        coloredNodes.addColor( "b", 2 );
+        coloredNodes.addColor( "c", 1 );
+        coloredNodes.addColor( "d", 2 );
+
+        IncrementalColoring<String, Integer> session =
+            coloring( g ).withColors( createColorsList( 3 ) ).maintaining( coloredNodes );
+
+        // neither "x" nor "y" has a free color, "a" has to move away first
+        Set<String> changed = session.addEdge( "x", "y" );
+        g.putEdge( "x", "y" );
+
+        assertEquals( 2, changed.size() );
+        assertTrue( changed.contains( "a" ) );
+        assertTrue( changed.contains( "x" ) );
+        checkColoring( g, coloredNodes );
+    }
+
+    @Test( expected = NotEnoughColorsException.class )
+    public void testNotEnoughtColors()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+        buildCompleteGraph( 3, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 3 ) ).applyingDSaturAlgorithm();
+        IncrementalColoring<String, Integer> session =
+            coloring( g ).withColors( createColorsList( 3 ) ).maintaining( coloredNodes );
+
+        session.addEdge( "0", "3" );
+        session.addEdge( "1", "3" );
+        session.addEdge( "2", "3" );
+    }
+
+    @Test
+    public void testRemoveNode()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+        buildCompleteGraph( 3, g );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 3 ) ).applyingDSaturAlgorithm();
+        IncrementalColoring<String, Integer> session =
+            coloring( g ).withColors( createColorsList( 3 ) ).maintaining( coloredNodes );
+
+        assertTrue( session.removeNode( "2" ).isEmpty() );
+        assertFalse( coloredNodes.containsColoredNode( "2" ) );
+        assertEquals( 2, coloredNodes.getRequiredColors() );
+
+        session.addEdge( "0", "3" );
+        session.addEdge( "1", "3" );
+        assertTrue( coloredNodes.containsColoredNode( "3" ) );
+        assertNotEquals( coloredNodes.getColor( "0" ), coloredNodes.getColor( "3" ) );
+        assertNotEquals( coloredNodes.getColor( "1" ), coloredNodes.getColor( "3" ) );
+    }
+
+    @Test
+    public void testForeignColorsDoNotConflict()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+        g.addNode( "a" );
+        g.addNode( "b" );
+
+        ColoredNodes<String, Integer> coloredNodes = new ColoredNodes<String, Integer>();
+        coloredNodes.addColor( "a", 100 );
+        coloredNodes.addColor( "b", 200 );
+        IncrementalColoring<String, Integer> session =
+            coloring( g ).withColors( createColorsList( 2 ) ).maintaining( coloredNodes );
+
+        assertTrue( session.addEdge( "a", "b" ).isEmpty() );
+        assertEquals( 100, coloredNodes.getColor( "a" ).intValue() );
+        assertEquals( 200, coloredNodes.getColor( "b" ).intValue() );
+    }
+
+    @Test
+    public void testFailedEdgeDoesNotAddNodes()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g =
+            GraphBuilder.undirected().build();
+        g.addNode( "x" );
+
+        ColoredNodes<String, Integer> coloredNodes =
+            coloring( g ).withColors( createColorsList( 1 ) ).applyingGreedyAlgorithm();
+        IncrementalColoring<String, Integer> session =
+            coloring( g ).withColors( createColorsList( 1 ) ).maintaining( coloredNodes );
+
+        try
+        {
+            session.addEdge( "x", "w" );
+            fail( "Two connected nodes can not share the only color" );
+        }
+        catch ( NotEnoughColorsException e )
+        {
+            // expected
+        }
+
+        assertFalse( coloredNodes.containsColoredNode( "w" ) );
+        assertTrue( coloredNodes.containsColoredNode( "x" ) );
+        assertTrue( session.addNode( "w" ).contains( "w" ) );
+    }
+
+}
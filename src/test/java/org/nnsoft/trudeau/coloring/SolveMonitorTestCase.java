@@ -0,0 +1,216 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.nnsoft.trudeau.coloring.ColoringSolver.coloring;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+
+/**
+ *
+ */
+public class SolveMonitorTestCase
+    extends AbstractColoringTest
+{
+
+    private static final String EVENT_NAME = "org.nnsoft.trudeau.coloring.Solve";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testColoredSolves()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g = GraphBuilder.undirected().build();
+        buildCrownGraph( 100, g );
+
+        SolverMXBean mbean = SolveMonitor.getMXBean( ColoringAlgorithm.DSATUR );
+        long solves = mbean.getSolves();
+        long colored = mbean.getColored();
+
+        coloring( g ).withColors( createColorsList( 3 ) ).applyingDSaturAlgorithm();
+        coloring( g ).withColors( createColorsList( 3 ) ).applyingDSaturAlgorithm();
+
+        assertEquals( "DSATUR", mbean.getAlgorithm() );
+        assertEquals( solves + 2, mbean.getSolves() );
+        assertEquals( colored + 2, mbean.getColored() );
+        assertTrue( mbean.getMaxLatencyMillis() >= mbean.getMeanLatencyMillis() );
+        assertTrue( mbean.get99thPercentileLatencyMillis() >= mbean.getMedianLatencyMillis() );
+
+        long histogramSolves = 0;
+        for ( long count : mbean.getLatencyHistogram() )
+        {
+            histogramSolves += count;
+        }
+        assertEquals( mbean.getSolves(), histogramSolves );
+        assertEquals( mbean.getLatencyHistogram().length, mbean.getLatencyBucketBoundsMicros().length );
+    }
+
+    @Test
+    public void testNotEnoughColorsSolves()
+    {
+        MutableGraph<String> g = GraphBuilder.undirected().build();
+        buildCompleteGraph( 5, g );
+
+        SolverMXBean mbean = SolveMonitor.getMXBean( ColoringAlgorithm.BACKTRACKING );
+        long solves = mbean.getSolves();
+        long notEnoughColors = mbean.getNotEnoughColors();
+
+        try
+        {
+            coloring( g ).withColors( createColorsList( 4 ) ).applyingBackTrackingAlgorithm();
+            fail( "K5 can not be colored with 4 colors" );
+        }
+        catch ( NotEnoughColorsException e )
+        {
+            // expected
+        }
+
+        assertEquals( solves + 1, mbean.getSolves() );
+        assertEquals( notEnoughColors + 1, mbean.getNotEnoughColors() );
+        assertTrue( mbean.getNotEnoughColorsRate() > 0 );
+    }
+
+    @Test
+    public void testInterruptedSolves()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g = GraphBuilder.undirected().build();
+        buildMycielskiGraph( 5, g );
+
+        SolverMXBean mbean = SolveMonitor.getMXBean( ColoringAlgorithm.BACKTRACKING );
+        long interrupted = mbean.getInterrupted();
+
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        try
+        {
+            coloring( g ).withColors( createColorsList( 4 ) ).withCancellation( token ).applyingBackTrackingAlgorithm();
+            fail( "The search has been cancelled before starting" );
+        }
+        catch ( CancellationException e )
+        {
+            // expected
+        }
+
+        assertEquals( interrupted + 1, mbean.getInterrupted() );
+    }
+
+    @Test
+    public void testRegisteredMXBeans()
+        throws Exception
+    {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        for ( ColoringAlgorithm algorithm : ColoringAlgorithm.values() )
+        {
+            ObjectName name =
+                new ObjectName( "org.nnsoft.trudeau.coloring:type=Solver,algorithm=" + algorithm.name() );
+            assertTrue( server.isRegistered( name ) );
+            assertEquals( algorithm.name(), server.getAttribute( name, "Algorithm" ) );
+        }
+    }
+
+    @Test
+    public void testFlightRecorderEvents()
+        throws Exception
+    {
+        MutableGraph<String> g = GraphBuilder.undirected().build();
+        buildCompleteGraph( 5, g );
+
+        File dump = folder.newFile( "solves.jfr" );
+        Recording recording = new Recording();
+        try
+        {
+            recording.enable( EVENT_NAME ).withThreshold( Duration.ZERO );
+            recording.start();
+
+            coloring( g ).withColors( createColorsList( 5 ) ).applyingGreedyAlgorithm();
+            try
+            {
+                coloring( g ).withColors( createColorsList( 4 ) ).applyingDSaturAlgorithm();
+            }
+            catch ( NotEnoughColorsException e )
+            {
+                // expected
+            }
+
+            recording.stop();
+            recording.dump( dump.toPath() );
+        }
+        finally
+        {
+            recording.close();
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents( dump.toPath() );
+        assertEquals( 2, events.size() );
+
+        RecordedEvent greedy = events.get( 0 );
+        assertEquals( "GREEDY", greedy.getString( "algorithm" ) );
+        assertEquals( 5, greedy.getInt( "nodes" ) );
+        assertEquals( 10, greedy.getLong( "edges" ) );
+        assertEquals( 5, greedy.getInt( "colors" ) );
+        assertEquals( 5, greedy.getInt( "requiredColors" ) );
+        assertEquals( "COLORED", greedy.getString( "outcome" ) );
+        assertTrue( greedy.getDuration().toNanos() >= 0 );
+
+        RecordedEvent dsatur = events.get( 1 );
+        assertEquals( "DSATUR", dsatur.getString( "algorithm" ) );
+        assertEquals( "NOT_ENOUGH_COLORS", dsatur.getString( "outcome" ) );
+    }
+
+    @Test
+    public void testDisabledEventsAreNotRecorded()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g = GraphBuilder.undirected().build();
+        buildCompleteGraph( 3, g );
+
+        SolverMXBean mbean = SolveMonitor.getMXBean( ColoringAlgorithm.GREEDY );
+        long solves = mbean.getSolves();
+
+        // no recording running, the aggregates are updated anyway
+        coloring( g ).withColors( createColorsList( 3 ) ).applyingGreedyAlgorithm();
+
+        assertEquals( solves + 1, mbean.getSolves() );
+        assertTrue( mbean.getLatencyPercentileMillis( 50 ) <= mbean.getLatencyPercentileMillis( 100 ) );
+    }
+
+}
@@ -0,0 +1,201 @@
+package org.nnsoft.trudeau.coloring;
+
+/*
+ *   Copyright 2013 - 2018 The Trudeau Project
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.nnsoft.trudeau.coloring.ColoringSolver.coloring;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+
+/**
+ *
+ */
+public class SolverStatsTestCase
+    extends AbstractColoringTest
+{
+
+    @Test( expected = NullPointerException.class )
+    public void testNullStats()
+    {
+        MutableGraph<String> g = GraphBuilder.undirected().build();
+
+        coloring( g ).withColors( createColorsList( 2 ) ).withStatistics( null );
+    }
+
+    @Test
+    public void testGreedyCounters()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g = GraphBuilder.undirected().build();
+        buildCrownGraph( 100, g );
+
+        SolverStats stats = new SolverStats();
+        coloring( g ).withColors( createColorsList( 3 ) ).withStatistics( stats ).applyingGreedyAlgorithm();
+
+        assertEquals( 1, stats.getRuns() );
+        assertEquals( 100, stats.getVisitedNodes() );
+        assertTrue( stats.getColorAttempts() >= 100 );
+        // every edge is checked from both its nodes
+        assertEquals( 200, stats.getConflictChecks() );
+        assertEquals( 0, stats.getBacktracks() );
+        assertEquals( 0, stats.getExploredNodes() );
+    }
+
+    @Test
+    public void testHeuristicsCounters()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g = GraphBuilder.undirected().build();
+        buildBipartedGraph( 100, g );
+
+        SolverStats stats = new SolverStats();
+        ColoringAlgorithmsSelector<String, Integer> selector =
+            coloring( g ).withColors( createColorsList( 2 ) ).withStatistics( stats );
+
+        selector.applyingDSaturAlgorithm();
+        assertEquals( 100, stats.getVisitedNodes() );
+
+        selector.applyingRecursiveLargestFirstAlgorithm();
+        assertEquals( 200, stats.getVisitedNodes() );
+
+        ForkJoinPool pool = new ForkJoinPool( 4 );
+        try
+        {
+            selector.applyingParallelGreedyAlgorithm( pool, 42 );
+        }
+        catch ( NotEnoughColorsException e )
+        {
+            // the random order may need more than two colors, the nodes have been visited anyway
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+        assertTrue( stats.getVisitedNodes() > 200 );
+        assertEquals( 3, stats.getRuns() );
+        assertTrue( stats.getPhaseTime( SolverPhase.HEURISTIC, TimeUnit.NANOSECONDS ) > 0 );
+        assertEquals( 0, stats.getPhaseTime( SolverPhase.SEARCH, TimeUnit.NANOSECONDS ) );
+    }
+
+    @Test
+    public void testFailedSearchCounters()
+    {
+        MutableGraph<String> g = GraphBuilder.undirected().build();
+        buildMycielskiGraph( 5, g );
+
+        SolverStats stats = new SolverStats();
+        try
+        {
+            coloring( g ).withColors( createColorsList( 4 ) ).withStatistics( stats ).applyingBackTrackingAlgorithm();
+        }
+        catch ( NotEnoughColorsException e )
+        {
+            // expected
+        }
+
+        assertEquals( 1, stats.getRuns() );
+        assertTrue( stats.getExploredNodes() > 0 );
+        assertTrue( stats.getBacktracks() > 0 );
+        assertTrue( stats.getConflictChecks() > 0 );
+        assertTrue( stats.getPhaseTime( SolverPhase.SEARCH, TimeUnit.NANOSECONDS ) > 0 );
+        assertTrue( stats.getTotalTime( TimeUnit.NANOSECONDS )
+            >= stats.getPhaseTime( SolverPhase.SEARCH, TimeUnit.NANOSECONDS ) );
+    }
+
+    @Test
+    public void testBackJumpingExploresLess()
+    {
+        MutableGraph<String> g = GraphBuilder.undirected().build();
+        buildMycielskiGraph( 5, g );
+
+        SolverStats chronological = new SolverStats();
+        SolverStats backJumping = new SolverStats();
+        try
+        {
+            coloring( g ).withColors( createColorsList( 4 ) ).withStatistics( chronological )
+                .applyingBackTrackingAlgorithm();
+        }
+        catch ( NotEnoughColorsException e )
+        {
+            // expected
+        }
+        try
+        {
+            coloring( g ).withColors( createColorsList( 4 ) ).withStatistics( backJumping )
+                .applyingBackJumpingAlgorithm();
+        }
+        catch ( NotEnoughColorsException e )
+        {
+            // expected
+        }
+
+        assertTrue( backJumping.getExploredNodes() > 0 );
+        assertTrue( backJumping.getExploredNodes() <= chronological.getExploredNodes() );
+    }
+
+    @Test
+    public void testParallelSearchCounters()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g = GraphBuilder.undirected().build();
+        buildMycielskiGraph( 5, g );
+
+        SolverStats stats = new SolverStats();
+        ForkJoinPool pool = new ForkJoinPool( 4 );
+        try
+        {
+            ColoredNodes<String, Integer> coloredNodes = coloring( g ).withColors( createColorsList( 5 ) )
+                .withStatistics( stats ).applyingParallelBackTrackingAlgorithm( pool );
+            checkColoring( g, coloredNodes );
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        assertEquals( 1, stats.getRuns() );
+        assertTrue( stats.getExploredNodes() > 0 );
+    }
+
+    @Test
+    public void testReset()
+        throws NotEnoughColorsException
+    {
+        MutableGraph<String> g = GraphBuilder.undirected().build();
+        buildCompleteGraph( 10, g );
+
+        SolverStats stats = new SolverStats();
+        coloring( g ).withColors( createColorsList( 10 ) ).withStatistics( stats ).applyingMinimumColoring();
+        assertEquals( 1, stats.getRuns() );
+        assertTrue( stats.getPhaseTime( SolverPhase.BOUNDING, TimeUnit.NANOSECONDS ) > 0 );
+
+        stats.reset();
+        assertEquals( 0, stats.getRuns() );
+        assertEquals( 0, stats.getVisitedNodes() );
+        assertEquals( 0, stats.getColorAttempts() );
+        assertEquals( 0, stats.getConflictChecks() );
+        assertEquals( 0, stats.getTotalTime( TimeUnit.NANOSECONDS ) );
+    }
+
+}